@@ -0,0 +1,67 @@
+package com.firstclub.membership.admission;
+
+import java.util.List;
+
+/**
+ * Endpoints behind admission control, named as they appear in configuration. Each has one token bucket
+ * shared by all callers and its own token bucket per user; the mappings of one endpoint share them.
+ */
+public enum AdmissionEndpoint {
+
+    EVALUATE_TIER("evaluate-tier", 10, 1, 200, 100,
+            "POST /api/memberships/user/{userId}/evaluate-tier"),
+    ELIGIBLE_TIER("eligible-tier", 20, 5, 1000, 500,
+            "GET /api/memberships/user/{userId}/eligible-tier"),
+    TIER_PROGRESS("tier-progress", 20, 5, 1000, 500,
+            "GET /api/memberships/user/{userId}/progress"),
+    BENEFITS("benefits", 50, 20, 5000, 2500,
+            "GET /api/orders/benefits/free-delivery",
+            "GET /api/orders/benefits/discount",
+            "GET /api/orders/benefits/entitlements"),
+    ORDER_HISTORY("order-history", 20, 5, 1000, 500,
+            "GET /api/orders/user/{userId}");
+
+    private final String key;
+    private final int defaultCapacity;
+    private final double defaultRefillPerSecond;
+    private final int defaultTotalCapacity;
+    private final double defaultTotalRefillPerSecond;
+    private final List<String> mappings;
+
+    AdmissionEndpoint(String key, int defaultCapacity, double defaultRefillPerSecond, int defaultTotalCapacity,
+                      double defaultTotalRefillPerSecond, String... mappings) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+        this.defaultTotalCapacity = defaultTotalCapacity;
+        this.defaultTotalRefillPerSecond = defaultTotalRefillPerSecond;
+        this.mappings = List.of(mappings);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public double defaultRefillPerSecond() {
+        return defaultRefillPerSecond;
+    }
+
+    public int defaultTotalCapacity() {
+        return defaultTotalCapacity;
+    }
+
+    public double defaultTotalRefillPerSecond() {
+        return defaultTotalRefillPerSecond;
+    }
+
+    /**
+     * "METHOD pattern" of each handler mapping, as Spring MVC reports the best matching pattern.
+     */
+    public List<String> mappings() {
+        return mappings;
+    }
+}
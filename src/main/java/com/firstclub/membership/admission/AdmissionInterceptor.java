@@ -0,0 +1,170 @@
+package com.firstclub.membership.admission;
+
+import com.firstclub.membership.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admission control for the {@link AdmissionEndpoint}s, checked after handler mapping and before the
+ * controller runs, so a rejected request never opens a transaction or takes a connection.
+ *
+ * <p>Every request first takes a token from the endpoint's total bucket, which bounds the endpoint however
+ * many users call it, then one from the user's own bucket in a {@link TokenBucketTable}. A request the
+ * user's bucket refuses gives its total token back, so one user over their limit cannot use up everyone
+ * else's share. The user is the {@code userId} path variable or request parameter; a request without a
+ * valid one only takes a total token and is let through for the controller to reject. A request with no
+ * token left gets 429 with the time until the next token in {@code Retry-After}. Limits are
+ * {@code membership.admission.<endpoint>.capacity} (burst) and {@code refill-per-second} per user, and
+ * {@code total-capacity} and {@code total-refill-per-second} for the endpoint; a capacity of 0 lifts
+ * that limit.
+ */
+@Component
+@ConditionalOnProperty(prefix = "membership.admission", name = "enabled", havingValue = "true")
+@Slf4j
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String USER_ID = "userId";
+
+    private final TokenBucketTable buckets;
+    // One bucket per endpoint, keyed by ordinal; never more than the table holds, so never evicted
+    private final TokenBucketTable totalBuckets;
+    private final Map<String, AdmissionEndpoint> endpointsByMapping = new HashMap<>();
+    private final Map<AdmissionEndpoint, Limit> limits = new EnumMap<>(AdmissionEndpoint.class);
+
+    private record Limit(int capacity, double refillPerSecond, int totalCapacity, double totalRefillPerSecond,
+                         Counter admitted, Counter rejected, Counter rejectedTotal) {
+    }
+
+    public AdmissionInterceptor(Environment environment,
+                                @Value("${membership.admission.max-buckets:100000}") int maxBuckets,
+                                @Value("${membership.admission.stripes:64}") int stripes,
+                                MeterRegistry meterRegistry) {
+        this.buckets = new TokenBucketTable(maxBuckets, stripes);
+        this.totalBuckets = new TokenBucketTable(AdmissionEndpoint.values().length, 1);
+        for (AdmissionEndpoint endpoint : AdmissionEndpoint.values()) {
+            String prefix = "membership.admission." + endpoint.key() + ".";
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class, endpoint.defaultCapacity());
+            double refill = environment.getProperty(prefix + "refill-per-second", Double.class,
+                    endpoint.defaultRefillPerSecond());
+            int totalCapacity = environment.getProperty(prefix + "total-capacity", Integer.class,
+                    endpoint.defaultTotalCapacity());
+            double totalRefill = environment.getProperty(prefix + "total-refill-per-second", Double.class,
+                    endpoint.defaultTotalRefillPerSecond());
+            if (capacity <= 0 && totalCapacity <= 0) {
+                log.info("Admission control disabled for {}", endpoint.key());
+                continue;
+            }
+            if (capacity > 0 && refill <= 0) {
+                throw new IllegalArgumentException(prefix + "refill-per-second must be positive: " + refill);
+            }
+            if (totalCapacity > 0 && totalRefill <= 0) {
+                throw new IllegalArgumentException(prefix + "total-refill-per-second must be positive: "
+                        + totalRefill);
+            }
+            limits.put(endpoint, new Limit(capacity, refill, totalCapacity, totalRefill,
+                    Counter.builder("membership.admission.admitted").tag("endpoint", endpoint.key())
+                            .register(meterRegistry),
+                    rejectedCounter(meterRegistry, endpoint, "user"),
+                    rejectedCounter(meterRegistry, endpoint, "total")));
+            endpoint.mappings().forEach(mapping -> endpointsByMapping.put(mapping, endpoint));
+        }
+        Gauge.builder("membership.admission.buckets", buckets, TokenBucketTable::size).register(meterRegistry);
+        FunctionCounter.builder("membership.admission.evictions", buckets, TokenBucketTable::evictions)
+                .description("Buckets dropped to stay within membership.admission.max-buckets")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, AdmissionEndpoint endpoint, String limit) {
+        return Counter.builder("membership.admission.rejected")
+                .tag("endpoint", endpoint.key())
+                .tag("limit", limit)
+                .description("Requests refused with 429 before reaching the controller")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // A handler returning a future is dispatched again to write its result; it was admitted the first time
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return true;
+        }
+        AdmissionEndpoint endpoint = endpointsByMapping.get(request.getMethod() + " " + pattern);
+        if (endpoint == null) {
+            return true;
+        }
+        Limit limit = limits.get(endpoint);
+        long now = System.nanoTime();
+        boolean total = limit.totalCapacity() > 0;
+        if (total) {
+            long waitNanos = totalBuckets.tryAcquire(endpoint.ordinal(), limit.totalCapacity(),
+                    limit.totalRefillPerSecond(), now);
+            if (waitNanos > 0) {
+                limit.rejectedTotal().increment();
+                throw tooManyRequests("Too many " + endpoint.key() + " requests", waitNanos);
+            }
+        }
+        long userId = userId(request);
+        if (userId > 0 && limit.capacity() > 0) {
+            long waitNanos = buckets.tryAcquire(key(endpoint, userId), limit.capacity(), limit.refillPerSecond(),
+                    now);
+            if (waitNanos > 0) {
+                if (total) {
+                    totalBuckets.refund(endpoint.ordinal(), limit.totalCapacity());
+                }
+                limit.rejected().increment();
+                throw tooManyRequests("Too many " + endpoint.key() + " requests for user " + userId, waitNanos);
+            }
+        }
+        limit.admitted().increment();
+        return true;
+    }
+
+    private static TooManyRequestsException tooManyRequests(String message, long waitNanos) {
+        Duration retryAfter = Duration.ofNanos(waitNanos);
+        return new TooManyRequestsException(message + ", retry in " + Math.max(1, retryAfter.toMillis()) + " ms",
+                retryAfter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long userId(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables != null && variables.containsKey(USER_ID)
+                ? variables.get(USER_ID) : request.getParameter(USER_ID);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * User ids stay far below 2^58, which leaves the low bits for the endpoint.
+     */
+    private static long key(AdmissionEndpoint endpoint, long userId) {
+        return userId << 5 | endpoint.ordinal();
+    }
+}
@@ -0,0 +1,138 @@
+package com.firstclub.membership.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded table of token buckets keyed by {@code long}, split into independently locked stripes.
+ *
+ * <p>Each stripe is an access-ordered map holding at most {@code maxBuckets / stripes} buckets; beyond
+ * that its least recently used bucket is dropped. A dropped bucket has usually refilled already, and if
+ * not its key simply starts over with a full one, so the bound costs a little precision, never
+ * correctness. Buckets refill lazily on access, so idle keys cost nothing but their entry. Stripes are
+ * guarded by {@link ReentrantLock}s, so a virtual thread waiting on one does not pin its carrier.
+ */
+public final class TokenBucketTable {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+    }
+
+    private final class Stripe extends LinkedHashMap<Long, Bucket> {
+
+        private static final long serialVersionUID = 1L;
+
+        final ReentrantLock lock = new ReentrantLock();
+        final int maxBuckets;
+
+        Stripe(int maxBuckets) {
+            super(16, 0.75f, true);
+            this.maxBuckets = maxBuckets;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Bucket> eldest) {
+            if (size() > maxBuckets) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param maxBuckets most buckets kept in memory
+     * @param stripeCount number of independently locked stripes, rounded up to a power of two
+     */
+    public TokenBucketTable(int maxBuckets, int stripeCount) {
+        int count = 1;
+        while (count < stripeCount) {
+            count <<= 1;
+        }
+        if (maxBuckets < count) {
+            throw new IllegalArgumentException("Token bucket table needs at least one bucket per stripe: "
+                    + maxBuckets + " buckets, " + count + " stripes");
+        }
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(maxBuckets / count);
+        }
+    }
+
+    /**
+     * Take one token from the key's bucket, which holds up to {@code capacity} tokens and gains
+     * {@code tokensPerSecond}. A new key starts with a full bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(long key, int capacity, double tokensPerSecond, long nowNanos) {
+        Stripe stripe = stripes[stripeIndex(key)];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket();
+                bucket.tokens = capacity;
+                bucket.refilledAt = nowNanos;
+                stripe.put(key, bucket);
+            } else if (nowNanos > bucket.refilledAt) {
+                bucket.tokens = Math.min(capacity,
+                        bucket.tokens + (nowNanos - bucket.refilledAt) * tokensPerSecond / 1e9);
+                bucket.refilledAt = nowNanos;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerSecond * 1e9);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire} for a request that was refused further on.
+     */
+    public void refund(long key, int capacity) {
+        Stripe stripe = stripes[stripeIndex(key)];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.get(key);
+            if (bucket != null) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    private int stripeIndex(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & stripeMask;
+    }
+}
@@ -0,0 +1,250 @@
+package com.firstclub.membership.analytics;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.cache.RebuildReplay;
+import com.firstclub.membership.dto.BenefitSpendResponse;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.OrderCreatedEvent;
+import com.firstclub.membership.event.OrderDeadLetteredEvent;
+import com.firstclub.membership.event.TierChangeRecordedEvent;
+import com.firstclub.membership.persistence.OrderWriteBehindBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory counters for tier distribution and benefit spend, kept current from
+ * committed membership and order events so reads never touch the database.
+ *
+ * <p>Counters are seeded from the source tables at startup and can be recomputed with {@link #rebuild()}.
+ * Orders and tier changes committed while a rebuild is running are replayed onto the rebuilt counters
+ * unless the rebuild's snapshot already contains their row (see {@link RebuildReplay}), so each is counted
+ * exactly once. A rebuild first waits for the orders already in the write-behind buffer to be written, and
+ * orders the buffer dead-letters are taken back out of the counters.
+ */
+@Component
+@Slf4j
+public class MembershipAnalytics {
+
+    public static final String UNCATEGORIZED = "uncategorized";
+
+    private static final String TIER_STATUS_SQL = "SELECT t.tier_level, m.status, COUNT(*) "
+            + "FROM memberships m JOIN membership_tiers t ON t.id = m.tier_id "
+            + "GROUP BY t.tier_level, m.status";
+
+    private static final String DAILY_SPEND_SQL = "SELECT CAST(order_date AS DATE), "
+            + "COALESCE(category, '" + UNCATEGORIZED + "'), COUNT(*), COALESCE(SUM(discount_amount), 0), "
+            + "SUM(CASE WHEN free_delivery_applied THEN 1 ELSE 0 END) "
+            + "FROM orders GROUP BY CAST(order_date AS DATE), COALESCE(category, '" + UNCATEGORIZED + "')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderWriteBehindBuffer writeBehindBuffer;
+
+    private final AtomicReference<Counters> current = new AtomicReference<>(new Counters());
+    private final RebuildReplay<Counters> replay;
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public MembershipAnalytics(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               OrderWriteBehindBuffer writeBehindBuffer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.replay = new RebuildReplay<>(jdbcTemplate, transactionManager, false, current::get);
+    }
+
+    /**
+     * Published once the change has committed, with the id of its history row.
+     */
+    @EventListener
+    public void onTierChangeRecorded(TierChangeRecordedEvent event) {
+        replay.apply(RebuildReplay.TIER_CHANGES, event.getChangeId(), counters -> {
+            if (event.getPreviousTier() != null && event.getPreviousStatus() != null) {
+                counters.members(event.getPreviousTier(), event.getPreviousStatus()).decrement();
+            }
+            counters.members(event.getTier(), event.getStatus()).increment();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        String category = event.getCategory() != null ? event.getCategory() : UNCATEGORIZED;
+        LocalDate day = event.getOrderDate().toLocalDate();
+        long discountCents = toCents(event.getDiscountAmount());
+        int freeDelivery = event.isFreeDeliveryApplied() ? 1 : 0;
+        replay.apply(RebuildReplay.ORDERS, event.getOrderId(),
+                counters -> counters.recordSpend(day, category, 1, discountCents, freeDelivery));
+    }
+
+    @EventListener
+    public void onOrderDeadLettered(OrderDeadLetteredEvent event) {
+        String category = event.getCategory() != null ? event.getCategory() : UNCATEGORIZED;
+        LocalDate day = event.getOrderDate().toLocalDate();
+        long discountCents = toCents(event.getDiscountAmount());
+        int freeDelivery = event.isFreeDeliveryApplied() ? 1 : 0;
+        replay.retract(RebuildReplay.ORDERS, event.getOrderId(),
+                counters -> counters.recordSpend(day, category, -1, -discountCents, -freeDelivery));
+    }
+
+    /**
+     * Members per tier and status. Every tier and status is present, zero if unused.
+     */
+    public Map<TierLevel, Map<MembershipStatus, Long>> tierDistribution() {
+        Counters counters = current.get();
+        Map<TierLevel, Map<MembershipStatus, Long>> result = new EnumMap<>(TierLevel.class);
+        for (TierLevel tier : TierLevel.values()) {
+            Map<MembershipStatus, Long> byStatus = new EnumMap<>(MembershipStatus.class);
+            for (MembershipStatus status : MembershipStatus.values()) {
+                byStatus.put(status, counters.members(tier, status).sum());
+            }
+            result.put(tier, byStatus);
+        }
+        return result;
+    }
+
+    /**
+     * Benefit spend per category for one day, or just the given category when it is not null.
+     */
+    public List<BenefitSpendResponse> dailySpend(LocalDate day, String category) {
+        return spend(current.get().daily.get(day), category);
+    }
+
+    /**
+     * Benefit spend per category for one calendar month, or just the given category when it is not null.
+     */
+    public List<BenefitSpendResponse> monthlySpend(YearMonth month, String category) {
+        return spend(current.get().monthly.get(month), category);
+    }
+
+    // Seed before other ready listeners (benchmarks, load tests) start generating traffic
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        BulkheadExecutors.runAs(Bulkhead.ADMIN, this::rebuild);
+    }
+
+    /**
+     * Recompute every counter from the source tables and swap the result in atomically.
+     */
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            replay.rebuild(writeBehindBuffer::awaitFlushed, () -> {
+                Counters rebuilt = new Counters();
+                jdbcTemplate.query(TIER_STATUS_SQL, rs -> {
+                    rebuilt.members(TierLevel.valueOf(rs.getString(1)), MembershipStatus.valueOf(rs.getString(2)))
+                            .add(rs.getLong(3));
+                });
+                jdbcTemplate.query(DAILY_SPEND_SQL, rs -> {
+                    rebuilt.recordSpend(rs.getDate(1).toLocalDate(), rs.getString(2),
+                            rs.getLong(3), toCents(rs.getBigDecimal(4)), rs.getLong(5));
+                });
+                return rebuilt;
+            }, rebuilt -> {
+                current.set(rebuilt);
+                return true;
+            });
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Rebuilt membership analytics in {} ms", elapsedMs);
+            return elapsedMs;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static List<BenefitSpendResponse> spend(Map<String, SpendCounter> byCategory, String category) {
+        List<BenefitSpendResponse> result = new ArrayList<>();
+        if (byCategory == null) {
+            return result;
+        }
+        // A category whose only orders were dead-lettered is left with a zero counter
+        if (category != null) {
+            SpendCounter counter = byCategory.get(category);
+            if (counter != null && counter.orders.sum() > 0) {
+                result.add(counter.toResponse(category));
+            }
+            return result;
+        }
+        new TreeMap<>(byCategory).forEach((name, counter) -> {
+            if (counter.orders.sum() > 0) {
+                result.add(counter.toResponse(name));
+            }
+        });
+        return result;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    private static final class Counters {
+
+        private final LongAdder[][] members = new LongAdder[TierLevel.values().length][MembershipStatus.values().length];
+        private final Map<LocalDate, Map<String, SpendCounter>> daily = new ConcurrentHashMap<>();
+        private final Map<YearMonth, Map<String, SpendCounter>> monthly = new ConcurrentHashMap<>();
+
+        Counters() {
+            for (LongAdder[] row : members) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = new LongAdder();
+                }
+            }
+        }
+
+        LongAdder members(TierLevel tier, MembershipStatus status) {
+            return members[tier.ordinal()][status.ordinal()];
+        }
+
+        void recordSpend(LocalDate day, String category, long orders, long discountCents, long freeDeliveries) {
+            counter(daily, day, category).add(orders, discountCents, freeDeliveries);
+            counter(monthly, YearMonth.from(day), category).add(orders, discountCents, freeDeliveries);
+        }
+
+        private static <K> SpendCounter counter(Map<K, Map<String, SpendCounter>> buckets, K key, String category) {
+            return buckets.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(category, c -> new SpendCounter());
+        }
+    }
+
+    private static final class SpendCounter {
+
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder discountCents = new LongAdder();
+        private final LongAdder freeDeliveries = new LongAdder();
+
+        void add(long orderCount, long cents, long freeDeliveryCount) {
+            orders.add(orderCount);
+            discountCents.add(cents);
+            freeDeliveries.add(freeDeliveryCount);
+        }
+
+        BenefitSpendResponse toResponse(String category) {
+            return BenefitSpendResponse.builder()
+                    .category(category)
+                    .orders(orders.sum())
+                    .discountAmount(BigDecimal.valueOf(discountCents.sum(), 2))
+                    .freeDeliveries(freeDeliveries.sum())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.QuotaPeriod;
+import java.math.BigDecimal;
+
+/**
+ * A tier benefit with its value parsed by the type's {@link BenefitHandler}, built once when the benefit
+ * catalog loads. {@code category} is a normalized category path such as "grocery/dairy", which also
+ * covers every category below it, or null when the benefit applies to every category. {@code promotion}
+ * marks a time-limited campaign benefit granted on top of the tier's own benefits.
+ */
+public record Benefit(long id, BenefitType type, Object value, String category, String description,
+                      BigDecimal quotaLimit, QuotaPeriod quotaPeriod, boolean promotion) {
+
+    public boolean hasQuota() {
+        return quotaLimit != null && quotaPeriod != null;
+    }
+
+    /**
+     * Whether the benefit applies to an order in the normalized category path.
+     */
+    public boolean covers(String normalizedCategory) {
+        return category == null || (normalizedCategory != null && normalizedCategory.startsWith(category)
+                && (normalizedCategory.length() == category.length()
+                || normalizedCategory.charAt(category.length()) == '/'));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T typedValue() {
+        return (T) value;
+    }
+}
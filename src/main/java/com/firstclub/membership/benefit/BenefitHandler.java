@@ -0,0 +1,35 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.enums.BenefitType;
+import java.util.List;
+
+/**
+ * Evaluates one {@link BenefitType}. Implementations are Spring beans collected by
+ * {@link BenefitHandlerRegistry}, which dispatches to them by type ordinal; each type needs exactly one.
+ */
+public interface BenefitHandler {
+
+    BenefitType type();
+
+    /**
+     * Parse and validate a stored benefit value.
+     *
+     * @throws IllegalArgumentException if the value is not valid for this type
+     */
+    Object parse(String value);
+
+    /**
+     * Apply the member's benefits of this type to an order being priced. {@code benefits} are those
+     * covering the order's category, most specific category path first. Benefits that do not change
+     * the order, like support or access perks, keep the default.
+     */
+    default void apply(Order order, List<Benefit> benefits) {
+    }
+
+    /**
+     * What the member is entitled to for an order in {@code category}, or null if nothing;
+     * {@code benefits} are matched the same way as for {@link #apply}.
+     */
+    Object entitlement(long userId, String category, List<Benefit> benefits);
+}
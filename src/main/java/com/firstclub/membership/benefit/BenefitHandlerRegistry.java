@@ -0,0 +1,111 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.entity.Campaign;
+import com.firstclub.membership.entity.TierBenefit;
+import com.firstclub.membership.enums.BenefitType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Dispatch table of {@link BenefitHandler}s indexed by {@link BenefitType} ordinal.
+ * Fails at startup if a type has no handler or more than one.
+ */
+@Component
+@Slf4j
+public class BenefitHandlerRegistry {
+
+    private final BenefitHandler[] handlers = new BenefitHandler[BenefitType.values().length];
+
+    public BenefitHandlerRegistry(List<BenefitHandler> handlerBeans) {
+        for (BenefitHandler handler : handlerBeans) {
+            int slot = handler.type().ordinal();
+            if (handlers[slot] != null) {
+                throw new IllegalStateException("Multiple benefit handlers for " + handler.type() + ": "
+                        + handlers[slot].getClass().getSimpleName() + ", " + handler.getClass().getSimpleName());
+            }
+            handlers[slot] = handler;
+        }
+        for (BenefitType type : BenefitType.values()) {
+            if (handlers[type.ordinal()] == null) {
+                throw new IllegalStateException("No benefit handler for " + type);
+            }
+        }
+    }
+
+    public BenefitHandler handler(BenefitType type) {
+        return handlers[type.ordinal()];
+    }
+
+    /**
+     * Parse a stored benefit with its type's handler.
+     *
+     * @throws IllegalArgumentException if the benefit has no type, an invalid value, or a quota limit
+     *                                  without a period (or the reverse)
+     */
+    public Benefit resolve(TierBenefit benefit) {
+        if (benefit.getBenefitType() == null) {
+            throw new IllegalArgumentException("Benefit " + benefit.getId() + " has no type");
+        }
+        if ((benefit.getQuotaLimit() == null) != (benefit.getQuotaPeriod() == null)) {
+            throw new IllegalArgumentException("Benefit " + benefit.getId()
+                    + " must have both a quota limit and a quota period, or neither");
+        }
+        if (benefit.getQuotaLimit() != null && benefit.getQuotaLimit().signum() < 0) {
+            throw new IllegalArgumentException("Benefit " + benefit.getId() + " has a negative quota limit");
+        }
+        Object value = parse(benefit.getBenefitType(), benefit.getBenefitValue(), "benefit " + benefit.getId());
+        return new Benefit(benefit.getId(), benefit.getBenefitType(), value,
+                CategoryTrie.normalize(benefit.getApplicableCategory()), benefit.getDescription(),
+                benefit.getQuotaLimit(), benefit.getQuotaPeriod(), false);
+    }
+
+    /**
+     * Parse a campaign's benefit. Campaign benefits take negated campaign ids so they never collide with
+     * tier benefit ids, and carry no quota.
+     *
+     * @throws IllegalArgumentException if the campaign has no type or an invalid value
+     */
+    public Benefit resolve(Campaign campaign) {
+        if (campaign.getBenefitType() == null) {
+            throw new IllegalArgumentException("Campaign " + campaign.getId() + " has no benefit type");
+        }
+        Object value = parse(campaign.getBenefitType(), campaign.getBenefitValue(), "campaign " + campaign.getId());
+        return new Benefit(-campaign.getId(), campaign.getBenefitType(), value,
+                CategoryTrie.normalize(campaign.getApplicableCategory()), campaign.getName(), null, null, true);
+    }
+
+    /**
+     * Normalized form of a category path, as stored in {@link Benefit#category()}.
+     */
+    public static String normalizeCategory(String category) {
+        return CategoryTrie.normalize(category);
+    }
+
+    private Object parse(BenefitType type, String value, String source) {
+        try {
+            return handler(type).parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + type + " " + source + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolve a tier's benefits, leaving out (and logging) any that fail validation so one bad row
+     * does not take pricing down.
+     */
+    public TierBenefits resolveAll(Collection<TierBenefit> benefits) {
+        List<Benefit> resolved = new ArrayList<>(benefits.size());
+        for (TierBenefit benefit : benefits) {
+            try {
+                resolved.add(resolve(benefit));
+            } catch (IllegalArgumentException e) {
+                log.error("Ignoring benefit: {}", e.getMessage());
+            }
+        }
+        return new TierBenefits(resolved);
+    }
+}
@@ -0,0 +1,95 @@
+package com.firstclub.membership.benefit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Benefits of one type keyed by category path ("grocery/dairy/cheese"), matched by longest prefix.
+ *
+ * <p>Each node precomputes its answer: the benefits scoped to its own path, in the order they were given,
+ * followed by those of each shorter prefix, ending with the unscoped benefits at the root. A lookup walks one node per path
+ * segment and returns the answer of the deepest node it reaches, so its cost depends on the depth of
+ * the order's category, not on how many benefits the tier has.
+ */
+final class CategoryTrie {
+
+    private final Node root = new Node();
+
+    CategoryTrie(List<Benefit> benefits) {
+        for (Benefit benefit : benefits) {
+            Node node = root;
+            if (benefit.category() != null) {
+                for (String segment : benefit.category().split("/")) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            node.own.add(benefit);
+        }
+        root.seal(List.of());
+    }
+
+    /**
+     * Benefits matching {@code category}, most specific first. A null or blank category only matches
+     * unscoped benefits.
+     */
+    List<Benefit> match(String category) {
+        Node node = root;
+        if (category != null) {
+            int start = 0;
+            int length = category.length();
+            while (start < length) {
+                int end = category.indexOf('/', start);
+                if (end < 0) {
+                    end = length;
+                }
+                String segment = category.substring(start, end).trim();
+                start = end + 1;
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                Node child = node.children.get(segment.toLowerCase(Locale.ROOT));
+                if (child == null) {
+                    break;
+                }
+                node = child;
+            }
+        }
+        return node.matches;
+    }
+
+    /**
+     * Normalized form of a category path: trimmed, lower-case segments joined by '/', or null if empty.
+     */
+    static String normalize(String category) {
+        if (category == null) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : category.split("/")) {
+            if (!segment.isBlank()) {
+                segments.add(segment.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return segments.isEmpty() ? null : String.join("/", segments);
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Benefit> own = new ArrayList<>();
+        private List<Benefit> matches;
+
+        void seal(List<Benefit> inherited) {
+            List<Benefit> all = new ArrayList<>(own.size() + inherited.size());
+            all.addAll(own);
+            all.addAll(inherited);
+            matches = List.copyOf(all);
+            for (Node child : children.values()) {
+                child.seal(matches);
+            }
+        }
+    }
+}
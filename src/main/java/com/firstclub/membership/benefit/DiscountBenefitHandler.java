@@ -0,0 +1,104 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.quota.BenefitQuotaTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Percentage discount; the value is the percentage, greater than 0 and at most 100.
+ * An order gets the tier discount with the most specific category whose quota is not used up, the
+ * highest one if several share that category, plus the largest bonus from a running campaign, up to 100%.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DiscountBenefitHandler implements BenefitHandler {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final BenefitQuotaTracker quotaTracker;
+
+    @Override
+    public BenefitType type() {
+        return BenefitType.DISCOUNT;
+    }
+
+    @Override
+    public Object parse(String value) {
+        BigDecimal percent;
+        try {
+            percent = new BigDecimal(value.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("expected a percentage");
+        }
+        if (percent.signum() <= 0 || percent.compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("percentage must be greater than 0 and at most 100");
+        }
+        return percent;
+    }
+
+    @Override
+    public void apply(Order order, List<Benefit> benefits) {
+        long userId = order.getUser().getId();
+        BigDecimal basePercent = BigDecimal.ZERO;
+        BigDecimal baseAmount = BigDecimal.ZERO;
+        for (Benefit benefit : benefits) {
+            if (benefit.promotion()) {
+                continue;
+            }
+            BigDecimal percent = benefit.typedValue();
+            BigDecimal amount = quotaTracker.capDiscount(userId, benefit, percentOf(order, percent));
+            if (amount.signum() == 0) {
+                log.debug("Discount quota of benefit {} exhausted for user {}", benefit.id(), userId);
+                continue;
+            }
+            basePercent = percent;
+            baseAmount = amount;
+            break;
+        }
+
+        // Campaign bonuses are not quota-capped; the best one is added to the base percentage
+        BigDecimal discountPercent = basePercent.add(bestPromotion(benefits)).min(HUNDRED);
+        if (discountPercent.signum() == 0) {
+            return;
+        }
+        BigDecimal discountAmount = baseAmount.add(percentOf(order, discountPercent.subtract(basePercent)));
+
+        order.setDiscountPercentage(discountPercent);
+        order.setDiscountAmount(discountAmount);
+
+        log.debug("Applied {}% discount (amount: {}) for order {}", discountPercent, discountAmount, order.getId());
+    }
+
+    @Override
+    public Object entitlement(long userId, String category, List<Benefit> benefits) {
+        BigDecimal percent = benefits.stream()
+                .filter(b -> !b.promotion() && quotaTracker.hasRemaining(userId, b))
+                .findFirst()
+                .map(b -> b.<BigDecimal>typedValue())
+                .orElse(BigDecimal.ZERO)
+                .add(bestPromotion(benefits))
+                .min(HUNDRED);
+        return percent.signum() > 0 ? percent : null;
+    }
+
+    private static BigDecimal bestPromotion(List<Benefit> benefits) {
+        BigDecimal best = BigDecimal.ZERO;
+        for (Benefit benefit : benefits) {
+            if (benefit.promotion()) {
+                best = best.max(benefit.typedValue());
+            }
+        }
+        return best;
+    }
+
+    private static BigDecimal percentOf(Order order, BigDecimal percent) {
+        return order.getOrderValue().multiply(percent).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,16 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.enums.BenefitType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Early access to sales, which can be limited to a category like any other benefit.
+ */
+@Component
+public class EarlyAccessBenefitHandler extends FlagBenefitHandler {
+
+    @Override
+    public BenefitType type() {
+        return BenefitType.EARLY_ACCESS;
+    }
+}
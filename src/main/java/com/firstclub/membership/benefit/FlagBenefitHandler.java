@@ -0,0 +1,41 @@
+package com.firstclub.membership.benefit;
+
+import java.util.List;
+
+/**
+ * Base for benefits whose value is an on/off flag ("true" or "false").
+ */
+public abstract class FlagBenefitHandler implements BenefitHandler {
+
+    @Override
+    public Object parse(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("expected true or false");
+    }
+
+    @Override
+    public Object entitlement(long userId, String category, List<Benefit> benefits) {
+        for (Benefit benefit : benefits) {
+            if (isEnabled(benefit) && isAvailable(userId, benefit)) {
+                return Boolean.TRUE;
+            }
+        }
+        return null;
+    }
+
+    protected boolean isEnabled(Benefit benefit) {
+        return Boolean.TRUE.equals(benefit.value());
+    }
+
+    /**
+     * Whether an enabled, applicable benefit can still be used, for example within its quota.
+     */
+    protected boolean isAvailable(long userId, Benefit benefit) {
+        return true;
+    }
+}
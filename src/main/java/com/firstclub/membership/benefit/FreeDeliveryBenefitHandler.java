@@ -0,0 +1,42 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.quota.BenefitQuotaTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.Comparator;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FreeDeliveryBenefitHandler extends FlagBenefitHandler {
+
+    private final BenefitQuotaTracker quotaTracker;
+
+    @Override
+    public BenefitType type() {
+        return BenefitType.FREE_DELIVERY;
+    }
+
+    @Override
+    public void apply(Order order, List<Benefit> benefits) {
+        // Uncapped benefits first, so a quota is only consumed when nothing else covers the order
+        boolean hasFreeDelivery = benefits.stream()
+                .filter(this::isEnabled)
+                .sorted(Comparator.comparing(Benefit::hasQuota))
+                .anyMatch(b -> quotaTracker.tryUse(order.getUser().getId(), b));
+
+        if (hasFreeDelivery) {
+            order.setFreeDeliveryApplied(true);
+            log.debug("Free delivery applied for order {}", order.getId());
+        }
+    }
+
+    @Override
+    protected boolean isAvailable(long userId, Benefit benefit) {
+        return quotaTracker.hasRemaining(userId, benefit);
+    }
+}
@@ -0,0 +1,16 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.enums.BenefitType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Priority customer support. It does not change order pricing and is reported as an entitlement.
+ */
+@Component
+public class PrioritySupportBenefitHandler extends FlagBenefitHandler {
+
+    @Override
+    public BenefitType type() {
+        return BenefitType.PRIORITY_SUPPORT;
+    }
+}
@@ -0,0 +1,63 @@
+package com.firstclub.membership.benefit;
+
+import com.firstclub.membership.enums.BenefitType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The resolved benefits of one tier with a {@link CategoryTrie} per type, indexed by type ordinal.
+ * Benefits for the same category path are ordered by value, highest first (the larger discount, an
+ * enabled flag before a disabled one), then by id.
+ */
+public final class TierBenefits {
+
+    // Declared before NONE, which is built with it
+    private static final Comparator<Benefit> PREFERENCE =
+            ((Comparator<Benefit>) TierBenefits::compareValuesDescending).thenComparingLong(Benefit::id);
+
+    public static final TierBenefits NONE = new TierBenefits(List.of());
+
+    private final CategoryTrie[] byType;
+    private final boolean[] present;
+
+    public TierBenefits(Collection<Benefit> benefits) {
+        int types = BenefitType.values().length;
+        List<List<Benefit>> grouped = new ArrayList<>(types);
+        for (int i = 0; i < types; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        benefits.stream()
+                .sorted(PREFERENCE)
+                .forEach(b -> grouped.get(b.type().ordinal()).add(b));
+        this.byType = new CategoryTrie[types];
+        this.present = new boolean[types];
+        for (int i = 0; i < types; i++) {
+            byType[i] = new CategoryTrie(grouped.get(i));
+            present[i] = !grouped.get(i).isEmpty();
+        }
+    }
+
+    public boolean has(BenefitType type) {
+        return present[type.ordinal()];
+    }
+
+    /**
+     * Benefits of the type that cover {@code category}, most specific category path first.
+     */
+    public List<Benefit> matching(BenefitType type, String category) {
+        return byType[type.ordinal()].match(category);
+    }
+
+    private static int compareValuesDescending(Benefit a, Benefit b) {
+        if (a.value() instanceof BigDecimal x && b.value() instanceof BigDecimal y) {
+            return y.compareTo(x);
+        }
+        if (a.value() instanceof Boolean x && b.value() instanceof Boolean y) {
+            return y.compareTo(x);
+        }
+        return 0;
+    }
+}
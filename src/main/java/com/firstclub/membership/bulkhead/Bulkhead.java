@@ -0,0 +1,42 @@
+package com.firstclub.membership.bulkhead;
+
+/**
+ * Kinds of work kept apart from each other, named as they appear in configuration.
+ */
+public enum Bulkhead {
+
+    /**
+     * Order placement and the benefit checks made during checkout.
+     */
+    CHECKOUT("checkout", 16, 200),
+    /**
+     * A member's own reads and account changes, and catalog reads.
+     */
+    MEMBER("member", 8, 100),
+    /**
+     * Admin endpoints and bulk work such as cohort tier grants and analytics rebuilds.
+     */
+    ADMIN("admin", 2, 10);
+
+    private final String key;
+    private final int defaultThreads;
+    private final int defaultQueueCapacity;
+
+    Bulkhead(String key, int defaultThreads, int defaultQueueCapacity) {
+        this.key = key;
+        this.defaultThreads = defaultThreads;
+        this.defaultQueueCapacity = defaultQueueCapacity;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultThreads() {
+        return defaultThreads;
+    }
+
+    public int defaultQueueCapacity() {
+        return defaultQueueCapacity;
+    }
+}
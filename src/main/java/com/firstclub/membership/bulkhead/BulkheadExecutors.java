@@ -0,0 +1,334 @@
+package com.firstclub.membership.bulkhead;
+
+import com.firstclub.membership.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A bounded executor per {@link Bulkhead}, so each kind of work has its own threads and queue and one
+ * kind saturating cannot delay another.
+ *
+ * <p>Controllers hand their work to {@link #supply} and return the future, which releases the request
+ * thread; scheduled jobs use {@link #run}, which waits for it. Each bulkhead runs at most
+ * {@code membership.bulkheads.<bulkhead>.threads} pieces of work at a time with up to {@code queue-capacity}
+ * more waiting; work submitted to a full bulkhead is refused at once with a
+ * {@link ServiceOverloadedException}. Threads know their bulkhead ({@link #current()}), which the
+ * bulkhead data source uses to give each its share of the connection pool.
+ *
+ * <p>On platform threads each bulkhead is a fixed pool of {@code threads}. With
+ * {@code spring.threads.virtual.enabled=true} every piece of work gets its own virtual thread instead, and
+ * the same limits are held by semaphores, so blocking work does not tie up platform threads.
+ *
+ * <p>With {@code membership.bulkheads.enabled=false} work runs on the calling thread.
+ */
+@Component
+@Slf4j
+public class BulkheadExecutors implements SmartLifecycle {
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Duration shutdownTimeout;
+    private final Map<Bulkhead, Pool> pools = new EnumMap<>(Bulkhead.class);
+
+    private volatile boolean running;
+
+    private record Pool(Lane lane, Counter rejected, Timer queueWait) {
+    }
+
+    public BulkheadExecutors(Environment environment,
+                             @Value("${membership.bulkheads.enabled:true}") boolean enabled,
+                             @Value("${membership.bulkheads.shutdown-timeout:30s}") Duration shutdownTimeout,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.shutdownTimeout = shutdownTimeout;
+        if (!enabled) {
+            return;
+        }
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            String prefix = "membership.bulkheads." + bulkhead.key() + ".";
+            int threads = environment.getProperty(prefix + "threads", Integer.class, bulkhead.defaultThreads());
+            int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class,
+                    bulkhead.defaultQueueCapacity());
+            Lane lane = virtual ? new VirtualLane(bulkhead, threads, queueCapacity)
+                    : new PlatformLane(bulkhead, threads, queueCapacity);
+            pools.put(bulkhead, new Pool(lane,
+                    Counter.builder("membership.bulkheads.rejected").tag("bulkhead", bulkhead.key())
+                            .description("Work refused because the bulkhead's threads and queue were full")
+                            .register(meterRegistry),
+                    Timer.builder("membership.bulkheads.wait").tag("bulkhead", bulkhead.key())
+                            .description("Time work spent queued before a bulkhead thread picked it up")
+                            .register(meterRegistry)));
+            Gauge.builder("membership.bulkheads.active", lane, Lane::active)
+                    .tag("bulkhead", bulkhead.key())
+                    .register(meterRegistry);
+            Gauge.builder("membership.bulkheads.queued", lane, Lane::queued)
+                    .tag("bulkhead", bulkhead.key())
+                    .register(meterRegistry);
+            log.info("Bulkhead {}: {} {}threads, queue of {}", bulkhead.key(), threads, virtual ? "virtual " : "",
+                    queueCapacity);
+        }
+    }
+
+    /**
+     * Bulkhead of the calling thread, or null outside the bulkhead executors.
+     */
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the work on the calling thread as part of the bulkhead, so its connections come from the
+     * bulkhead's share of the pool. For long-running background threads that should not hold one of the
+     * bulkhead's threads; a thread that already belongs to a bulkhead keeps it.
+     */
+    public static void runAs(Bulkhead bulkhead, Runnable work) {
+        if (CURRENT.get() != null) {
+            work.run();
+            return;
+        }
+        CURRENT.set(bulkhead);
+        try {
+            work.run();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Run the work in the bulkhead and complete the future with its result.
+     *
+     * @throws ServiceOverloadedException if the bulkhead's threads are busy and its queue is full
+     */
+    public <T> CompletableFuture<T> supply(Bulkhead bulkhead, Supplier<T> work) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(work.get());
+        }
+        Pool pool = pools.get(bulkhead);
+        long submitted = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                pool.queueWait().record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return work.get();
+            }, pool.lane());
+        } catch (RejectedExecutionException e) {
+            pool.rejected().increment();
+            throw new ServiceOverloadedException("The " + bulkhead.key() + " bulkhead is full", Duration.ofSeconds(1));
+        }
+    }
+
+    /**
+     * Run a scheduled or batch job in the bulkhead and wait for it. When the bulkhead is full the job is
+     * skipped until its next run.
+     */
+    public void run(Bulkhead bulkhead, String job, Runnable work) {
+        if (!enabled || current() == bulkhead) {
+            work.run();
+            return;
+        }
+        try {
+            supply(bulkhead, () -> {
+                work.run();
+                return null;
+            }).join();
+        } catch (ServiceOverloadedException e) {
+            if (running) {
+                log.warn("Skipped {}: {}", job, e.getMessage());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        pools.values().forEach(pool -> pool.lane().shutdown());
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Map.Entry<Bulkhead, Pool> entry : pools.entrySet()) {
+            try {
+                if (!entry.getValue().lane().awaitTermination(Math.max(0, deadline - System.nanoTime()))) {
+                    log.warn("Bulkhead {} still busy after {}", entry.getKey().key(), shutdownTimeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop once the web server has stopped taking requests, and finish queued work before the order
+     * write-behind buffer, the outbox relay and the data source shut down.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    /**
+     * The threads of one bulkhead. {@link #execute} throws {@link RejectedExecutionException} when the
+     * bulkhead is full or shut down.
+     */
+    private interface Lane extends Executor {
+
+        int active();
+
+        int queued();
+
+        void shutdown();
+
+        boolean awaitTermination(long nanos) throws InterruptedException;
+    }
+
+    private static final class PlatformLane implements Lane {
+
+        private final ThreadPoolExecutor executor;
+
+        PlatformLane(Bulkhead bulkhead, int threads, int queueCapacity) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(() -> {
+                            CURRENT.set(bulkhead);
+                            runnable.run();
+                        }, "bulkhead-" + bulkhead.key() + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            executor.execute(task);
+        }
+
+        @Override
+        public int active() {
+            return executor.getActiveCount();
+        }
+
+        @Override
+        public int queued() {
+            return executor.getQueue().size();
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        public boolean awaitTermination(long nanos) throws InterruptedException {
+            return executor.awaitTermination(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * A virtual thread per piece of work. {@code admitted} bounds running plus waiting work, so a full
+     * bulkhead refuses at once; {@code running} lets {@code threads} of them run, in arrival order.
+     */
+    private static final class VirtualLane implements Lane {
+
+        private final Bulkhead bulkhead;
+        private final Executor executor;
+        private final int threads;
+        private final int capacity;
+        private final Semaphore admitted;
+        private final Semaphore running;
+        private volatile boolean shutdown;
+
+        VirtualLane(Bulkhead bulkhead, int threads, int queueCapacity) {
+            this.bulkhead = bulkhead;
+            this.executor = new VirtualThreadTaskExecutor("bulkhead-" + bulkhead.key() + "-");
+            this.threads = threads;
+            this.capacity = threads + queueCapacity;
+            this.admitted = new Semaphore(capacity);
+            this.running = new Semaphore(threads, true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (shutdown || !admitted.tryAcquire()) {
+                throw new RejectedExecutionException("Bulkhead " + bulkhead.key() + " is full");
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        running.acquireUninterruptibly();
+                        try {
+                            CURRENT.set(bulkhead);
+                            task.run();
+                        } finally {
+                            running.release();
+                        }
+                    } finally {
+                        admitted.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                admitted.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public int active() {
+            return threads - running.availablePermits();
+        }
+
+        @Override
+        public int queued() {
+            return Math.max(0, capacity - admitted.availablePermits() - active());
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public boolean awaitTermination(long nanos) throws InterruptedException {
+            if (!admitted.tryAcquire(capacity, nanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            admitted.release(capacity);
+            return true;
+        }
+    }
+}
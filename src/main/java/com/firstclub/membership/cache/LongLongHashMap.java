@@ -0,0 +1,324 @@
+package com.firstclub.membership.cache;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Concurrent open-addressing hash map from {@code long} keys to {@code long} values, with no boxing and
+ * no per-entry objects: keys and values sit side by side in one {@code long[]} per segment, 16 bytes per
+ * slot.
+ *
+ * <p>The map is split into segments, each guarded by a {@link StampedLock}. Writers take the segment's
+ * write lock; readers probe under an optimistic stamp and only fall back to the read lock if a write
+ * overlapped, so uncontended reads never write to shared memory. Collisions use linear probing and
+ * removals shift later entries back instead of leaving tombstones.
+ *
+ * <p>Key 0 marks an empty slot and cannot be stored.
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float MAX_LOAD = 0.7f;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long missingValue;
+
+    /**
+     * @param expectedSize number of entries to size for without resizing
+     * @param segmentCount number of independently locked segments, rounded up to a power of two
+     * @param missingValue value returned by {@link #get(long)} for absent keys
+     */
+    public LongLongHashMap(long expectedSize, int segmentCount, long missingValue) {
+        int count = 1;
+        while (count < segmentCount) {
+            count <<= 1;
+        }
+        this.segments = new Segment[count];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(count);
+        this.missingValue = missingValue;
+        int perSegment = (int) Math.min(1 << 30, expectedSize / count + 1);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacityFor(perSegment));
+        }
+    }
+
+    public long get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash, missingValue);
+    }
+
+    public boolean containsKey(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).indexOf(key, hash) >= 0;
+    }
+
+    /**
+     * Associate the value with the key and return the previous value, or the missing value.
+     */
+    public long put(long key, long value) {
+        checkKey(key);
+        long hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, null, missingValue);
+    }
+
+    /**
+     * Store {@code value} if the key is absent, otherwise {@code merger(current, value)}, atomically.
+     */
+    public long merge(long key, long value, LongBinaryOperator merger) {
+        checkKey(key);
+        long hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, merger, missingValue);
+    }
+
+    /**
+     * Remove the key and return its value, or the missing value.
+     */
+    public long remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).remove(key, hash, missingValue);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Visit every entry, one segment at a time under its read lock, in no particular order.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (Segment segment : segments) {
+            segment.forEach(consumer);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Bytes held by the slot arrays, a close estimate of the map's total footprint.
+     */
+    public long tableBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += 16L + (long) segment.table.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved for empty slots");
+        }
+    }
+
+    // Murmur3 finalizer: spreads sequential ids over both the segment (high) and slot (low) bits
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_SEGMENT_CAPACITY;
+        while (capacity * MAX_LOAD < entries) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        // Slot i holds its key at 2i and its value at 2i + 1
+        private volatile long[] table;
+        private int size;
+
+        Segment(int capacity) {
+            this.table = new long[capacity * 2];
+        }
+
+        long get(long key, long hash, long missing) {
+            long stamp = lock.tryOptimisticRead();
+            long value = probe(table, key, hash, missing);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            stamp = lock.readLock();
+            try {
+                return probe(table, key, hash, missing);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int indexOf(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            int index = find(table, key, hash);
+            if (lock.validate(stamp)) {
+                return index;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long put(long key, long hash, long value, LongBinaryOperator merger, long missing) {
+            long stamp = lock.writeLock();
+            try {
+                long[] tab = table;
+                int mask = tab.length / 2 - 1;
+                int slot = (int) hash & mask;
+                while (true) {
+                    long k = tab[slot * 2];
+                    if (k == key) {
+                        long previous = tab[slot * 2 + 1];
+                        tab[slot * 2 + 1] = merger == null ? value : merger.applyAsLong(previous, value);
+                        return previous;
+                    }
+                    if (k == EMPTY) {
+                        tab[slot * 2 + 1] = value;
+                        tab[slot * 2] = key;
+                        if (++size > (mask + 1) * MAX_LOAD) {
+                            resize();
+                        }
+                        return missing;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long remove(long key, long hash, long missing) {
+            long stamp = lock.writeLock();
+            try {
+                long[] tab = table;
+                int index = find(tab, key, hash);
+                if (index < 0) {
+                    return missing;
+                }
+                long previous = tab[index * 2 + 1];
+                shiftBack(tab, index);
+                size--;
+                return previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void forEach(EntryConsumer consumer) {
+            long stamp = lock.readLock();
+            try {
+                long[] tab = table;
+                for (int i = 0; i < tab.length; i += 2) {
+                    if (tab[i] != EMPTY) {
+                        consumer.accept(tab[i], tab[i + 1]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new long[MIN_SEGMENT_CAPACITY * 2];
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Close the gap at {@code hole} by moving back every later entry in the probe run whose home
+         * slot is not between the hole and its current slot.
+         */
+        private static void shiftBack(long[] tab, int hole) {
+            int mask = tab.length / 2 - 1;
+            int slot = hole;
+            while (true) {
+                slot = (slot + 1) & mask;
+                long k = tab[slot * 2];
+                if (k == EMPTY) {
+                    break;
+                }
+                int home = (int) hash(k) & mask;
+                boolean movable = hole <= slot ? (home <= hole || home > slot) : (home <= hole && home > slot);
+                if (movable) {
+                    tab[hole * 2] = k;
+                    tab[hole * 2 + 1] = tab[slot * 2 + 1];
+                    hole = slot;
+                }
+            }
+            tab[hole * 2] = EMPTY;
+            tab[hole * 2 + 1] = 0;
+        }
+
+        private void resize() {
+            long[] old = table;
+            long[] tab = new long[old.length * 2];
+            int mask = tab.length / 2 - 1;
+            for (int i = 0; i < old.length; i += 2) {
+                long k = old[i];
+                if (k != EMPTY) {
+                    int slot = (int) hash(k) & mask;
+                    while (tab[slot * 2] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    tab[slot * 2] = k;
+                    tab[slot * 2 + 1] = old[i + 1];
+                }
+            }
+            table = tab;
+        }
+
+        private static long probe(long[] tab, long key, long hash, long missing) {
+            int index = find(tab, key, hash);
+            return index >= 0 ? tab[index * 2 + 1] : missing;
+        }
+
+        // Bounded by the table size so a torn optimistic read can never loop forever
+        private static int find(long[] tab, long key, long hash) {
+            int slots = tab.length / 2;
+            int mask = slots - 1;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes < slots; probes++) {
+                long k = tab[slot * 2];
+                if (k == key) {
+                    return slot;
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,188 @@
+package com.firstclub.membership.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versioned binary snapshot of packed membership states, read through a read-only memory mapping.
+ *
+ * <p>Layout (little-endian): a 64-byte header, then one 16-byte record per user sorted by user id:
+ * <pre>
+ *  0  int   magic "MSNP"       24  long  record count
+ *  4  int   format version     32  long  watermark, UTC epoch seconds: changes up to here are included
+ *  8  int   record size (16)   40  long  highest membership id included
+ * 12  int   tier count         48  long  creation time, epoch millis
+ * 16  int   status count      56  long  sum of membership versions when written
+ * record: long userId, long packed state (see {@link MembershipStateCache#pack})
+ * </pre>
+ * Lookups binary-search the mapped records, so opening a snapshot costs one mapping regardless of size.
+ */
+public final class MembershipSnapshotFile {
+
+    private static final int MAGIC = 0x4D534E50;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 16;
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+
+    private final MappedByteBuffer records;
+    private final int count;
+    private final LocalDateTime watermark;
+    private final long maxMembershipId;
+    private final long versionSum;
+
+    private MembershipSnapshotFile(MappedByteBuffer records, int count, LocalDateTime watermark,
+                                   long maxMembershipId, long versionSum) {
+        this.records = records;
+        this.count = count;
+        this.watermark = watermark;
+        this.maxMembershipId = maxMembershipId;
+        this.versionSum = versionSum;
+    }
+
+    /**
+     * Map a snapshot written by {@link #write}; fails if the file is not a complete snapshot of this format.
+     */
+    public static MembershipSnapshotFile open(Path path, int tiers, int statuses) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a membership snapshot: " + path);
+            }
+            if (buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != RECORD_BYTES) {
+                throw new IOException("Unsupported snapshot format version " + buffer.getInt(4));
+            }
+            if (buffer.getInt(12) != tiers || buffer.getInt(16) != statuses) {
+                throw new IOException("Snapshot was written with different tier or status enums");
+            }
+            long count = buffer.getLong(24);
+            if (count > Integer.MAX_VALUE / RECORD_BYTES || size != HEADER_BYTES + count * RECORD_BYTES) {
+                throw new IOException("Snapshot " + path + " has " + count + " records but " + size + " bytes");
+            }
+            LocalDateTime watermark = LocalDateTime.ofEpochSecond(buffer.getLong(32), 0, ZoneOffset.UTC);
+            return new MembershipSnapshotFile(buffer, (int) count, watermark, buffer.getLong(40), buffer.getLong(56));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public LocalDateTime watermark() {
+        return watermark;
+    }
+
+    public long maxMembershipId() {
+        return maxMembershipId;
+    }
+
+    public long versionSum() {
+        return versionSum;
+    }
+
+    public long get(long userId, long missing) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = records.getLong(HEADER_BYTES + mid * RECORD_BYTES);
+            if (key < userId) {
+                low = mid + 1;
+            } else if (key > userId) {
+                high = mid - 1;
+            } else {
+                return records.getLong(HEADER_BYTES + mid * RECORD_BYTES + 8);
+            }
+        }
+        return missing;
+    }
+
+    public long userIdAt(int index) {
+        return records.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    public long stateAt(int index) {
+        return records.getLong(HEADER_BYTES + index * RECORD_BYTES + 8);
+    }
+
+    /**
+     * Write records, which must be supplied in ascending user id order, to a temporary file and move it
+     * over {@code path} atomically so readers never see a partial snapshot. The creation time is read from
+     * {@code clock}. Returns the record count.
+     */
+    public static long write(Path path, int tiers, int statuses, LocalDateTime watermark, long maxMembershipId,
+                             long versionSum, Clock clock, RecordSource source) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_BYTES);
+            long[] written = {0};
+            long[] lastUserId = {Long.MIN_VALUE};
+            source.forEach((userId, state) -> {
+                if (userId <= lastUserId[0]) {
+                    throw new IllegalStateException("Snapshot records must be in ascending user id order");
+                }
+                lastUserId[0] = userId;
+                if (!buffer.hasRemaining()) {
+                    drain(channel, buffer);
+                }
+                buffer.putLong(userId).putLong(state);
+                written[0]++;
+            });
+            drain(channel, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC)
+                    .putInt(4, FORMAT_VERSION)
+                    .putInt(8, RECORD_BYTES)
+                    .putInt(12, tiers)
+                    .putInt(16, statuses)
+                    .putLong(24, written[0])
+                    .putLong(32, watermark.toEpochSecond(ZoneOffset.UTC))
+                    .putLong(40, maxMembershipId)
+                    .putLong(48, clock.millis())
+                    .putLong(56, versionSum);
+            channel.write(header, 0);
+            channel.force(true);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return written[0];
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write snapshot", e);
+        }
+        buffer.clear();
+    }
+
+    @FunctionalInterface
+    public interface RecordSource {
+        void forEach(LongLongHashMap.EntryConsumer consumer);
+    }
+}
@@ -0,0 +1,356 @@
+package com.firstclub.membership.cache;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tier, status and expiry of every membership, packed into one {@code long} per user in a
+ * {@link LongLongHashMap}, so benefit checks can answer without loading the membership.
+ *
+ * <p>Layout of a packed state: bits 0-3 tier ordinal, bits 4-7 status ordinal, bits 8-63 expiry as
+ * UTC epoch seconds. Loaded from the memberships table at startup and by {@link #rebuild()}, then kept
+ * current from committed {@link MembershipChangedEvent}s; events that arrive during a rebuild are
+ * replayed onto the rebuilt map before it is swapped in (see {@link RebuildReplay}).
+ *
+ * <p>With {@code membership.benefits.snapshot.enabled} the states are also written periodically and at
+ * shutdown to a {@link MembershipSnapshotFile}. On the next start the file is mapped as a read-only base
+ * layer under an empty map and the cache serves immediately; rows modified after the snapshot's watermark
+ * are then reloaded into the map in the background. The snapshot is discarded, and the full load used,
+ * when it does not belong to the current database, which is always the case while Hibernate recreates the
+ * schema at startup (ddl-auto create or create-drop).
+ */
+@Component
+@Slf4j
+public class MembershipStateCache {
+
+    public static final long MISSING = -1L;
+
+    private static final String STATE_SQL = "SELECT m.user_id, t.tier_level, m.status, m.expiry_date "
+            + "FROM memberships m JOIN membership_tiers t ON t.id = m.tier_id";
+    private static final String CHANGED_SINCE_SQL = STATE_SQL + " WHERE m.last_modified > ? OR m.id > ?";
+    // Versions only grow, so a database the snapshot was taken from never has a smaller sum
+    private static final String DATABASE_MARK_SQL = "SELECT COALESCE(MAX(id), 0), "
+            + "COALESCE(SUM(CASE WHEN id <= ? THEN version END), 0) FROM memberships";
+    private static final int SEGMENTS = 64;
+    // values() clones its array on every call; unpacking runs on every cached read
+    private static final TierLevel[] TIERS = TierLevel.values();
+    private static final MembershipStatus[] STATUSES = MembershipStatus.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkheadExecutors bulkheads;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Clock clock;
+    private final long expectedSize;
+    private final boolean snapshotEnabled;
+    private final Path snapshotPath;
+    private final Duration snapshotOverlap;
+    private final boolean schemaRecreated;
+
+    private final AtomicReference<Layers> layers = new AtomicReference<>();
+    private final RebuildReplay<LongLongHashMap> replay;
+    // Serializes rebuild, snapshot and reconcile; a lock rather than a monitor, as they block on JDBC and I/O
+    private final Lock maintenanceLock = new ReentrantLock();
+
+    public MembershipStateCache(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                BulkheadExecutors bulkheads, Clock clock,
+                                @Value("${membership.benefits.state-cache.expected-size:100000}") long expectedSize,
+                                @Value("${membership.benefits.snapshot.enabled:false}") boolean snapshotEnabled,
+                                @Value("${membership.benefits.snapshot.path:data/membership-states.snap}")
+                                String snapshotPath,
+                                @Value("${membership.benefits.snapshot.overlap:300000}") long snapshotOverlapMs,
+                                @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkheads = bulkheads;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.replay = new RebuildReplay<>(jdbcTemplate, transactionManager, false, () -> {
+            Layers current = layers.get();
+            return current != null ? current.states : null;
+        });
+        this.clock = clock;
+        this.expectedSize = expectedSize;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.snapshotOverlap = Duration.ofMillis(snapshotOverlapMs);
+        this.schemaRecreated = ddlAuto.startsWith("create");
+    }
+
+    /**
+     * Whether the initial load has completed; until then callers should read the database.
+     */
+    public boolean isLoaded() {
+        return layers.get() != null;
+    }
+
+    /**
+     * The user's packed membership state, or {@link #MISSING} if the user has no membership.
+     */
+    public long get(long userId) {
+        Layers current = layers.get();
+        if (current == null) {
+            return MISSING;
+        }
+        long state = current.states.get(userId);
+        if (state == MISSING && current.base != null) {
+            return current.base.get(userId, MISSING);
+        }
+        return state;
+    }
+
+    /**
+     * Same rule as {@code Membership.isActive}: status ACTIVE and not yet expired.
+     */
+    public boolean isActive(long state) {
+        return state != MISSING && status(state) == MembershipStatus.ACTIVE
+                && LocalDateTime.now(clock).toEpochSecond(ZoneOffset.UTC) < expiryEpochSecond(state);
+    }
+
+    public static long pack(TierLevel tier, MembershipStatus status, LocalDateTime expiryDate) {
+        return expiryDate.toEpochSecond(ZoneOffset.UTC) << 8 | (long) status.ordinal() << 4 | tier.ordinal();
+    }
+
+    public static TierLevel tier(long state) {
+        return TIERS[(int) (state & 0xF)];
+    }
+
+    public static MembershipStatus status(long state) {
+        return STATUSES[(int) (state >>> 4 & 0xF)];
+    }
+
+    public static long expiryEpochSecond(long state) {
+        return state >>> 8;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        long state = pack(event.getNewTier(), event.getNewStatus(), event.getExpiryDate());
+        long userId = event.getUserId();
+        replay.apply(map -> map.put(userId, state));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        MembershipSnapshotFile snapshot = snapshotEnabled ? openSnapshot() : null;
+        if (snapshot == null) {
+            BulkheadExecutors.runAs(Bulkhead.ADMIN, this::rebuild);
+            return;
+        }
+        layers.set(new Layers(newMap(0), snapshot));
+        Thread reconcile = new Thread(() -> BulkheadExecutors.runAs(Bulkhead.ADMIN, () -> reconcile(snapshot)),
+                "membership-snapshot-reconcile");
+        reconcile.setDaemon(true);
+        reconcile.start();
+    }
+
+    /**
+     * Reload every membership state from the database and swap the new map in.
+     */
+    public long rebuild() {
+        maintenanceLock.lock();
+        try {
+            long start = System.nanoTime();
+            Layers current = layers.get();
+            LongLongHashMap rebuilt = newMap(current != null ? current.size() : 0);
+            load(rebuilt, null, STATE_SQL);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Loaded {} membership states ({} KB) in {} ms", rebuilt.size(), rebuilt.tableBytes() / 1024, elapsedMs);
+            return elapsedMs;
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * Write the current states to the snapshot file. Rows changed within the overlap before this call are
+     * reloaded from the database by the next start, which covers transactions still committing meanwhile.
+     */
+    public void writeSnapshot() {
+        maintenanceLock.lock();
+        try {
+            Layers current = layers.get();
+            if (!snapshotEnabled || current == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            LocalDateTime watermark = LocalDateTime.now(clock).minus(snapshotOverlap);
+            MembershipSnapshotFile base = current.base;
+            try {
+                long[] mark = databaseMark(Long.MAX_VALUE);
+                long[] userIds = sortedKeys(current.states);
+                long written = MembershipSnapshotFile.write(snapshotPath, TIERS.length, STATUSES.length,
+                        watermark, mark[0], mark[1], clock, consumer -> {
+                            int i = 0;
+                            int j = 0;
+                            int baseSize = base != null ? base.size() : 0;
+                            while (i < userIds.length || j < baseSize) {
+                                long fromMap = i < userIds.length ? userIds[i] : Long.MAX_VALUE;
+                                long fromBase = j < baseSize ? base.userIdAt(j) : Long.MAX_VALUE;
+                                if (fromMap <= fromBase) {
+                                    consumer.accept(fromMap, current.states.get(fromMap));
+                                    i++;
+                                    if (fromMap == fromBase) {
+                                        j++;
+                                    }
+                                } else {
+                                    consumer.accept(fromBase, base.stateAt(j));
+                                    j++;
+                                }
+                            }
+                        });
+                log.info("Wrote {} membership states to {} in {} ms", written, snapshotPath,
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to write membership snapshot {}: {}", snapshotPath, e.getMessage());
+            }
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${membership.benefits.snapshot.interval:300000}",
+            initialDelayString = "${membership.benefits.snapshot.interval:300000}")
+    public void writeSnapshotPeriodically() {
+        bulkheads.run(Bulkhead.ADMIN, "membership state snapshot", this::writeSnapshot);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeSnapshot();
+    }
+
+    /**
+     * Map the snapshot file if it exists, is readable and was taken from this database.
+     */
+    private MembershipSnapshotFile openSnapshot() {
+        if (schemaRecreated) {
+            log.info("Not loading membership snapshot: the schema is recreated at startup");
+            return null;
+        }
+        long start = System.nanoTime();
+        MembershipSnapshotFile snapshot;
+        try {
+            snapshot = MembershipSnapshotFile.open(snapshotPath, TIERS.length, STATUSES.length);
+        } catch (NoSuchFileException e) {
+            log.info("No membership snapshot at {}, loading from the database", snapshotPath);
+            return null;
+        } catch (IOException e) {
+            log.warn("Ignoring membership snapshot {}: {}", snapshotPath, e.getMessage());
+            return null;
+        }
+        long[] mark = databaseMark(snapshot.maxMembershipId());
+        if (mark[0] < snapshot.maxMembershipId() || mark[1] < snapshot.versionSum()) {
+            log.warn("Ignoring membership snapshot {}: it was not taken from this database", snapshotPath);
+            return null;
+        }
+        log.info("Mapped {} membership states from snapshot {} (watermark {}) in {} ms", snapshot.size(),
+                snapshotPath, snapshot.watermark(), (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+
+    /**
+     * Reload rows changed since the snapshot was written into a fresh map over the snapshot base.
+     */
+    private void reconcile(MembershipSnapshotFile snapshot) {
+        maintenanceLock.lock();
+        try {
+            long start = System.nanoTime();
+            try {
+                LongLongHashMap changed = newMap(0);
+                if (load(changed, snapshot, CHANGED_SINCE_SQL, snapshot.watermark(), snapshot.maxMembershipId())) {
+                    log.info("Reconciled membership snapshot: {} states changed since {} reloaded in {} ms",
+                            changed.size(), snapshot.watermark(), (System.nanoTime() - start) / 1_000_000);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile membership snapshot, loading from the database: {}", e.getMessage());
+                rebuild();
+            }
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * Fill {@code target} from the query, replay updates that arrived meanwhile, and install it over
+     * {@code base}. Returns false when a rebuild replaced the layers the load started from.
+     */
+    private boolean load(LongLongHashMap target, MembershipSnapshotFile base, String sql, Object... args) {
+        return replay.rebuild(() -> {
+            jdbcTemplate.query(sql, rs -> {
+                target.put(rs.getLong(1), pack(TierLevel.valueOf(rs.getString(2)),
+                        MembershipStatus.valueOf(rs.getString(3)), rs.getTimestamp(4).toLocalDateTime()));
+            }, args);
+            return target;
+        }, loaded -> {
+            Layers current = layers.get();
+            if (base != null && (current == null || current.base != base)) {
+                return false;
+            }
+            layers.set(new Layers(loaded, base));
+            return true;
+        });
+    }
+
+    /**
+     * Highest membership id and the sum of versions of memberships up to {@code maxId}.
+     */
+    private long[] databaseMark(long maxId) {
+        return readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(DATABASE_MARK_SQL,
+                (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)}, maxId));
+    }
+
+    private LongLongHashMap newMap(long sizeHint) {
+        return new LongLongHashMap(Math.max(expectedSize, sizeHint), SEGMENTS, MISSING);
+    }
+
+    private static long[] sortedKeys(LongLongHashMap map) {
+        long[][] keys = {new long[(int) map.size() + 16]};
+        int[] count = {0};
+        map.forEach((key, value) -> {
+            if (count[0] == keys[0].length) {
+                keys[0] = Arrays.copyOf(keys[0], count[0] * 2);
+            }
+            keys[0][count[0]++] = key;
+        });
+        long[] sorted = Arrays.copyOf(keys[0], count[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * The mutable map of states and, after a warm start, the snapshot it overrides.
+     */
+    private record Layers(LongLongHashMap states, MembershipSnapshotFile base) {
+
+        long size() {
+            return states.size() + (base != null ? base.size() : 0);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.firstclub.membership.cache;
+
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight loader for per-user reads: concurrent calls for the same key share one in-flight load
+ * instead of each querying the database. Nothing is cached; a call that arrives after the load finished
+ * starts a new one.
+ *
+ * <p>A waiter can receive a result whose query started shortly before its own call. That is only a
+ * problem for a user's own writes, so users inside the {@link ReplicaStalenessGuard} window always load
+ * on their own. Meters are tagged by read name (wait time, loads, coalesced calls) rather than by user
+ * id to keep their number bounded; waits are also logged per key at DEBUG.
+ */
+@Component
+@Slf4j
+public class ReadCoalescer {
+
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(ReplicaStalenessGuard stalenessGuard, MeterRegistry meterRegistry,
+                         @Value("${membership.reads.coalescing.enabled:true}") boolean enabled) {
+        this.stalenessGuard = stalenessGuard;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Run {@code loader}, or wait for the identical read already running for {@code key}.
+     * Exceptions thrown by the load are rethrown to every caller that shared it.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V read(String name, Long userId, Object key, Supplier<V> loader) {
+        Meters m = meters.computeIfAbsent(name, this::register);
+        if (!enabled || stalenessGuard.wroteRecently(userId)) {
+            m.bypassed.increment();
+            return loader.get();
+        }
+
+        FlightKey flightKey = new FlightKey(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            m.coalesced.increment();
+            long start = System.nanoTime();
+            try {
+                return (V) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            } finally {
+                long waited = System.nanoTime() - start;
+                m.waitTime.record(waited, TimeUnit.NANOSECONDS);
+                log.debug("Waited {} us for in-flight {} read of {}", waited / 1000, name, key);
+            }
+        }
+
+        m.loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Meters register(String name) {
+        return new Meters(
+                meterRegistry.counter("membership.reads.coalescing.loads", "read", name),
+                meterRegistry.counter("membership.reads.coalescing.coalesced", "read", name),
+                meterRegistry.counter("membership.reads.coalescing.bypassed", "read", name),
+                meterRegistry.timer("membership.reads.coalescing.wait", "read", name));
+    }
+
+    private record FlightKey(String name, Object key) {
+    }
+
+    private record Meters(Counter loads, Counter coalesced, Counter bypassed, Timer waitTime) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.firstclub.membership.cache;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Lets an in-memory view be rebuilt from the database while committed changes keep arriving.
+ *
+ * <p>Live updates are applied to the current view and, while a rebuild runs, queued. The rebuild reads the
+ * database in one REPEATABLE READ snapshot, and before the new view is installed the queued updates are
+ * replayed onto it, except those whose source row the snapshot already contained. An update tagged with
+ * its source row (an order, a tier change) is therefore counted exactly once, however its commit raced
+ * with the rebuild queries. An untagged update is always replayed, which suits updates that set state
+ * rather than add to it. A retraction undoes the update of a row that will never be written, and is replayed
+ * only when that update was.
+ *
+ * <p>Updates run under the shared side of a read-write lock, or the exclusive side for views that are not
+ * thread-safe; the new view is installed under the exclusive side.
+ */
+public final class RebuildReplay<S> {
+
+    public static final String ORDERS = "orders";
+    public static final String TIER_CHANGES = "tier_change_history";
+
+    private static final int VISIBILITY_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final boolean exclusiveUpdates;
+    private final Supplier<S> live;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Queue<Update<S>> pending;
+
+    private record Update<S>(String table, long id, boolean retraction, Consumer<S> change) {
+    }
+
+    /**
+     * @param live             the view updates apply to, or null while there is none
+     * @param exclusiveUpdates whether updates need the exclusive lock, for views that are not thread-safe
+     */
+    public RebuildReplay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         boolean exclusiveUpdates, Supplier<S> live) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.exclusiveUpdates = exclusiveUpdates;
+        this.live = live;
+    }
+
+    /**
+     * The lock readers of a view that is not thread-safe hold while they read it.
+     */
+    public Lock readLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Apply an update that sets state, so replaying it onto a view that already has it is harmless.
+     */
+    public void apply(Consumer<S> change) {
+        apply(null, 0, change);
+    }
+
+    /**
+     * Apply an update caused by the row {@code id} of {@code table}.
+     */
+    public void apply(String table, long id, Consumer<S> change) {
+        update(new Update<>(table, id, false, change));
+    }
+
+    /**
+     * Undo the update applied for the row {@code id} of {@code table}, which will never be written.
+     */
+    public void retract(String table, long id, Consumer<S> change) {
+        update(new Update<>(table, id, true, change));
+    }
+
+    private void update(Update<S> update) {
+        Lock updateLock = exclusiveUpdates ? lock.writeLock() : lock.readLock();
+        updateLock.lock();
+        try {
+            S view = live.get();
+            if (view != null) {
+                update.change().accept(view);
+            }
+            Queue<Update<S>> queued = pending;
+            if (queued != null) {
+                queued.add(update);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Build a view with {@code load} inside one snapshot, replay the updates it has not seen, and hand it to
+     * {@code install}, whose result is returned. Callers serialize their rebuilds.
+     */
+    public boolean rebuild(Supplier<S> load, Predicate<S> install) {
+        return rebuild(() -> { }, load, install);
+    }
+
+    /**
+     * As {@link #rebuild(Supplier, Predicate)}, running {@code settle} once updates are being queued and
+     * before the snapshot is taken. It must wait until the source row of every update applied so far is
+     * either committed or known never to be written, such as by flushing a write-behind buffer.
+     */
+    public boolean rebuild(Runnable settle, Supplier<S> load, Predicate<S> install) {
+        pending = new ConcurrentLinkedQueue<>();
+        try {
+            settle.run();
+            return Boolean.TRUE.equals(snapshotTransaction.execute(status -> {
+                S rebuilt = load.get();
+                // Most updates are checked before the lock is taken; only the ones that arrive meanwhile under it
+                Map<String, Set<Long>> visible = new HashMap<>();
+                int checked = checkVisible(pending.iterator(), visible);
+                lock.writeLock().lock();
+                try {
+                    Iterator<Update<S>> rest = pending.iterator();
+                    for (int i = 0; i < checked; i++) {
+                        rest.next();
+                    }
+                    checkVisible(rest, visible);
+                    Map<String, Set<Long>> replayed = new HashMap<>();
+                    List<Update<S>> retractions = new ArrayList<>();
+                    for (Update<S> update : pending) {
+                        if (update.retraction()) {
+                            retractions.add(update);
+                        } else if (update.table() == null) {
+                            update.change().accept(rebuilt);
+                        } else if (!contains(visible, update)) {
+                            update.change().accept(rebuilt);
+                            replayed.computeIfAbsent(update.table(), table -> new HashSet<>()).add(update.id());
+                        }
+                    }
+                    // A retraction can be queued before the update it undoes, so both are matched up afterwards
+                    for (Update<S> retraction : retractions) {
+                        if (contains(replayed, retraction)) {
+                            retraction.change().accept(rebuilt);
+                        }
+                    }
+                    return install.test(rebuilt);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }));
+        } finally {
+            pending = null;
+        }
+    }
+
+    private static boolean contains(Map<String, Set<Long>> rows, Update<?> update) {
+        return rows.getOrDefault(update.table(), Collections.emptySet()).contains(update.id());
+    }
+
+    /**
+     * Add the source rows of the updates that the snapshot contains to {@code visible}, and return how many
+     * updates were read.
+     */
+    private int checkVisible(Iterator<Update<S>> updates, Map<String, Set<Long>> visible) {
+        Map<String, List<Long>> ids = new HashMap<>();
+        int read = 0;
+        while (updates.hasNext()) {
+            Update<S> update = updates.next();
+            read++;
+            if (update.table() != null && !update.retraction()) {
+                ids.computeIfAbsent(update.table(), table -> new ArrayList<>()).add(update.id());
+            }
+        }
+        ids.forEach((table, tableIds) -> {
+            Set<Long> found = visible.computeIfAbsent(table, t -> new HashSet<>());
+            for (int from = 0; from < tableIds.size(); from += VISIBILITY_CHUNK) {
+                List<Long> chunk = tableIds.subList(from, Math.min(from + VISIBILITY_CHUNK, tableIds.size()));
+                String sql = "SELECT id FROM " + table + " WHERE id IN ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                jdbcTemplate.query(sql, rs -> {
+                    found.add(rs.getLong(1));
+                }, chunk.toArray());
+            }
+        });
+        return read;
+    }
+}
@@ -0,0 +1,54 @@
+package com.firstclub.membership.cache;
+
+import com.firstclub.membership.benefit.BenefitHandlerRegistry;
+import com.firstclub.membership.benefit.TierBenefits;
+import com.firstclub.membership.entity.MembershipTier;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Benefits of each tier, parsed and validated by their handlers and indexed by tier ordinal, refreshed on
+ * a fixed delay (membership.benefits.catalog-refresh-interval).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TierBenefitCatalog {
+
+    private final MembershipTierRepository tierRepository;
+    private final BenefitHandlerRegistry handlerRegistry;
+
+    private volatile TierBenefits[] benefitsByTier;
+
+    public boolean isLoaded() {
+        return benefitsByTier != null;
+    }
+
+    public TierBenefits benefits(TierLevel tier) {
+        TierBenefits[] benefits = benefitsByTier;
+        return benefits != null && benefits[tier.ordinal()] != null ? benefits[tier.ordinal()] : TierBenefits.NONE;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(fixedDelayString = "${membership.benefits.catalog-refresh-interval:60000}",
+            initialDelayString = "${membership.benefits.catalog-refresh-interval:60000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        TierBenefits[] loaded = new TierBenefits[TierLevel.values().length];
+        for (MembershipTier tier : tierRepository.findAll()) {
+            loaded[tier.getTierLevel().ordinal()] = handlerRegistry.resolveAll(tier.getBenefits());
+        }
+        benefitsByTier = loaded;
+        log.debug("Refreshed tier benefit catalog");
+    }
+}
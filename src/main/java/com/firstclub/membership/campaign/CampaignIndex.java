@@ -0,0 +1,176 @@
+package com.firstclub.membership.campaign;
+
+import com.firstclub.membership.benefit.Benefit;
+import com.firstclub.membership.benefit.BenefitHandlerRegistry;
+import com.firstclub.membership.entity.Campaign;
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.CampaignChangedEvent;
+import com.firstclub.membership.repository.CampaignRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Campaigns that have not ended yet, held in one {@link IntervalTree} per tier so pricing finds the
+ * campaigns running at an instant without scanning the scheduled ones.
+ *
+ * <p>Loaded at startup and kept current from committed {@link CampaignChangedEvent}s; an update removes
+ * the campaign and adds it again, so applying one the load already saw is harmless. Ended campaigns are
+ * pruned periodically. Lookups check the instant themselves, so pruning only frees memory.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CampaignIndex {
+
+    private static final Comparator<Benefit> MOST_SPECIFIC_FIRST =
+            Comparator.comparingInt((Benefit b) -> b.category() == null ? -1 : b.category().length()).reversed();
+
+    private final CampaignRepository campaignRepository;
+    private final BenefitHandlerRegistry handlerRegistry;
+    private final Clock clock;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<TierLevel, IntervalTree<Benefit>> trees = new EnumMap<>(TierLevel.class);
+    private final Map<Long, Indexed> byId = new HashMap<>();
+
+    private record Indexed(TierLevel tier, long start) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        // Loaded under the write lock so a change committed meanwhile is applied after the load, not before
+        lock.writeLock().lock();
+        try {
+            trees.clear();
+            byId.clear();
+            for (Campaign campaign : campaignRepository.findByEndsAtAfterOrderByStartsAt(LocalDateTime.now(clock))) {
+                add(campaign);
+            }
+            log.info("Loaded {} current and scheduled campaigns", byId.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCampaignChanged(CampaignChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getCampaignId());
+            if (event.getCampaign() != null) {
+                add(event.getCampaign());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Benefits of the type from the tier's campaigns running at {@code at} that cover the category,
+     * most specific category path first.
+     */
+    public List<Benefit> active(TierLevel tier, BenefitType type, String category, LocalDateTime at) {
+        String normalized = BenefitHandlerRegistry.normalizeCategory(category);
+        List<Benefit> active = new ArrayList<>(2);
+        lock.readLock().lock();
+        try {
+            IntervalTree<Benefit> tree = trees.get(tier);
+            if (tree == null) {
+                return List.of();
+            }
+            tree.stab(toMillis(at), benefit -> {
+                if (benefit.type() == type && benefit.covers(normalized)) {
+                    active.add(benefit);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (active.size() > 1) {
+            active.sort(MOST_SPECIFIC_FIRST);
+        }
+        return active;
+    }
+
+    /**
+     * Number of indexed campaigns, including scheduled ones.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drop campaigns that have ended.
+     */
+    @Scheduled(fixedDelayString = "${membership.campaigns.prune-interval:60000}",
+            initialDelayString = "${membership.campaigns.prune-interval:60000}")
+    public void pruneEnded() {
+        long now = toMillis(LocalDateTime.now(clock));
+        lock.writeLock().lock();
+        try {
+            List<Long> ended = new ArrayList<>();
+            for (IntervalTree<Benefit> tree : trees.values()) {
+                tree.ended(now, benefit -> ended.add(-benefit.id()));
+            }
+            ended.forEach(this::remove);
+            if (!ended.isEmpty()) {
+                log.debug("Pruned {} ended campaigns", ended.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Campaign campaign) {
+        if (!campaign.getEndsAt().isAfter(LocalDateTime.now(clock))) {
+            return;
+        }
+        Benefit benefit;
+        try {
+            benefit = handlerRegistry.resolve(campaign);
+        } catch (IllegalArgumentException e) {
+            log.error("Ignoring campaign: {}", e.getMessage());
+            return;
+        }
+        long start = toMillis(campaign.getStartsAt());
+        trees.computeIfAbsent(campaign.getTierLevel(), t -> new IntervalTree<>())
+                .insert(campaign.getId(), start, toMillis(campaign.getEndsAt()), benefit);
+        byId.put(campaign.getId(), new Indexed(campaign.getTierLevel(), start));
+    }
+
+    private void remove(long campaignId) {
+        Indexed indexed = byId.remove(campaignId);
+        if (indexed != null) {
+            trees.get(indexed.tier()).remove(campaignId, indexed.start());
+        }
+    }
+
+    private static long toMillis(LocalDateTime instant) {
+        return instant.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
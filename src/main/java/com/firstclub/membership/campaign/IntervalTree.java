@@ -0,0 +1,200 @@
+package com.firstclub.membership.campaign;
+
+import java.util.function.Consumer;
+
+/**
+ * Half-open intervals [start, end) with a value each, kept in an AVL tree ordered by (start, id) where
+ * every node also records the largest end in its subtree. A stabbing query skips any subtree whose
+ * largest end is not after the instant, and everything right of a node that starts after it, so it costs
+ * O(log n + k) for k matches no matter how many intervals lie entirely in the past or the future.
+ *
+ * <p>Not thread-safe; {@link CampaignIndex} guards it with a read-write lock.
+ */
+final class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add an interval. Ids must be unique; the caller removes an id before adding it again.
+     */
+    void insert(long id, long start, long end, T value) {
+        root = insert(root, new Node<>(id, start, end, value));
+        size++;
+    }
+
+    /**
+     * Remove the interval added with this id and start, returning whether it was present.
+     */
+    boolean remove(long id, long start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    /**
+     * Pass every value whose interval contains {@code instant} to {@code action}.
+     */
+    void stab(long instant, Consumer<T> action) {
+        stab(root, instant, action);
+    }
+
+    /**
+     * Pass every value whose interval ended at or before {@code instant} to {@code action}.
+     */
+    void ended(long instant, Consumer<T> action) {
+        ended(root, instant, action);
+    }
+
+    private static <T> void stab(Node<T> node, long instant, Consumer<T> action) {
+        while (node != null && node.maxEnd > instant) {
+            stab(node.left, instant, action);
+            if (node.start > instant) {
+                return;
+            }
+            if (node.end > instant) {
+                action.accept(node.value);
+            }
+            node = node.right;
+        }
+    }
+
+    private static <T> void ended(Node<T> node, long instant, Consumer<T> action) {
+        if (node == null) {
+            return;
+        }
+        ended(node.left, instant, action);
+        if (node.end <= instant) {
+            action.accept(node.value);
+        }
+        ended(node.right, instant, action);
+    }
+
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node<T> remove(Node<T> node, long id, long start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static <T> Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private static <T> Node<T> balance(Node<T> node) {
+        node.update();
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+
+        private final long id;
+        private final long start;
+        private final long end;
+        private final T value;
+        private Node<T> left;
+        private Node<T> right;
+        private int height = 1;
+        private long maxEnd;
+
+        Node(long id, long start, long end, T value) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            height = 1 + Math.max(height(left), height(right));
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
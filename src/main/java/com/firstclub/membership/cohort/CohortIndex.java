@@ -0,0 +1,210 @@
+package com.firstclub.membership.cohort;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.cache.RebuildReplay;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import com.firstclub.membership.event.UserCohortChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory compressed bitmaps of user ids per cohort, per membership tier and per membership status,
+ * so segments such as cohort ∩ tier ∩ active are a few bitmap intersections instead of a table scan.
+ *
+ * <p>Cohort bitmaps follow committed {@link UserCohortChangedEvent}s and tier and status bitmaps follow
+ * committed {@link MembershipChangedEvent}s. Everything is rebuilt from the tables at
+ * startup and by {@link #rebuild()}, replaying changes that arrive during the rebuild (see
+ * {@link RebuildReplay}); updates set state
+ * rather than count, so replaying one the rebuild already saw is harmless. Status is the stored status, so
+ * an ACTIVE membership past its expiry date is still in the ACTIVE bitmap.
+ */
+@Component
+@Slf4j
+public class CohortIndex {
+
+    private static final String USER_COHORT_SQL = "SELECT id, cohort_id FROM users WHERE cohort_id IS NOT NULL";
+    private static final String MEMBERSHIP_SQL = "SELECT m.user_id, t.tier_level, m.status "
+            + "FROM memberships m JOIN membership_tiers t ON t.id = m.tier_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Bitmaps are not thread-safe: updates hold the replay's exclusive lock, readers its read lock
+    private final RebuildReplay<Bitmaps> replay;
+    private final Lock rebuildLock = new ReentrantLock();
+    private Bitmaps current = new Bitmaps();
+
+    public CohortIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.replay = new RebuildReplay<>(jdbcTemplate, transactionManager, true, () -> current);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        int userId = toIndex(event.getUserId());
+        replay.apply(bitmaps -> bitmaps.setMembership(userId, event.getNewTier(), event.getNewStatus()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCohortChanged(UserCohortChangedEvent event) {
+        int userId = toIndex(event.getUserId());
+        replay.apply(bitmaps -> bitmaps.setCohort(userId, event.getCohortId()));
+    }
+
+    /**
+     * Users in the cohort whose membership has one of the tiers and, when not null, the status.
+     */
+    public RoaringBitmap members(long cohortId, Collection<TierLevel> tiers, MembershipStatus status) {
+        replay.readLock().lock();
+        try {
+            RoaringBitmap cohort = current.cohorts.get(cohortId);
+            if (cohort == null) {
+                return new RoaringBitmap();
+            }
+            RoaringBitmap tierUnion = new RoaringBitmap();
+            for (TierLevel tier : tiers) {
+                tierUnion.or(current.tiers[tier.ordinal()]);
+            }
+            RoaringBitmap result = RoaringBitmap.and(cohort, tierUnion);
+            if (status != null) {
+                result.and(current.statuses[status.ordinal()]);
+            }
+            return result;
+        } finally {
+            replay.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of users in each indexed cohort.
+     */
+    public Map<Long, Integer> cohortSizes() {
+        replay.readLock().lock();
+        try {
+            Map<Long, Integer> sizes = new HashMap<>();
+            current.cohorts.forEach((id, users) -> sizes.put(id, users.getCardinality()));
+            return sizes;
+        } finally {
+            replay.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        BulkheadExecutors.runAs(Bulkhead.ADMIN, this::rebuild);
+    }
+
+    /**
+     * Rebuild every bitmap from the users and memberships tables and swap the result in.
+     */
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            replay.rebuild(() -> {
+                Bitmaps rebuilt = new Bitmaps();
+                jdbcTemplate.query(USER_COHORT_SQL, rs -> {
+                    rebuilt.cohorts.computeIfAbsent(rs.getLong(2), id -> new RoaringBitmap())
+                            .add(toIndex(rs.getLong(1)));
+                });
+                jdbcTemplate.query(MEMBERSHIP_SQL, rs -> {
+                    int userId = toIndex(rs.getLong(1));
+                    rebuilt.tiers[TierLevel.valueOf(rs.getString(2)).ordinal()].add(userId);
+                    rebuilt.statuses[MembershipStatus.valueOf(rs.getString(3)).ordinal()].add(userId);
+                });
+                rebuilt.optimize();
+                return rebuilt;
+            }, rebuilt -> {
+                current = rebuilt;
+                return true;
+            });
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Rebuilt cohort index ({} cohorts, {} bytes) in {} ms",
+                    current.cohorts.size(), current.sizeInBytes(), elapsedMs);
+            return elapsedMs;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static int toIndex(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            throw new IllegalStateException("User id " + userId + " is outside the cohort index range");
+        }
+        return (int) userId;
+    }
+
+    private static final class Bitmaps {
+
+        private final Map<Long, RoaringBitmap> cohorts = new HashMap<>();
+        private final RoaringBitmap[] tiers = new RoaringBitmap[TierLevel.values().length];
+        private final RoaringBitmap[] statuses = new RoaringBitmap[MembershipStatus.values().length];
+
+        Bitmaps() {
+            for (int i = 0; i < tiers.length; i++) {
+                tiers[i] = new RoaringBitmap();
+            }
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = new RoaringBitmap();
+            }
+        }
+
+        void setCohort(int userId, Long cohortId) {
+            cohorts.values().forEach(users -> users.remove(userId));
+            if (cohortId != null) {
+                cohorts.computeIfAbsent(cohortId, id -> new RoaringBitmap()).add(userId);
+            }
+        }
+
+        void setMembership(int userId, TierLevel tier, MembershipStatus status) {
+            for (RoaringBitmap users : tiers) {
+                users.remove(userId);
+            }
+            for (RoaringBitmap users : statuses) {
+                users.remove(userId);
+            }
+            tiers[tier.ordinal()].add(userId);
+            statuses[status.ordinal()].add(userId);
+        }
+
+        void optimize() {
+            cohorts.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap users : tiers) {
+                users.runOptimize();
+            }
+            for (RoaringBitmap users : statuses) {
+                users.runOptimize();
+            }
+        }
+
+        long sizeInBytes() {
+            long bytes = 0;
+            for (RoaringBitmap users : cohorts.values()) {
+                bytes += users.getSizeInBytes();
+            }
+            for (RoaringBitmap users : tiers) {
+                bytes += users.getSizeInBytes();
+            }
+            for (RoaringBitmap users : statuses) {
+                bytes += users.getSizeInBytes();
+            }
+            return bytes;
+        }
+    }
+}
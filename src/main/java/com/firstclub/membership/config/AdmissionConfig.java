@@ -0,0 +1,25 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.admission.AdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts per-user admission control in front of the API controllers.
+ * Enabled with membership.admission.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "membership.admission", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
+    }
+}
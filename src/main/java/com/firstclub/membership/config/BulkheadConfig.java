@@ -0,0 +1,108 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.datasource.BulkheadDataSource;
+import com.firstclub.membership.datasource.ConnectionPermitDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partitions every Hikari pool between the bulkheads with a {@link BulkheadDataSource}.
+ * Enabled with membership.bulkheads.enabled=true. With connection permits also on, the partitions go
+ * around the permits.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "membership.bulkheads", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    @Bean
+    public static BulkheadPostProcessor bulkheadPostProcessor(
+            Environment environment,
+            @Value("${membership.bulkheads.checkout.reserved-connections:4}") int reservedForCheckout,
+            @Value("${membership.bulkheads.connection-timeout:2s}") Duration acquireTimeout) {
+        Map<Bulkhead, Integer> maxConnections = new EnumMap<>(Bulkhead.class);
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            Integer max = environment.getProperty("membership.bulkheads." + bulkhead.key() + ".max-connections",
+                    Integer.class);
+            if (max != null) {
+                maxConnections.put(bulkhead, max);
+            }
+        }
+        return new BulkheadPostProcessor(reservedForCheckout, maxConnections, acquireTimeout);
+    }
+
+    @Bean
+    public MeterBinder bulkheadConnectionMetrics(BulkheadPostProcessor postProcessor) {
+        return registry -> postProcessor.wrapped.forEach((pool, dataSource) -> {
+            for (String partition : dataSource.partitionNames()) {
+                Gauge.builder("membership.bulkheads.connections.available", dataSource,
+                                ds -> ds.availableConnections(partition))
+                        .description("Connections of the partition not in use")
+                        .tag("pool", pool)
+                        .tag("partition", partition)
+                        .register(registry);
+            }
+            FunctionCounter.builder("membership.bulkheads.connections.rejected", dataSource,
+                            BulkheadDataSource::rejected)
+                    .description("Connection requests refused after waiting for the partition")
+                    .tag("pool", pool)
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Unordered, so it runs after the connection permit post-processor and wraps what that returns.
+     */
+    static class BulkheadPostProcessor implements BeanPostProcessor {
+
+        private static final int DEFAULT_POOL_SIZE = 10;
+
+        private final int reservedForCheckout;
+        private final Map<Bulkhead, Integer> maxConnections;
+        private final Duration acquireTimeout;
+        private final Map<String, BulkheadDataSource> wrapped = new ConcurrentHashMap<>();
+
+        BulkheadPostProcessor(int reservedForCheckout, Map<Bulkhead, Integer> maxConnections,
+                              Duration acquireTimeout) {
+            this.reservedForCheckout = reservedForCheckout;
+            this.maxConnections = maxConnections;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            HikariDataSource hikari;
+            if (bean instanceof HikariDataSource pool) {
+                hikari = pool;
+            } else if (bean instanceof ConnectionPermitDataSource permits) {
+                try {
+                    hikari = permits.unwrap(HikariDataSource.class);
+                } catch (SQLException e) {
+                    return bean;
+                }
+            } else {
+                return bean;
+            }
+            // Unset until the pool starts, when Hikari applies its default of 10
+            int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+            BulkheadDataSource dataSource = new BulkheadDataSource((DataSource) bean, poolSize,
+                    reservedForCheckout, maxConnections, acquireTimeout);
+            wrapped.put(hikari.getPoolName() != null ? hikari.getPoolName() : beanName, dataSource);
+            return dataSource;
+        }
+    }
+}
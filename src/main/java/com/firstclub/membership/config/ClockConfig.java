@@ -0,0 +1,20 @@
+package com.firstclub.membership.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import java.time.Clock;
+
+/**
+ * Source of "now" for services, strategies and entity timestamps.
+ * The simulation profile replaces it with a virtual clock.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    @Profile("!simulation")
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,84 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.datasource.ConnectionPermitDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every Hikari pool in a {@link ConnectionPermitDataSource} with one permit per pooled connection.
+ * Enabled with membership.datasource.connection-permits.enabled=true, which defaults to on whenever
+ * virtual threads are.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "membership.datasource.connection-permits", name = "enabled", havingValue = "true")
+public class ConnectionPermitConfig {
+
+    @Bean
+    public static ConnectionPermitPostProcessor connectionPermitPostProcessor(
+            @Value("${membership.datasource.connection-permits.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new ConnectionPermitPostProcessor(acquireTimeout);
+    }
+
+    @Bean
+    public MeterBinder connectionPermitMetrics(ConnectionPermitPostProcessor postProcessor) {
+        return registry -> postProcessor.wrapped.forEach((pool, dataSource) -> {
+            Gauge.builder("membership.datasource.permits.available", dataSource,
+                            ConnectionPermitDataSource::availablePermits)
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("membership.datasource.permits.waiting", dataSource, ConnectionPermitDataSource::waiting)
+                    .description("Callers queued for a connection permit")
+                    .tag("pool", pool)
+                    .register(registry);
+            FunctionCounter.builder("membership.datasource.permits.rejected", dataSource,
+                            ConnectionPermitDataSource::rejected)
+                    .description("Connection requests shed after waiting the acquire timeout")
+                    .tag("pool", pool)
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Runs after the pools are bound to their configuration properties, so the pool size is final, and
+     * before the bulkhead partitions are put around the pools.
+     */
+    static class ConnectionPermitPostProcessor implements BeanPostProcessor, Ordered {
+
+        private static final int DEFAULT_POOL_SIZE = 10;
+
+        private final Duration acquireTimeout;
+        private final Map<String, ConnectionPermitDataSource> wrapped = new ConcurrentHashMap<>();
+
+        ConnectionPermitPostProcessor(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            // Unset until the pool starts, when Hikari applies its default of 10
+            int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+            ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(hikari, poolSize, acquireTimeout);
+            wrapped.put(hikari.getPoolName() != null ? hikari.getPoolName() : beanName, dataSource);
+            return dataSource;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
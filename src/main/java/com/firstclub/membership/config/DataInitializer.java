@@ -1,17 +1,21 @@
 package com.firstclub.membership.config;
 
 import com.firstclub.membership.entity.*;
+import com.firstclub.membership.enums.BenefitType;
 import com.firstclub.membership.enums.PlanDuration;
+import com.firstclub.membership.enums.QuotaPeriod;
 import com.firstclub.membership.enums.TierLevel;
 import com.firstclub.membership.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 
 @Component
+@Order(1)
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
@@ -20,6 +24,7 @@ public class DataInitializer implements CommandLineRunner {
     private final MembershipTierRepository tierRepository;
     private final TierUpgradeCriteriaRepository criteriaRepository;
     private final UserRepository userRepository;
+    private final CohortRepository cohortRepository;
 
     @Override
     @Transactional
@@ -29,6 +34,7 @@ public class DataInitializer implements CommandLineRunner {
         initializePlans();
         initializeTiers();
         initializeUpgradeCriteria();
+        initializeCohorts();
         initializeDemoUsers();
 
         log.info("Demo data initialized successfully!");
@@ -83,15 +89,17 @@ public class DataInitializer implements CommandLineRunner {
                 .build();
 
         TierBenefit silverDiscount = TierBenefit.builder()
-                .benefitType("DISCOUNT")
+                .benefitType(BenefitType.DISCOUNT)
                 .benefitValue("5")
                 .description("5% discount on all items")
                 .build();
 
         TierBenefit silverDelivery = TierBenefit.builder()
-                .benefitType("FREE_DELIVERY")
+                .benefitType(BenefitType.FREE_DELIVERY)
                 .benefitValue("true")
-                .description("Free delivery on orders above $50")
+                .description("5 free deliveries per month")
+                .quotaLimit(new BigDecimal("5"))
+                .quotaPeriod(QuotaPeriod.MONTHLY)
                 .build();
 
         silver.addBenefit(silverDiscount);
@@ -105,19 +113,19 @@ public class DataInitializer implements CommandLineRunner {
                 .build();
 
         TierBenefit goldDiscount = TierBenefit.builder()
-                .benefitType("DISCOUNT")
+                .benefitType(BenefitType.DISCOUNT)
                 .benefitValue("10")
                 .description("10% discount on all items")
                 .build();
 
         TierBenefit goldDelivery = TierBenefit.builder()
-                .benefitType("FREE_DELIVERY")
+                .benefitType(BenefitType.FREE_DELIVERY)
                 .benefitValue("true")
                 .description("Free delivery on all orders")
                 .build();
 
         TierBenefit goldSupport = TierBenefit.builder()
-                .benefitType("PRIORITY_SUPPORT")
+                .benefitType(BenefitType.PRIORITY_SUPPORT)
                 .benefitValue("true")
                 .description("24/7 priority customer support")
                 .build();
@@ -134,25 +142,25 @@ public class DataInitializer implements CommandLineRunner {
                 .build();
 
         TierBenefit platinumDiscount = TierBenefit.builder()
-                .benefitType("DISCOUNT")
+                .benefitType(BenefitType.DISCOUNT)
                 .benefitValue("15")
                 .description("15% discount on all items")
                 .build();
 
         TierBenefit platinumDelivery = TierBenefit.builder()
-                .benefitType("FREE_DELIVERY")
+                .benefitType(BenefitType.FREE_DELIVERY)
                 .benefitValue("true")
                 .description("Free express delivery on all orders")
                 .build();
 
         TierBenefit platinumSupport = TierBenefit.builder()
-                .benefitType("PRIORITY_SUPPORT")
+                .benefitType(BenefitType.PRIORITY_SUPPORT)
                 .benefitValue("true")
                 .description("Dedicated account manager")
                 .build();
 
         TierBenefit platinumEarlyAccess = TierBenefit.builder()
-                .benefitType("EARLY_ACCESS")
+                .benefitType(BenefitType.EARLY_ACCESS)
                 .benefitValue("true")
                 .description("Early access to sales and exclusive deals")
                 .build();
@@ -199,6 +207,18 @@ public class DataInitializer implements CommandLineRunner {
         log.info("Created tier upgrade criteria");
     }
 
+    private void initializeCohorts() {
+        if (cohortRepository.count() > 0) {
+            return;
+        }
+
+        cohortRepository.save(Cohort.builder().name("regular").description("Standard customers").build());
+        cohortRepository.save(Cohort.builder().name("premium").description("High-engagement customers").build());
+        cohortRepository.save(Cohort.builder().name("vip").description("Top customers by lifetime value").build());
+
+        log.info("Created 3 cohorts");
+    }
+
     private void initializeDemoUsers() {
         if (userRepository.count() > 0) {
             return;
@@ -207,19 +227,19 @@ public class DataInitializer implements CommandLineRunner {
         User user1 = User.builder()
                 .email("john.doe@example.com")
                 .name("John Doe")
-                .cohort("regular")
+                .cohort(cohortRepository.findByName("regular").orElseThrow())
                 .build();
 
         User user2 = User.builder()
                 .email("jane.smith@example.com")
                 .name("Jane Smith")
-                .cohort("premium")
+                .cohort(cohortRepository.findByName("premium").orElseThrow())
                 .build();
 
         User user3 = User.builder()
                 .email("bob.wilson@example.com")
                 .name("Bob Wilson")
-                .cohort("vip")
+                .cohort(cohortRepository.findByName("vip").orElseThrow())
                 .build();
 
         userRepository.save(user1);
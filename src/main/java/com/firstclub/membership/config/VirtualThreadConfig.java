@@ -0,0 +1,25 @@
+package com.firstclub.membership.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Virtual-thread execution mode, switched on with spring.threads.virtual.enabled=true: Boot then runs
+ * Tomcat requests, the application task executor and scheduled jobs on virtual threads. Boot quietly
+ * keeps platform threads on a JRE older than 21, so the mode refuses to start there instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    public VirtualThreadConfig() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs Java 21 or later, running on "
+                    + Runtime.version());
+        }
+        log.info("Handling requests on virtual threads (Java {})", Runtime.version());
+    }
+}
@@ -0,0 +1,53 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.dto.CampaignRequest;
+import com.firstclub.membership.dto.CampaignResponse;
+import com.firstclub.membership.service.CampaignService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/admin/campaigns")
+@RequiredArgsConstructor
+public class AdminCampaignController {
+
+    private final CampaignService campaignService;
+    private final BulkheadExecutors bulkheads;
+
+    /**
+     * POST /api/admin/campaigns - Schedule a time-limited benefit for a tier
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<CampaignResponse>> createCampaign(
+            @Valid @RequestBody CampaignRequest request) {
+        return bulkheads.supply(Bulkhead.ADMIN, () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(campaignService.createCampaign(request)));
+    }
+
+    /**
+     * GET /api/admin/campaigns - All campaigns, or only those running now with ?running=true
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<CampaignResponse>>> getCampaigns(
+            @RequestParam(defaultValue = "false") boolean running) {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> ResponseEntity.ok(campaignService.getCampaigns(running)));
+    }
+
+    /**
+     * DELETE /api/admin/campaigns/{campaignId} - Cancel a campaign
+     */
+    @DeleteMapping("/{campaignId}")
+    public CompletableFuture<ResponseEntity<Void>> deleteCampaign(@PathVariable Long campaignId) {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> {
+            campaignService.deleteCampaign(campaignId);
+            return ResponseEntity.noContent().build();
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.dto.CriteriaDryRunRequest;
+import com.firstclub.membership.dto.CriteriaDryRunResponse;
+import com.firstclub.membership.service.CriteriaDryRunService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/admin/criteria")
+@RequiredArgsConstructor
+public class AdminCriteriaController {
+
+    private final CriteriaDryRunService criteriaDryRunService;
+    private final BulkheadExecutors bulkheads;
+
+    /**
+     * POST /api/admin/criteria/dry-run - How many members a proposed criteria set would move, without applying it
+     */
+    @PostMapping("/dry-run")
+    public CompletableFuture<ResponseEntity<CriteriaDryRunResponse>> dryRun(
+            @Valid @RequestBody CriteriaDryRunRequest request) {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> ResponseEntity.ok(criteriaDryRunService.dryRun(request)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.persistence.OrderDeadLetterReplay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+@RequiredArgsConstructor
+public class AdminDeadLetterController {
+
+    private final OrderDeadLetterReplay orderDeadLetterReplay;
+    private final BulkheadExecutors bulkheads;
+
+    /**
+     * POST /api/admin/dead-letters/orders/replay - Write dead-lettered write-behind orders, oldest first
+     */
+    @PostMapping("/orders/replay")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> replayOrders(
+            @RequestParam(defaultValue = "100") int limit) {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> {
+            OrderDeadLetterReplay.Result result = orderDeadLetterReplay.replay(limit);
+            return ResponseEntity.ok(Map.of(
+                    "replayed", result.replayed(),
+                    "failed", result.failed()
+            ));
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.analytics.MembershipAnalytics;
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.dto.BenefitSpendResponse;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final MembershipAnalytics membershipAnalytics;
+    private final BulkheadExecutors bulkheads;
+
+    /**
+     * GET /api/analytics/tiers - Members per tier and status
+     */
+    @GetMapping("/tiers")
+    public CompletableFuture<ResponseEntity<Map<TierLevel, Map<MembershipStatus, Long>>>> getTierDistribution() {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> ResponseEntity.ok(membershipAnalytics.tierDistribution()));
+    }
+
+    /**
+     * GET /api/analytics/benefits/daily - Discount given and free deliveries per category for a day
+     */
+    @GetMapping("/benefits/daily")
+    public CompletableFuture<ResponseEntity<List<BenefitSpendResponse>>> getDailyBenefitSpend(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String category) {
+        return bulkheads.supply(Bulkhead.ADMIN, () ->
+                ResponseEntity.ok(membershipAnalytics.dailySpend(date, category)));
+    }
+
+    /**
+     * GET /api/analytics/benefits/monthly - Discount given and free deliveries per category for a month (yyyy-MM)
+     */
+    @GetMapping("/benefits/monthly")
+    public CompletableFuture<ResponseEntity<List<BenefitSpendResponse>>> getMonthlyBenefitSpend(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) String category) {
+        return bulkheads.supply(Bulkhead.ADMIN, () ->
+                ResponseEntity.ok(membershipAnalytics.monthlySpend(month, category)));
+    }
+
+    /**
+     * POST /api/analytics/rebuild - Recompute all counters from the source tables
+     */
+    @PostMapping("/rebuild")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> rebuild() {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> {
+            long elapsedMs = membershipAnalytics.rebuild();
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "elapsedMs", elapsedMs
+            ));
+        });
+    }
+}
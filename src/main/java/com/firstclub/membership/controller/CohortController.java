@@ -0,0 +1,68 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.dto.CohortResponse;
+import com.firstclub.membership.dto.CohortSegmentResponse;
+import com.firstclub.membership.dto.CohortTierGrantResponse;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.service.CohortService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/admin/cohorts")
+@RequiredArgsConstructor
+public class CohortController {
+
+    private static final int MAX_SEGMENT_IDS = 1000;
+
+    private final CohortService cohortService;
+    private final BulkheadExecutors bulkheads;
+
+    /**
+     * GET /api/admin/cohorts - All cohorts with their user counts
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<List<CohortResponse>>> getAllCohorts() {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> ResponseEntity.ok(cohortService.getAllCohorts()));
+    }
+
+    /**
+     * GET /api/admin/cohorts/{cohort}/members - Users in a cohort, optionally filtered by tier and status
+     */
+    @GetMapping("/{cohort}/members")
+    public CompletableFuture<ResponseEntity<CohortSegmentResponse>> getSegment(
+            @PathVariable String cohort,
+            @RequestParam(required = false) List<TierLevel> tier,
+            @RequestParam(required = false) MembershipStatus status,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 0 || limit > MAX_SEGMENT_IDS) {
+            throw new IllegalArgumentException("limit must be between 0 and " + MAX_SEGMENT_IDS);
+        }
+        return bulkheads.supply(Bulkhead.ADMIN, () ->
+                ResponseEntity.ok(cohortService.getSegment(cohort, tier, status, limit)));
+    }
+
+    /**
+     * PUT /api/admin/cohorts/{cohort}/users/{userId} - Move a user into a cohort
+     */
+    @PutMapping("/{cohort}/users/{userId}")
+    public CompletableFuture<ResponseEntity<CohortResponse>> assignUser(@PathVariable String cohort,
+                                                                        @PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> ResponseEntity.ok(cohortService.assignUser(cohort, userId)));
+    }
+
+    /**
+     * POST /api/admin/cohorts/{cohort}/grant-tier - Upgrade every active member of a cohort below the tier
+     */
+    @PostMapping("/{cohort}/grant-tier")
+    public CompletableFuture<ResponseEntity<CohortTierGrantResponse>> grantTier(@PathVariable String cohort,
+                                                             @RequestParam TierLevel tierLevel) {
+        return bulkheads.supply(Bulkhead.ADMIN, () -> ResponseEntity.ok(cohortService.grantTier(cohort, tierLevel)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    /**
+     * GET /api/export/memberships - Stream memberships as NDJSON (filter on last modified date and tier)
+     */
+    @GetMapping("/memberships")
+    public ResponseEntity<StreamingResponseBody> exportMemberships(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TierLevel tier) {
+        return ndjson("memberships.ndjson", out -> exportService.exportMemberships(from, to, tier, out));
+    }
+
+    /**
+     * GET /api/export/orders - Stream orders as NDJSON (filter on order date and the user's current tier)
+     */
+    @GetMapping("/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TierLevel tier) {
+        return ndjson("orders.ndjson", out -> exportService.exportOrders(from, to, tier, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -1,17 +1,31 @@
 package com.firstclub.membership.controller;
 
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
 import com.firstclub.membership.dto.MembershipResponse;
 import com.firstclub.membership.dto.SubscriptionRequest;
+import com.firstclub.membership.dto.TierChangeResponse;
+import com.firstclub.membership.dto.TierProgressResponse;
 import com.firstclub.membership.enums.TierLevel;
 import com.firstclub.membership.service.MembershipService;
 import com.firstclub.membership.service.TierEvaluationService;
+import com.firstclub.membership.service.TierHistoryService;
+import com.firstclub.membership.service.TierProgressService;
+import com.firstclub.membership.stream.MembershipEventStream;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/memberships")
@@ -20,87 +34,162 @@ public class MembershipController {
 
     private final MembershipService membershipService;
     private final TierEvaluationService tierEvaluationService;
+    private final TierProgressService tierProgressService;
+    private final TierHistoryService tierHistoryService;
+    private final MembershipEventStream membershipEventStream;
+    private final BulkheadExecutors bulkheads;
 
     /**
      * POST /api/memberships/subscribe - Subscribe to a membership plan
      */
     @PostMapping("/subscribe")
-    public ResponseEntity<MembershipResponse> subscribe(@Valid @RequestBody SubscriptionRequest request) {
-        MembershipResponse response = membershipService.subscribe(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<MembershipResponse>> subscribe(
+            @Valid @RequestBody SubscriptionRequest request) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            MembershipResponse response = membershipService.subscribe(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     /**
      * GET /api/memberships/user/{userId} - Get current membership
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<MembershipResponse> getCurrentMembership(@PathVariable Long userId) {
-        MembershipResponse response = membershipService.getCurrentMembership(userId);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<MembershipResponse>> getCurrentMembership(@PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            MembershipResponse response = membershipService.getCurrentMembership(userId);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * PUT /api/memberships/user/{userId}/upgrade - Upgrade membership tier
      */
     @PutMapping("/user/{userId}/upgrade")
-    public ResponseEntity<MembershipResponse> upgradeTier(
+    public CompletableFuture<ResponseEntity<MembershipResponse>> upgradeTier(
             @PathVariable Long userId,
             @RequestParam TierLevel tierLevel) {
-        MembershipResponse response = membershipService.upgradeTier(userId, tierLevel);
-        return ResponseEntity.ok(response);
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            MembershipResponse response = membershipService.upgradeTier(userId, tierLevel);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * PUT /api/memberships/user/{userId}/downgrade - Downgrade membership tier
      */
     @PutMapping("/user/{userId}/downgrade")
-    public ResponseEntity<MembershipResponse> downgradeTier(
+    public CompletableFuture<ResponseEntity<MembershipResponse>> downgradeTier(
             @PathVariable Long userId,
             @RequestParam TierLevel tierLevel) {
-        MembershipResponse response = membershipService.downgradeTier(userId, tierLevel);
-        return ResponseEntity.ok(response);
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            MembershipResponse response = membershipService.downgradeTier(userId, tierLevel);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * DELETE /api/memberships/user/{userId}/cancel - Cancel membership
      */
     @DeleteMapping("/user/{userId}/cancel")
-    public ResponseEntity<MembershipResponse> cancelMembership(@PathVariable Long userId) {
-        MembershipResponse response = membershipService.cancelMembership(userId);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<MembershipResponse>> cancelMembership(@PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            MembershipResponse response = membershipService.cancelMembership(userId);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * POST /api/memberships/user/{userId}/evaluate-tier - Evaluate and auto-upgrade tier
      */
     @PostMapping("/user/{userId}/evaluate-tier")
-    public ResponseEntity<Map<String, Object>> evaluateTier(@PathVariable Long userId) {
-        Optional<TierLevel> upgradedTier = tierEvaluationService.evaluateAndUpgradeTier(userId);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> evaluateTier(@PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            Optional<TierLevel> upgradedTier = tierEvaluationService.evaluateAndUpgradeTier(userId);
 
-        if (upgradedTier.isPresent()) {
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "Tier upgraded to " + upgradedTier.get(),
-                    "newTier", upgradedTier.get()
-            ));
-        } else {
-            return ResponseEntity.ok(Map.of(
-                    "success", false,
-                    "message", "No tier upgrade available"
-            ));
-        }
+            if (upgradedTier.isPresent()) {
+                return ResponseEntity.ok(Map.of(
+                        "success", true,
+                        "message", "Tier upgraded to " + upgradedTier.get(),
+                        "newTier", upgradedTier.get()
+                ));
+            } else {
+                return ResponseEntity.ok(Map.of(
+                        "success", false,
+                        "message", "No tier upgrade available"
+                ));
+            }
+        });
     }
 
     /**
      * GET /api/memberships/user/{userId}/eligible-tier - Check eligible tier
      */
     @GetMapping("/user/{userId}/eligible-tier")
-    public ResponseEntity<Map<String, Object>> checkEligibleTier(@PathVariable Long userId) {
-        TierLevel eligibleTier = tierEvaluationService.checkEligibleTier(userId);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> checkEligibleTier(@PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> {
+            TierLevel eligibleTier = tierEvaluationService.checkEligibleTier(userId);
+
+            return ResponseEntity.ok(Map.of(
+                    "userId", userId,
+                    "eligibleTier", eligibleTier
+            ));
+        });
+    }
+
+    /**
+     * GET /api/memberships/user/{userId}/history - Tier and status changes with their causes, newest first
+     */
+    @GetMapping("/user/{userId}/history")
+    public CompletableFuture<ResponseEntity<List<TierChangeResponse>>> getTierHistory(@PathVariable Long userId,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(tierHistoryService.getHistory(userId, limit)));
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "userId", userId,
-                "eligibleTier", eligibleTier
-        ));
+    /**
+     * GET /api/memberships/user/{userId}/tier-at - Tier and status in effect at a past instant
+     */
+    @GetMapping("/user/{userId}/tier-at")
+    public CompletableFuture<ResponseEntity<TierChangeResponse>> getTierAt(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(tierHistoryService.getTierAt(userId, at)));
+    }
+
+    /**
+     * GET /api/memberships/user/{userId}/events - Server-sent stream of tier and status changes
+     */
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = membershipEventStream.subscribe(userId, parseEventId(lastEventId));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                // Keep reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * GET /api/memberships/user/{userId}/progress - This month's progress towards each higher tier
+     */
+    @GetMapping("/user/{userId}/progress")
+    public CompletableFuture<ResponseEntity<TierProgressResponse>> getTierProgress(@PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(tierProgressService.getProgress(userId)));
+    }
+
+    /**
+     * A Last-Event-ID this server did not issue starts the stream afresh.
+     */
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
@@ -1,5 +1,7 @@
 package com.firstclub.membership.controller;
 
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
 import com.firstclub.membership.dto.PlanResponse;
 import com.firstclub.membership.dto.TierResponse;
 import com.firstclub.membership.service.MembershipPlanService;
@@ -8,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/plans")
@@ -16,28 +19,29 @@ public class MembershipPlanController {
 
     private final MembershipPlanService planService;
     private final MembershipTierService tierService;
+    private final BulkheadExecutors bulkheads;
 
     /**
      * GET /api/plans - Get all active membership plans
      */
     @GetMapping
-    public ResponseEntity<List<PlanResponse>> getAllPlans() {
-        return ResponseEntity.ok(planService.getAllActivePlans());
+    public CompletableFuture<ResponseEntity<List<PlanResponse>>> getAllPlans() {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(planService.getAllActivePlans()));
     }
 
     /**
      * GET /api/plans/{planId} - Get specific plan
      */
     @GetMapping("/{planId}")
-    public ResponseEntity<PlanResponse> getPlanById(@PathVariable Long planId) {
-        return ResponseEntity.ok(planService.getPlanById(planId));
+    public CompletableFuture<ResponseEntity<PlanResponse>> getPlanById(@PathVariable Long planId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(planService.getPlanById(planId)));
     }
 
     /**
      * GET /api/plans/tiers - Get all membership tiers
      */
     @GetMapping("/tiers")
-    public ResponseEntity<List<TierResponse>> getAllTiers() {
-        return ResponseEntity.ok(tierService.getAllTiers());
+    public CompletableFuture<ResponseEntity<List<TierResponse>>> getAllTiers() {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(tierService.getAllTiers()));
     }
 }
@@ -1,16 +1,22 @@
 package com.firstclub.membership.controller;
 
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
 import com.firstclub.membership.dto.CreateOrderRequest;
+import com.firstclub.membership.dto.OrderHistoryResponse;
 import com.firstclub.membership.dto.OrderResponse;
 import com.firstclub.membership.service.BenefitCalculationService;
 import com.firstclub.membership.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -19,47 +25,83 @@ public class OrderController {
 
     private final OrderService orderService;
     private final BenefitCalculationService benefitCalculationService;
+    private final BulkheadExecutors bulkheads;
 
     /**
      * POST /api/orders - Create a new order with benefits applied
      */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<OrderResponse>> createOrder(
+            @Valid @RequestBody CreateOrderRequest request) {
+        return bulkheads.supply(Bulkhead.CHECKOUT, () -> {
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    /**
+     * GET /api/orders/user/{userId} - Get order history, newest first (keyset paginated), optionally placed
+     * from {@code from} through {@code to}, both days included
+     */
+    @GetMapping("/user/{userId}")
+    public CompletableFuture<ResponseEntity<OrderHistoryResponse>> getOrderHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return bulkheads.supply(Bulkhead.MEMBER, () ->
+                ResponseEntity.ok(orderService.getOrderHistory(userId, cursor, limit, category, from, to)));
     }
 
     /**
      * GET /api/orders/benefits/free-delivery - Check free delivery eligibility
      */
     @GetMapping("/benefits/free-delivery")
-    public ResponseEntity<Map<String, Object>> checkFreeDelivery(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> checkFreeDelivery(
             @RequestParam Long userId,
             @RequestParam(required = false) String category) {
+        return bulkheads.supply(Bulkhead.CHECKOUT, () -> {
+            boolean eligible = benefitCalculationService.isEligibleForFreeDelivery(userId, category);
 
-        boolean eligible = benefitCalculationService.isEligibleForFreeDelivery(userId, category);
-
-        return ResponseEntity.ok(Map.of(
-                "userId", userId,
-                "category", category != null ? category : "all",
-                "eligibleForFreeDelivery", eligible
-        ));
+            return ResponseEntity.ok(Map.of(
+                    "userId", userId,
+                    "category", category != null ? category : "all",
+                    "eligibleForFreeDelivery", eligible
+            ));
+        });
     }
 
     /**
      * GET /api/orders/benefits/discount - Get applicable discount
      */
     @GetMapping("/benefits/discount")
-    public ResponseEntity<Map<String, Object>> getDiscount(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getDiscount(
             @RequestParam Long userId,
             @RequestParam(required = false) String category) {
+        return bulkheads.supply(Bulkhead.CHECKOUT, () -> {
+            BigDecimal discount = benefitCalculationService.getApplicableDiscount(userId, category);
 
-        BigDecimal discount = benefitCalculationService.getApplicableDiscount(userId, category);
+            return ResponseEntity.ok(Map.of(
+                    "userId", userId,
+                    "category", category != null ? category : "all",
+                    "discountPercentage", discount
+            ));
+        });
+    }
 
-        return ResponseEntity.ok(Map.of(
+    /**
+     * GET /api/orders/benefits/entitlements - Get every active benefit the user is entitled to
+     */
+    @GetMapping("/benefits/entitlements")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getEntitlements(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String category) {
+        return bulkheads.supply(Bulkhead.CHECKOUT, () -> ResponseEntity.ok(Map.of(
                 "userId", userId,
                 "category", category != null ? category : "all",
-                "discountPercentage", discount
-        ));
+                "entitlements", benefitCalculationService.getEntitlements(userId, category)
+        )));
     }
 }
@@ -0,0 +1,38 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.dto.PointsBalanceResponse;
+import com.firstclub.membership.dto.PointsEntryResponse;
+import com.firstclub.membership.service.PointsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/points")
+@RequiredArgsConstructor
+public class PointsController {
+
+    private final PointsService pointsService;
+    private final BulkheadExecutors bulkheads;
+
+    /**
+     * GET /api/points/user/{userId} - Loyalty points balance and its redeemable value
+     */
+    @GetMapping("/user/{userId}")
+    public CompletableFuture<ResponseEntity<PointsBalanceResponse>> getBalance(@PathVariable Long userId) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(pointsService.getBalance(userId)));
+    }
+
+    /**
+     * GET /api/points/user/{userId}/history - Points earned and redeemed, newest first
+     */
+    @GetMapping("/user/{userId}/history")
+    public CompletableFuture<ResponseEntity<List<PointsEntryResponse>>> getHistory(@PathVariable Long userId,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        return bulkheads.supply(Bulkhead.MEMBER, () -> ResponseEntity.ok(pointsService.getHistory(userId, limit)));
+    }
+}
@@ -0,0 +1,154 @@
+package com.firstclub.membership.criteria;
+
+import com.firstclub.membership.entity.TierUpgradeCriteria;
+import com.firstclub.membership.enums.TierLevel;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Tier upgrade criteria flattened into arrays, highest target tier first, so a member can be checked
+ * against every rule with plain comparisons. Matches the semantics of the evaluation strategies:
+ * a missing threshold or cohort list always passes, and a member without a cohort fails a cohort gate.
+ */
+public final class CompiledCriteria {
+
+    private static final int NONE = -1;
+
+    private final TierLevel[] targetTiers;
+    private final int[] minOrderCount;
+    private final long[] minValueCents;
+    private final List<Set<String>> cohorts; // null entries: any cohort qualifies
+    private final long version;
+
+    private CompiledCriteria(List<TierUpgradeCriteria> rules) {
+        int n = rules.size();
+        this.targetTiers = new TierLevel[n];
+        this.minOrderCount = new int[n];
+        this.minValueCents = new long[n];
+        this.cohorts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            TierUpgradeCriteria rule = rules.get(i);
+            targetTiers[i] = rule.getTargetTier();
+            minOrderCount[i] = rule.getMinOrderCount() != null ? rule.getMinOrderCount() : NONE;
+            minValueCents[i] = rule.getMinMonthlyOrderValue() != null ? toCents(rule.getMinMonthlyOrderValue()) : NONE;
+            cohorts.add(rule.getEligibleCohort() == null || rule.getEligibleCohort().isBlank() ? null
+                    : List.of(rule.getEligibleCohort().split(",")).stream()
+                            .map(CompiledCriteria::normalizeCohort)
+                            .collect(Collectors.toUnmodifiableSet()));
+        }
+        this.version = fingerprint();
+    }
+
+    public static CompiledCriteria compile(Collection<TierUpgradeCriteria> criteria) {
+        List<TierUpgradeCriteria> rules = new ArrayList<>(criteria);
+        for (TierUpgradeCriteria rule : rules) {
+            if (rule.getTargetTier() == null) {
+                throw new IllegalArgumentException("Every criteria needs a target tier");
+            }
+        }
+        rules.sort(Comparator.comparing((TierUpgradeCriteria c) -> c.getTargetTier().getLevel()).reversed());
+        return new CompiledCriteria(rules);
+    }
+
+    public int size() {
+        return targetTiers.length;
+    }
+
+    /**
+     * Fingerprint of the rules' content: equal for equal criteria sets, across restarts, and different
+     * once any threshold or cohort list changes.
+     */
+    public long version() {
+        return version;
+    }
+
+    public TierLevel targetTier(int rule) {
+        return targetTiers[rule];
+    }
+
+    /**
+     * Minimum monthly order count for the rule, or null if it has none.
+     */
+    public Integer minOrderCount(int rule) {
+        return minOrderCount[rule] == NONE ? null : minOrderCount[rule];
+    }
+
+    /**
+     * Minimum monthly order value in cents for the rule, or null if it has none.
+     */
+    public Long minValueCents(int rule) {
+        return minValueCents[rule] == NONE ? null : minValueCents[rule];
+    }
+
+    /**
+     * Normalized eligible cohorts for the rule, or null if any cohort qualifies.
+     */
+    public Set<String> eligibleCohorts(int rule) {
+        return cohorts.get(rule);
+    }
+
+    public boolean cohortAllowed(int rule, String cohort) {
+        return cohorts.get(rule) == null || (cohort != null && cohorts.get(rule).contains(normalizeCohort(cohort)));
+    }
+
+    public boolean meetsActivity(int rule, long orderCount, long valueCents) {
+        return (minOrderCount[rule] == NONE || orderCount >= minOrderCount[rule])
+                && (minValueCents[rule] == NONE || valueCents >= minValueCents[rule]);
+    }
+
+    /**
+     * Highest tier whose rule the member meets, or null if none.
+     */
+    public TierLevel highestQualifyingTier(String cohort, long orderCount, long valueCents) {
+        for (int rule = 0; rule < targetTiers.length; rule++) {
+            if (meetsActivity(rule, orderCount, valueCents) && cohortAllowed(rule, cohort)) {
+                return targetTiers[rule];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Per-rule cohort eligibility for a fixed cohort dictionary, so hot loops can test cohort ids
+     * instead of strings. Index the result as [rule][cohortId].
+     */
+    public boolean[][] cohortTable(String[] cohortDictionary) {
+        boolean[][] table = new boolean[targetTiers.length][cohortDictionary.length];
+        for (int rule = 0; rule < targetTiers.length; rule++) {
+            for (int id = 0; id < cohortDictionary.length; id++) {
+                table[rule][id] = cohortAllowed(rule, cohortDictionary[id]);
+            }
+        }
+        return table;
+    }
+
+    private long fingerprint() {
+        StringBuilder content = new StringBuilder();
+        for (int rule = 0; rule < targetTiers.length; rule++) {
+            content.append(targetTiers[rule]).append('|').append(minOrderCount[rule]).append('|')
+                    .append(minValueCents[rule]).append('|')
+                    .append(cohorts.get(rule) == null ? "*" : String.join(",", new TreeSet<>(cohorts.get(rule))))
+                    .append(';');
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    public static String normalizeCohort(String cohort) {
+        return cohort.trim().toLowerCase(Locale.ROOT);
+    }
+}
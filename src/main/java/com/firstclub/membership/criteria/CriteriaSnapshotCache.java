@@ -0,0 +1,36 @@
+package com.firstclub.membership.criteria;
+
+import com.firstclub.membership.repository.TierUpgradeCriteriaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * The active upgrade criteria, compiled once and refreshed on a fixed delay
+ * (membership.criteria.refresh-interval) instead of being read per request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CriteriaSnapshotCache {
+
+    private final TierUpgradeCriteriaRepository criteriaRepository;
+
+    private volatile CompiledCriteria snapshot = CompiledCriteria.compile(List.of());
+
+    public CompiledCriteria get() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${membership.criteria.refresh-interval:60000}",
+            initialDelayString = "${membership.criteria.refresh-interval:60000}")
+    public void refresh() {
+        snapshot = CompiledCriteria.compile(criteriaRepository.findByActiveTrue());
+        log.debug("Refreshed criteria snapshot with {} rules", snapshot.size());
+    }
+}
@@ -0,0 +1,109 @@
+package com.firstclub.membership.criteria;
+
+import com.firstclub.membership.enums.TierLevel;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every active member's tier, cohort and month-to-date order count and value, loaded with one
+ * aggregate query into parallel primitive arrays.
+ */
+public final class MemberActivitySnapshot {
+
+    private static final String SQL = "SELECT m.user_id, t.tier_level, c.name, COUNT(o.id), "
+            + "COALESCE(SUM(o.order_value), 0) "
+            + "FROM memberships m "
+            + "JOIN users u ON u.id = m.user_id "
+            + "LEFT JOIN cohorts c ON c.id = u.cohort_id "
+            + "JOIN membership_tiers t ON t.id = m.tier_id "
+            + "LEFT JOIN orders o ON o.user_id = m.user_id AND o.order_date >= ? "
+            + "WHERE m.status = 'ACTIVE' AND m.expiry_date > ? "
+            + "GROUP BY m.user_id, t.tier_level, c.name";
+
+    private long[] userIds = new long[4096];
+    private byte[] tiers = new byte[4096];
+    private int[] cohortIds = new int[4096];
+    private int[] orderCounts = new int[4096];
+    private long[] valueCents = new long[4096];
+    private int size;
+
+    private final Map<String, Integer> cohortIndex = new HashMap<>();
+    private String[] cohorts = new String[0];
+
+    private MemberActivitySnapshot() {
+    }
+
+    /**
+     * Load members active at {@code now} with their activity since {@code monthStart}.
+     */
+    public static MemberActivitySnapshot load(JdbcTemplate jdbcTemplate, LocalDateTime monthStart, LocalDateTime now) {
+        MemberActivitySnapshot snapshot = new MemberActivitySnapshot();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SQL);
+            ps.setFetchSize(10_000);
+            ps.setTimestamp(1, Timestamp.valueOf(monthStart));
+            ps.setTimestamp(2, Timestamp.valueOf(now));
+            return ps;
+        }, rs -> {
+            snapshot.add(rs.getLong(1), TierLevel.valueOf(rs.getString(2)), rs.getString(3),
+                    rs.getInt(4), CompiledCriteria.toCents(rs.getBigDecimal(5)));
+        });
+        return snapshot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long userId(int i) {
+        return userIds[i];
+    }
+
+    public int tierOrdinal(int i) {
+        return tiers[i];
+    }
+
+    public int cohortId(int i) {
+        return cohortIds[i];
+    }
+
+    public int orderCount(int i) {
+        return orderCounts[i];
+    }
+
+    public long valueCents(int i) {
+        return valueCents[i];
+    }
+
+    /**
+     * Distinct cohorts indexed by cohort id; may contain null for members without a cohort.
+     */
+    public String[] cohortDictionary() {
+        return cohorts;
+    }
+
+    private void add(long userId, TierLevel tier, String cohort, int orderCount, long cents) {
+        if (size == userIds.length) {
+            int capacity = size * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            tiers = Arrays.copyOf(tiers, capacity);
+            cohortIds = Arrays.copyOf(cohortIds, capacity);
+            orderCounts = Arrays.copyOf(orderCounts, capacity);
+            valueCents = Arrays.copyOf(valueCents, capacity);
+        }
+        userIds[size] = userId;
+        tiers[size] = (byte) tier.ordinal();
+        cohortIds[size] = cohortIndex.computeIfAbsent(cohort, c -> {
+            cohorts = Arrays.copyOf(cohorts, cohorts.length + 1);
+            cohorts[cohorts.length - 1] = c;
+            return cohorts.length - 1;
+        });
+        orderCounts[size] = orderCount;
+        valueCents[size] = cents;
+        size++;
+    }
+}
@@ -0,0 +1,157 @@
+package com.firstclub.membership.criteria;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.cache.RebuildReplay;
+import com.firstclub.membership.event.OrderCreatedEvent;
+import com.firstclub.membership.event.OrderDeadLetteredEvent;
+import com.firstclub.membership.persistence.OrderWriteBehindBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Current-month order count and value per user, kept up to date from committed order events so
+ * tier progress can be read without aggregate queries.
+ *
+ * <p>Seeded from the orders table at startup and by {@link #rebuild()}. Orders committed during a rebuild
+ * are replayed onto it unless its snapshot already contains them (see {@link RebuildReplay}), so each is
+ * counted once. A rebuild first waits for the orders already in the write-behind buffer to be written, and
+ * orders the buffer dead-letters are taken back out. When the clock moves into another month the counters
+ * start again from zero.
+ */
+@Component
+@Slf4j
+public class MonthlyActivityTracker {
+
+    private static final String MONTH_ACTIVITY_SQL = "SELECT user_id, COUNT(*), COALESCE(SUM(order_value), 0) "
+            + "FROM orders WHERE order_date >= ? AND order_date < ? GROUP BY user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final OrderWriteBehindBuffer writeBehindBuffer;
+
+    private final AtomicReference<MonthActivity> current;
+    private final RebuildReplay<MonthActivity> replay;
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public MonthlyActivityTracker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  Clock clock, OrderWriteBehindBuffer writeBehindBuffer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.current = new AtomicReference<>(new MonthActivity(YearMonth.now(clock)));
+        this.replay = new RebuildReplay<>(jdbcTemplate, transactionManager, false, this::currentMonth);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Activity activity = new Activity(1, CompiledCriteria.toCents(event.getOrderValue()));
+        replay.apply(RebuildReplay.ORDERS, event.getOrderId(),
+                month -> record(month, event.getUserId(), event.getOrderDate(), activity));
+    }
+
+    @EventListener
+    public void onOrderDeadLettered(OrderDeadLetteredEvent event) {
+        Activity activity = new Activity(-1, -CompiledCriteria.toCents(event.getOrderValue()));
+        replay.retract(RebuildReplay.ORDERS, event.getOrderId(),
+                month -> record(month, event.getUserId(), event.getOrderDate(), activity));
+    }
+
+    /**
+     * The user's order count and value so far this month.
+     */
+    public Activity activity(long userId) {
+        return currentMonth().byUser.getOrDefault(userId, Activity.NONE);
+    }
+
+    public YearMonth month() {
+        return currentMonth().month;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        BulkheadExecutors.runAs(Bulkhead.ADMIN, this::rebuild);
+    }
+
+    /**
+     * Recompute the current month from the orders table and swap it in atomically.
+     */
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            replay.rebuild(writeBehindBuffer::awaitFlushed, () -> {
+                MonthActivity rebuilt = new MonthActivity(YearMonth.now(clock));
+                jdbcTemplate.query(MONTH_ACTIVITY_SQL, rs -> {
+                    rebuilt.byUser.put(rs.getLong(1),
+                            new Activity(rs.getLong(2), CompiledCriteria.toCents(rs.getBigDecimal(3))));
+                }, Timestamp.valueOf(rebuilt.month.atDay(1).atStartOfDay()),
+                        Timestamp.valueOf(rebuilt.month.plusMonths(1).atDay(1).atStartOfDay()));
+                return rebuilt;
+            }, rebuilt -> {
+                current.set(rebuilt);
+                return true;
+            });
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Rebuilt monthly activity for {} users in {} ms", current.get().byUser.size(), elapsedMs);
+            return elapsedMs;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private MonthActivity currentMonth() {
+        YearMonth now = YearMonth.now(clock);
+        MonthActivity month = current.get();
+        if (!month.month.equals(now)) {
+            current.compareAndSet(month, new MonthActivity(now));
+            month = current.get();
+        }
+        return month;
+    }
+
+    private static void record(MonthActivity month, long userId, LocalDateTime orderDate, Activity activity) {
+        if (orderDate != null && YearMonth.from(orderDate).equals(month.month)) {
+            month.byUser.merge(userId, activity, Activity::plus);
+        }
+    }
+
+    /**
+     * Order count and value in cents for one user in one month.
+     */
+    public record Activity(long orderCount, long valueCents) {
+
+        static final Activity NONE = new Activity(0, 0);
+
+        Activity plus(Activity other) {
+            return new Activity(orderCount + other.orderCount, valueCents + other.valueCents);
+        }
+    }
+
+    private static final class MonthActivity {
+
+        private final YearMonth month;
+        private final Map<Long, Activity> byUser = new ConcurrentHashMap<>();
+
+        MonthActivity(YearMonth month) {
+            this.month = month;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.firstclub.membership.dataset;
+
+import com.firstclub.membership.benefit.Benefit;
+import com.firstclub.membership.benefit.BenefitHandlerRegistry;
+import com.firstclub.membership.benefit.TierBenefits;
+import com.firstclub.membership.entity.MembershipPlan;
+import com.firstclub.membership.entity.MembershipTier;
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.service.CohortService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads a {@link SyntheticDataset} after the reference data is in place.
+ * Rows are written with explicit ids through batched JDBC inserts, one transaction per chunk,
+ * and the identity columns and order sequence are moved past the loaded ids afterwards.
+ *
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=dataset \
+ *   -Dspring-boot.run.arguments="--membership.dataset.users=1000000 --membership.dataset.seed=42"
+ * </pre>
+ */
+@Component
+@Profile("dataset")
+@Order(2)
+@Slf4j
+public class DatasetLoader implements ApplicationRunner {
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (id, email, name, created_at, cohort_id) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_MEMBERSHIP_SQL = "INSERT INTO memberships (id, user_id, plan_id, tier_id, "
+            + "status, start_date, expiry_date, last_modified, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ORDER_SQL = "INSERT INTO orders (id, user_id, order_value, order_date, "
+            + "category, free_delivery_applied, discount_percentage, discount_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final MembershipPlanRepository planRepository;
+    private final MembershipTierRepository tierRepository;
+    private final CohortService cohortService;
+    private final BenefitHandlerRegistry handlerRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${membership.dataset.seed:42}")
+    private long seed;
+
+    @Value("${membership.dataset.users:1000000}")
+    private int users;
+
+    @Value("${membership.dataset.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${membership.dataset.months:12}")
+    private int months;
+
+    @Value("${membership.dataset.mean-orders-per-user:5}")
+    private double meanOrdersPerUser;
+
+    // Pin this (yyyy-MM-dd) to get identical dates across days; defaults to today
+    @Value("${membership.dataset.end-date:}")
+    private String endDate;
+
+    @Value("${membership.dataset.threads:4}")
+    private int threads;
+
+    @Value("${membership.dataset.batch-size:1000}")
+    private int batchSize;
+
+    public DatasetLoader(MembershipPlanRepository planRepository,
+                         MembershipTierRepository tierRepository,
+                         CohortService cohortService,
+                         BenefitHandlerRegistry handlerRegistry,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         Clock clock) {
+        this.planRepository = planRepository;
+        this.tierRepository = tierRepository;
+        this.cohortService = cohortService;
+        this.handlerRegistry = handlerRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<MembershipPlan> plans = new ArrayList<>(planRepository.findByActiveTrue());
+        plans.sort(Comparator.comparing(MembershipPlan::getId));
+        int[] planMonths = plans.stream().mapToInt(p -> p.getDuration().getMonths()).toArray();
+        long[] planIds = plans.stream().mapToLong(MembershipPlan::getId).toArray();
+        TierPricing pricing = new TierPricing(tierRepository.findAll(), handlerRegistry);
+        long[] cohortIds = Arrays.stream(SyntheticDataset.COHORTS)
+                .mapToLong(name -> cohortService.resolve(name).getId())
+                .toArray();
+
+        long start = System.nanoTime();
+        SyntheticDataset dataset = new SyntheticDataset(seed, users, chunkSize, months, meanOrdersPerUser,
+                endDate.isBlank() ? LocalDate.now(clock) : LocalDate.parse(endDate), planMonths);
+        log.info("Generating dataset seed={} users={} members={} orders={}",
+                seed, dataset.users(), dataset.members(), dataset.totalOrders());
+
+        long userBase = nextId("SELECT COALESCE(MAX(id), 0) FROM users");
+        long membershipBase = nextId("SELECT COALESCE(MAX(id), 0) FROM memberships");
+        long orderBase = nextId("SELECT COALESCE(MAX(id), 0) FROM orders");
+        AtomicLong rows = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int chunk = 0; chunk < dataset.chunkCount(); chunk++) {
+                int c = chunk;
+                chunks.add(executor.submit(() -> rows.addAndGet(transactionTemplate.execute(status ->
+                        loadChunk(dataset, c, userBase, membershipBase, orderBase, planIds, cohortIds, pricing)))));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        restartIdentity("users", userBase + dataset.users());
+        restartIdentity("memberships", membershipBase + dataset.users());
+        // Order ids come from a pooled sequence (allocation size 50); leave a full block of headroom
+        jdbcTemplate.execute("ALTER SEQUENCE order_id_seq RESTART WITH " + (orderBase + dataset.totalOrders() + 50));
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Loaded {} rows in {} ms ({} rows/s)", rows.get(), elapsedMs, rows.get() * 1000 / elapsedMs);
+    }
+
+    private long loadChunk(SyntheticDataset dataset, int chunk, long userBase, long membershipBase,
+                           long orderBase, long[] planIds, long[] cohortIds, TierPricing pricing) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            long written = 0;
+            // Users first: memberships and orders reference them
+            try (PreparedStatement users = con.prepareStatement(INSERT_USER_SQL)) {
+                int pending = 0;
+                for (int user = dataset.chunkStart(chunk); user < dataset.chunkEnd(chunk); user++) {
+                    long userId = userBase + user;
+                    users.setLong(1, userId);
+                    users.setString(2, "user" + userId + "@dataset.example.com");
+                    users.setString(3, "User " + userId);
+                    users.setTimestamp(4, Timestamp.valueOf(dataset.userCreatedAt(user)));
+                    users.setLong(5, cohortIds[dataset.cohortIndex(user)]);
+                    users.addBatch();
+                    pending = flushIfFull(users, pending + 1);
+                    written++;
+                }
+                users.executeBatch();
+            }
+
+            try (PreparedStatement memberships = con.prepareStatement(INSERT_MEMBERSHIP_SQL)) {
+                int pending = 0;
+                for (int user = dataset.chunkStart(chunk); user < dataset.chunkEnd(chunk); user++) {
+                    if (!dataset.hasMembership(user)) {
+                        continue;
+                    }
+                    memberships.setLong(1, membershipBase + user);
+                    memberships.setLong(2, userBase + user);
+                    memberships.setLong(3, planIds[dataset.planIndex(user)]);
+                    memberships.setLong(4, pricing.tierId(dataset.tier(user)));
+                    memberships.setString(5, dataset.status(user).name());
+                    memberships.setTimestamp(6, Timestamp.valueOf(dataset.membershipStart(user)));
+                    memberships.setTimestamp(7, Timestamp.valueOf(dataset.membershipExpiry(user)));
+                    memberships.setTimestamp(8, Timestamp.valueOf(dataset.membershipStart(user)));
+                    memberships.addBatch();
+                    pending = flushIfFull(memberships, pending + 1);
+                    written++;
+                }
+                memberships.executeBatch();
+            }
+
+            try (PreparedStatement orders = con.prepareStatement(INSERT_ORDER_SQL)) {
+                long[] orderId = {orderBase + dataset.chunkOrderOffset(chunk)};
+                int[] pending = {0};
+                dataset.generateOrders(chunk, (user, orderDate, category, orderValue) -> {
+                    try {
+                        boolean covered = dataset.membershipCovers(user, orderDate);
+                        BigDecimal discountPercent = covered ? pricing.discount(dataset.tier(user), category) : null;
+                        orders.setLong(1, orderId[0]++);
+                        orders.setLong(2, userBase + user);
+                        orders.setBigDecimal(3, orderValue);
+                        orders.setTimestamp(4, Timestamp.valueOf(orderDate));
+                        orders.setString(5, SyntheticDataset.CATEGORIES[category]);
+                        orders.setBoolean(6, covered && pricing.freeDelivery(dataset.tier(user), category));
+                        orders.setBigDecimal(7, discountPercent);
+                        orders.setBigDecimal(8, discountPercent == null ? null : orderValue.multiply(discountPercent)
+                                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+                        orders.addBatch();
+                        pending[0] = flushIfFull(orders, pending[0] + 1);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Failed to insert order batch", e);
+                    }
+                });
+                orders.executeBatch();
+                written += dataset.chunkOrderOffset(chunk + 1) - dataset.chunkOrderOffset(chunk);
+            }
+            return written;
+        });
+    }
+
+    private int flushIfFull(PreparedStatement statement, int pending) throws SQLException {
+        if (pending < batchSize) {
+            return pending;
+        }
+        statement.executeBatch();
+        return 0;
+    }
+
+    private long nextId(String maxIdSql) {
+        Long max = jdbcTemplate.queryForObject(maxIdSql, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+
+    /**
+     * Benefit lookup per tier and category, resolved the same way BenefitCalculationService applies them
+     * and precomputed so pricing an order is two array reads.
+     */
+    private static final class TierPricing {
+
+        private final long[] tierIds = new long[TierLevel.values().length];
+        private final BigDecimal[][] discounts = new BigDecimal[TierLevel.values().length][];
+        private final boolean[][] freeDelivery = new boolean[TierLevel.values().length][];
+
+        TierPricing(List<MembershipTier> tiers, BenefitHandlerRegistry handlerRegistry) {
+            for (MembershipTier tier : tiers) {
+                TierBenefits benefits = handlerRegistry.resolveAll(tier.getBenefits());
+                int t = tier.getTierLevel().ordinal();
+                tierIds[t] = tier.getId();
+                discounts[t] = new BigDecimal[SyntheticDataset.CATEGORIES.length];
+                freeDelivery[t] = new boolean[SyntheticDataset.CATEGORIES.length];
+                for (int c = 0; c < SyntheticDataset.CATEGORIES.length; c++) {
+                    String category = SyntheticDataset.CATEGORIES[c];
+                    discounts[t][c] = benefits.matching(BenefitType.DISCOUNT, category).stream()
+                            .findFirst()
+                            .map(Benefit::<BigDecimal>typedValue)
+                            .orElse(null);
+                    freeDelivery[t][c] = benefits.matching(BenefitType.FREE_DELIVERY, category).stream()
+                            .anyMatch(b -> Boolean.TRUE.equals(b.value()));
+                }
+            }
+        }
+
+        long tierId(TierLevel tier) {
+            return tierIds[tier.ordinal()];
+        }
+
+        BigDecimal discount(TierLevel tier, int category) {
+            return discounts[tier.ordinal()][category];
+        }
+
+        boolean freeDelivery(TierLevel tier, int category) {
+            return freeDelivery[tier.ordinal()][category];
+        }
+    }
+}
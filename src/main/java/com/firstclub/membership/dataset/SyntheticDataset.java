@@ -0,0 +1,322 @@
+package com.firstclub.membership.dataset;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator for a realistic membership population.
+ *
+ * <p>Users are split into fixed-size chunks and every chunk draws from its own random stream derived
+ * from the seed, so the same seed always produces the same rows regardless of how many threads load them.
+ * User profiles (cohort, membership, order count) are generated up front in compact arrays; orders are
+ * generated per chunk while loading.
+ *
+ * <p>Orders fall in the {@code months} calendar months before the end date (exclusive).
+ *
+ * <ul>
+ *   <li>Cohorts: 70% regular, 20% premium, 10% vip</li>
+ *   <li>Membership: 65% / 85% / 95% of each cohort, on Monthly / Quarterly / Yearly plans at 50 / 30 / 20</li>
+ *   <li>Tiers skew upward with cohort; only premium and vip users reach PLATINUM</li>
+ *   <li>Orders per user are log-normal (heavy tail), categories Zipf-distributed, months weighted for
+ *       the November/December peak</li>
+ * </ul>
+ */
+public class SyntheticDataset {
+
+    public static final String[] COHORTS = {"regular", "premium", "vip"};
+    public static final String[] CATEGORIES = {"grocery", "electronics", "fashion", "home", "beauty",
+            "books", "sports", "toys", "pharmacy", "pet"};
+
+    private static final int[] COHORT_WEIGHTS = {70, 20, 10};
+    private static final int[] MEMBER_PERCENT = {65, 85, 95};
+    private static final double[] COHORT_ORDER_FACTOR = {0.8, 1.5, 2.5};
+    private static final int[][] TIER_WEIGHTS = {{85, 15, 0}, {60, 30, 10}, {40, 35, 25}};
+    private static final int[] PLAN_WEIGHTS = {50, 30, 20};
+    private static final int[] STATUS_WEIGHTS = {80, 12, 8};
+    private static final MembershipStatus[] STATUSES = {
+            MembershipStatus.ACTIVE, MembershipStatus.CANCELLED, MembershipStatus.EXPIRED};
+    private static final double[] CATEGORY_BASE_PRICE = {40, 250, 80, 120, 35, 20, 70, 45, 25, 50};
+    private static final int MAX_ORDERS_PER_USER = 2_000;
+
+    public static final int NO_MEMBERSHIP = -1;
+
+    private final long seed;
+    private final int users;
+    private final int chunkSize;
+    private final int months;
+    private final double meanOrdersPerUser;
+    private final LocalDate endDate;
+    private final int[] planMonths;
+    private final double[] categoryCdf;
+    private final LocalDate[] monthStarts;
+    private final double[] monthCdf;
+
+    // Per-user profile, indexed by position in the dataset
+    private final byte[] cohort;
+    private final byte[] plan;
+    private final byte[] tier;
+    private final byte[] status;
+    private final int[] startDayOffset;
+    private final int[] orderCount;
+    private final long[] chunkOrderOffset;
+
+    public SyntheticDataset(long seed, int users, int chunkSize, int months, double meanOrdersPerUser,
+                            LocalDate endDate, int[] planMonths) {
+        if (users <= 0 || chunkSize <= 0 || months <= 0 || planMonths.length == 0) {
+            throw new IllegalArgumentException("Dataset size, chunk size, months and plans must be positive");
+        }
+        this.seed = seed;
+        this.users = users;
+        this.chunkSize = chunkSize;
+        this.months = months;
+        this.meanOrdersPerUser = meanOrdersPerUser;
+        this.endDate = endDate;
+        this.planMonths = planMonths;
+        this.categoryCdf = zipfCdf(CATEGORIES.length, 1.0);
+
+        this.monthStarts = new LocalDate[months];
+        double[] monthWeights = new double[months];
+        LocalDate lastOrderDay = endDate.minusDays(1);
+        for (int i = 0; i < months; i++) {
+            monthStarts[i] = lastOrderDay.withDayOfMonth(1).minusMonths(months - 1 - i);
+            Month month = monthStarts[i].getMonth();
+            monthWeights[i] = month == Month.DECEMBER ? 1.6 : month == Month.NOVEMBER ? 1.4
+                    : month == Month.JANUARY ? 0.8 : 1.0;
+        }
+        this.monthCdf = cdf(monthWeights);
+
+        this.cohort = new byte[users];
+        this.plan = new byte[users];
+        this.tier = new byte[users];
+        this.status = new byte[users];
+        this.startDayOffset = new int[users];
+        this.orderCount = new int[users];
+        this.chunkOrderOffset = new long[chunkCount() + 1];
+        generateProfiles();
+    }
+
+    public int users() {
+        return users;
+    }
+
+    public int chunkCount() {
+        return (users + chunkSize - 1) / chunkSize;
+    }
+
+    public int chunkStart(int chunk) {
+        return chunk * chunkSize;
+    }
+
+    public int chunkEnd(int chunk) {
+        return Math.min(users, (chunk + 1) * chunkSize);
+    }
+
+    public long totalOrders() {
+        return chunkOrderOffset[chunkCount()];
+    }
+
+    public long members() {
+        long count = 0;
+        for (byte p : plan) {
+            if (p != NO_MEMBERSHIP) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Offset of the chunk's first order among all orders, used to assign stable order ids.
+     */
+    public long chunkOrderOffset(int chunk) {
+        return chunkOrderOffset[chunk];
+    }
+
+    public String cohort(int user) {
+        return COHORTS[cohort[user]];
+    }
+
+    /**
+     * Index of the user's cohort in {@link #COHORTS}.
+     */
+    public int cohortIndex(int user) {
+        return cohort[user];
+    }
+
+    public LocalDateTime userCreatedAt(int user) {
+        LocalDate membershipStart = hasMembership(user) ? membershipStart(user).toLocalDate() : endDate;
+        return membershipStart.minusDays(1 + (user * 7919L) % 365).atTime(9, 0);
+    }
+
+    public boolean hasMembership(int user) {
+        return plan[user] != NO_MEMBERSHIP;
+    }
+
+    public int planIndex(int user) {
+        return plan[user];
+    }
+
+    public TierLevel tier(int user) {
+        return TierLevel.values()[tier[user]];
+    }
+
+    public MembershipStatus status(int user) {
+        return STATUSES[status[user]];
+    }
+
+    public LocalDateTime membershipStart(int user) {
+        return endDate.minusDays(startDayOffset[user]).atTime(10, 0);
+    }
+
+    public LocalDateTime membershipExpiry(int user) {
+        return membershipStart(user).plusMonths(planMonths[plan[user]]);
+    }
+
+    public int orderCount(int user) {
+        return orderCount[user];
+    }
+
+    /**
+     * Generate the orders of one chunk in user order. Rows are passed to the sink as they are produced.
+     */
+    public void generateOrders(int chunk, OrderSink sink) {
+        SplittableRandom random = random(chunk, 2);
+        for (int user = chunkStart(chunk); user < chunkEnd(chunk); user++) {
+            for (int n = 0; n < orderCount[user]; n++) {
+                int monthIndex = pick(monthCdf, random.nextDouble());
+                LocalDate monthStart = monthStarts[monthIndex];
+                int days = monthIndex == months - 1 ? endDate.minusDays(1).getDayOfMonth() : monthStart.lengthOfMonth();
+                LocalDateTime orderDate = monthStart.plusDays(random.nextInt(days))
+                        .atStartOfDay().plusSeconds(random.nextInt(86_400));
+
+                int category = pick(categoryCdf, random.nextDouble());
+                double value = CATEGORY_BASE_PRICE[category] * Math.exp(0.6 * random.nextGaussian() - 0.18);
+                BigDecimal orderValue = BigDecimal.valueOf(Math.max(1.0, value)).setScale(2, RoundingMode.HALF_UP);
+
+                sink.accept(user, orderDate, category, orderValue);
+            }
+        }
+    }
+
+    /**
+     * Whether the user's membership covered the given order date, i.e. benefits applied to it.
+     */
+    public boolean membershipCovers(int user, LocalDateTime orderDate) {
+        return hasMembership(user)
+                && !orderDate.isBefore(membershipStart(user))
+                && orderDate.isBefore(membershipExpiry(user));
+    }
+
+    private void generateProfiles() {
+        double[] cohortCdf = cdf(COHORT_WEIGHTS);
+        double[] planCdf = cdf(planWeights(planMonths.length));
+        double[] statusCdf = cdf(STATUS_WEIGHTS);
+        double[][] tierCdf = new double[COHORTS.length][];
+        for (int c = 0; c < COHORTS.length; c++) {
+            tierCdf[c] = cdf(TIER_WEIGHTS[c]);
+        }
+        int windowDays = (int) (endDate.toEpochDay() - endDate.minusMonths(months).toEpochDay());
+
+        for (int chunk = 0; chunk < chunkCount(); chunk++) {
+            SplittableRandom random = random(chunk, 1);
+            long chunkOrders = 0;
+            for (int user = chunkStart(chunk); user < chunkEnd(chunk); user++) {
+                int c = pick(cohortCdf, random.nextDouble());
+                cohort[user] = (byte) c;
+
+                if (random.nextInt(100) < MEMBER_PERCENT[c]) {
+                    int p = pick(planCdf, random.nextDouble());
+                    int s = pick(statusCdf, random.nextDouble());
+                    plan[user] = (byte) p;
+                    tier[user] = (byte) pick(tierCdf[c], random.nextDouble());
+                    status[user] = (byte) s;
+                    startDayOffset[user] = startDayOffset(random, STATUSES[s], planMonths[p], windowDays);
+                } else {
+                    plan[user] = NO_MEMBERSHIP;
+                }
+
+                // Log-normal with the configured mean, scaled by how engaged the cohort is
+                double draw = meanOrdersPerUser * COHORT_ORDER_FACTOR[c] * Math.exp(random.nextGaussian() - 0.5);
+                orderCount[user] = (int) Math.min(MAX_ORDERS_PER_USER, Math.round(draw));
+                chunkOrders += orderCount[user];
+            }
+            chunkOrderOffset[chunk + 1] = chunkOrderOffset[chunk] + chunkOrders;
+        }
+    }
+
+    /**
+     * Days before the end date the membership started. Active memberships have not expired yet;
+     * expired ones ended before the end date.
+     */
+    private int startDayOffset(SplittableRandom random, MembershipStatus status, int planMonths, int windowDays) {
+        int durationDays = (int) (endDate.toEpochDay() - endDate.minusMonths(planMonths).toEpochDay());
+        int draw = random.nextInt(windowDays);
+        return switch (status) {
+            case ACTIVE -> draw % durationDays;
+            case EXPIRED -> durationDays + 1 + draw;
+            default -> draw;
+        };
+    }
+
+    private SplittableRandom random(int chunk, int stream) {
+        return new SplittableRandom(seed * 31 + chunk * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    private static int[] planWeights(int plans) {
+        int[] weights = new int[plans];
+        for (int i = 0; i < plans; i++) {
+            weights[i] = i < PLAN_WEIGHTS.length ? PLAN_WEIGHTS[i] : PLAN_WEIGHTS[PLAN_WEIGHTS.length - 1];
+        }
+        return weights;
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, exponent);
+        }
+        return cdf(weights);
+    }
+
+    private static double[] cdf(int[] weights) {
+        double[] asDouble = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            asDouble[i] = weights[i];
+        }
+        return cdf(asDouble);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] cdf = new double[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i];
+            cdf[i] = running / total;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double draw) {
+        for (int i = 0; i < cdf.length - 1; i++) {
+            if (draw < cdf[i]) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+
+    @FunctionalInterface
+    public interface OrderSink {
+        void accept(int user, LocalDateTime orderDate, int category, BigDecimal orderValue);
+    }
+}
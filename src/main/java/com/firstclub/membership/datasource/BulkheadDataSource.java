@@ -0,0 +1,148 @@
+package com.firstclub.membership.datasource;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.exception.ServiceOverloadedException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Partitions a connection pool between {@link Bulkhead}s.
+ *
+ * <p>{@code reservedForCheckout} connections are only ever used by checkout threads: every other
+ * caller, bulkhead thread or not, holds a permit of the shared partition (pool size minus the reserve)
+ * while its connection is open. Non-checkout bulkheads are further capped at their own
+ * {@code max-connections}. Checkout takes no permits, so it can use the whole pool when nothing else
+ * does. A caller that cannot get its permits within {@code acquireTimeout} gets a
+ * {@link ServiceOverloadedException}.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private static final String SHARED = "shared";
+
+    private final Semaphore shared;
+    private final Map<Bulkhead, Semaphore> partitions = new EnumMap<>(Bulkhead.class);
+    private final Duration acquireTimeout;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BulkheadDataSource(DataSource target, int poolSize, int reservedForCheckout,
+                              Map<Bulkhead, Integer> maxConnections, Duration acquireTimeout) {
+        super(target);
+        if (reservedForCheckout < 0 || reservedForCheckout >= poolSize) {
+            throw new IllegalArgumentException("Connections reserved for checkout must leave some of the "
+                    + poolSize + " in the pool for other work: " + reservedForCheckout);
+        }
+        this.shared = new Semaphore(poolSize - reservedForCheckout, true);
+        maxConnections.forEach((bulkhead, max) -> {
+            if (bulkhead != Bulkhead.CHECKOUT) {
+                partitions.put(bulkhead, new Semaphore(Math.max(1, Math.min(max, poolSize - reservedForCheckout)),
+                        true));
+            }
+        });
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return open(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return open(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * "shared" and the key of each capped bulkhead.
+     */
+    public Set<String> partitionNames() {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(SHARED);
+        partitions.keySet().forEach(bulkhead -> names.add(bulkhead.key()));
+        return names;
+    }
+
+    /**
+     * Connections of the partition not in use right now.
+     */
+    public int availableConnections(String partition) {
+        if (SHARED.equals(partition)) {
+            return shared.availablePermits();
+        }
+        return partitions.entrySet().stream()
+                .filter(entry -> entry.getKey().key().equals(partition))
+                .mapToInt(entry -> entry.getValue().availablePermits())
+                .findFirst()
+                .orElse(0);
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    private Connection open(ConnectionSource source) throws SQLException {
+        Bulkhead bulkhead = BulkheadExecutors.current();
+        if (bulkhead == Bulkhead.CHECKOUT) {
+            return source.get();
+        }
+        Semaphore partition = bulkhead != null ? partitions.get(bulkhead) : null;
+        long deadline = System.nanoTime() + acquireTimeout.toNanos();
+        acquire(partition, bulkhead, deadline);
+        try {
+            acquire(shared, bulkhead, deadline);
+        } catch (SQLException | RuntimeException e) {
+            release(partition);
+            throw e;
+        }
+        Connection target;
+        try {
+            target = source.get();
+        } catch (SQLException | RuntimeException | Error e) {
+            shared.release();
+            release(partition);
+            throw e;
+        }
+        return PermitConnections.releasingOnClose(target, () -> {
+            shared.release();
+            release(partition);
+        });
+    }
+
+    private void acquire(Semaphore permits, Bulkhead bulkhead, long deadline) throws SQLException {
+        if (permits == null) {
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                rejected.incrementAndGet();
+                throw new ServiceOverloadedException("No database connection available to "
+                        + (bulkhead != null ? "the " + bulkhead.key() + " bulkhead" : "background work")
+                        + " within " + acquireTimeout.toMillis() + " ms", Duration.ofSeconds(1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection permit", e);
+        }
+    }
+
+    private static void release(Semaphore permits) {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.firstclub.membership.datasource;
+
+/**
+ * Lookup keys for the read/write routing data source.
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
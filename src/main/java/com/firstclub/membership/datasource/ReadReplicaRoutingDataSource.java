@@ -0,0 +1,44 @@
+package com.firstclub.membership.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the read-only flag is
+ * known by the time a physical connection is requested.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryRoutes = routeCounter(meterRegistry, DataSourceRoute.PRIMARY);
+        this.replicaRoutes = routeCounter(meterRegistry, DataSourceRoute.REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReplicaStalenessGuard.isPrimaryPinned()) {
+            replicaRoutes.increment();
+            return DataSourceRoute.REPLICA;
+        }
+        primaryRoutes.increment();
+        return DataSourceRoute.PRIMARY;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, DataSourceRoute route) {
+        return Counter.builder("membership.datasource.routed")
+                .description("Connections handed out per data source route")
+                .tag("route", route.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.firstclub.membership.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes guard for replica routing.
+ * Remembers when each user last committed a write and pins that user's
+ * read-only transactions to the primary until the replica has had time to catch up.
+ */
+@Component
+@Slf4j
+public class ReplicaStalenessGuard {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final Map<Long, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long stalenessWindowNanos;
+
+    public ReplicaStalenessGuard(
+            @Value("${membership.datasource.replica.staleness-window:5s}") Duration stalenessWindow) {
+        this.stalenessWindowNanos = stalenessWindow.toNanos();
+    }
+
+    /**
+     * Record a write for the user. Inside a transaction the timestamp is taken after commit.
+     */
+    public void recordWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteNanos.put(userId, System.nanoTime());
+                }
+            });
+        } else {
+            lastWriteNanos.put(userId, System.nanoTime());
+        }
+    }
+
+    /**
+     * Pin the current transaction to the primary if the user wrote within the staleness window.
+     * Must be called before the transaction issues its first statement. Outside a transaction
+     * nothing is pinned: such reads are not routed to the replica anyway, and there would be no
+     * completion to clear the pin at, leaving it on the pooled thread for unrelated requests.
+     */
+    public void pinIfRecentlyWritten(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || !wroteRecently(userId)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_PINNED.remove();
+            }
+        });
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        log.debug("Pinning reads for user {} to primary", userId);
+    }
+
+    public boolean wroteRecently(Long userId) {
+        Long writtenAt = lastWriteNanos.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt < stalenessWindowNanos;
+    }
+
+    static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    /**
+     * Drop entries older than the staleness window so the map stays bounded by recent writers.
+     */
+    @Scheduled(fixedDelay = 30_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= stalenessWindowNanos);
+    }
+}
@@ -1,17 +1,22 @@
 package com.firstclub.membership.dto;
 
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.QuotaPeriod;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BenefitResponse {
-    private String benefitType;
+    private BenefitType benefitType;
     private String benefitValue;
     private String description;
     private String applicableCategory;
+    private BigDecimal quotaLimit;
+    private QuotaPeriod quotaPeriod;
 }
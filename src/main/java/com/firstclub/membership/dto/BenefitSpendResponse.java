@@ -0,0 +1,18 @@
+package com.firstclub.membership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BenefitSpendResponse {
+    private String category;
+    private long orders;
+    private BigDecimal discountAmount;
+    private long freeDeliveries;
+}
@@ -0,0 +1,38 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.TierLevel;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CampaignRequest {
+
+    @NotBlank(message = "Campaign name is required")
+    private String name;
+
+    @NotNull(message = "Tier level is required")
+    private TierLevel tierLevel;
+
+    @NotNull(message = "Benefit type is required")
+    private BenefitType benefitType;
+
+    @NotBlank(message = "Benefit value is required")
+    private String benefitValue;
+
+    private String applicableCategory;
+
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startsAt;
+
+    @NotNull(message = "End time is required")
+    private LocalDateTime endsAt;
+}
@@ -0,0 +1,25 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CampaignResponse {
+    private Long id;
+    private String name;
+    private TierLevel tierLevel;
+    private BenefitType benefitType;
+    private String benefitValue;
+    private String applicableCategory;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private boolean running;
+}
@@ -0,0 +1,17 @@
+package com.firstclub.membership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CohortResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private Long users;
+}
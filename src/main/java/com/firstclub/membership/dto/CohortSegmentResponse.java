@@ -0,0 +1,21 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CohortSegmentResponse {
+    private String cohort;
+    private List<TierLevel> tiers;
+    private MembershipStatus status;
+    private long count;
+    private List<Long> userIds; // First ids of the segment in ascending order, up to the requested limit
+}
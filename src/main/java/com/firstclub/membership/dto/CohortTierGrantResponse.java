@@ -0,0 +1,19 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CohortTierGrantResponse {
+    private String cohort;
+    private TierLevel tierLevel;
+    private long candidates; // Active members below the tier according to the cohort index
+    private long upgraded;   // Rows actually updated after re-checking status, expiry and tier
+    private long elapsedMs;
+}
@@ -2,6 +2,7 @@ package com.firstclub.membership.dto;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,4 +23,7 @@ public class CreateOrderRequest {
     private BigDecimal orderValue;
 
     private String category;
+
+    @PositiveOrZero(message = "Points to redeem cannot be negative")
+    private Long redeemPoints;
 }
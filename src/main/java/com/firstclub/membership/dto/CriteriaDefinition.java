@@ -0,0 +1,39 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.entity.TierUpgradeCriteria;
+import com.firstclub.membership.enums.TierLevel;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CriteriaDefinition {
+
+    @NotNull(message = "Target tier is required")
+    private TierLevel targetTier;
+
+    @PositiveOrZero(message = "Minimum order count must not be negative")
+    private Integer minOrderCount;
+
+    @PositiveOrZero(message = "Minimum monthly order value must not be negative")
+    private BigDecimal minMonthlyOrderValue;
+
+    private String eligibleCohort; // Comma-separated cohorts, null means any
+
+    public TierUpgradeCriteria toCriteria() {
+        return TierUpgradeCriteria.builder()
+                .targetTier(targetTier)
+                .minOrderCount(minOrderCount)
+                .minMonthlyOrderValue(minMonthlyOrderValue)
+                .eligibleCohort(eligibleCohort)
+                .active(true)
+                .build();
+    }
+}
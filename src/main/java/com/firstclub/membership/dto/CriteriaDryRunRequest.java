@@ -0,0 +1,25 @@
+package com.firstclub.membership.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CriteriaDryRunRequest {
+
+    @NotEmpty(message = "At least one criteria is required")
+    private List<@Valid CriteriaDefinition> criteria;
+
+    @PositiveOrZero(message = "Sample size must not be negative")
+    @Max(value = 100, message = "Sample size must be at most 100")
+    private Integer sampleSize; // User ids returned per transition, default 10
+}
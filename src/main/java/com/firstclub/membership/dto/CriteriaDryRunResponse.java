@@ -0,0 +1,35 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CriteriaDryRunResponse {
+    private String month;
+    private long evaluatedMembers;
+    private long unchanged;                     // Includes members below criteria, who keep their tier
+    private Map<TierLevel, Long> upgrades;      // Members who would move up, by new tier
+    private Map<TierLevel, Long> belowCriteria; // Members who would no longer qualify for their tier, by current tier
+    private List<Transition> transitions;       // Upgrades only
+    private long loadMs;
+    private long evaluationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Transition {
+        private TierLevel from;
+        private TierLevel to;
+        private long count;
+        private List<Long> sampleUserIds;
+    }
+}
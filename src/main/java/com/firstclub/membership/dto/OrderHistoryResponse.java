@@ -0,0 +1,18 @@
+package com.firstclub.membership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHistoryResponse {
+    private Long userId;
+    private List<OrderResponse> orders;
+    private String nextCursor; // Opaque; pass back as ?cursor= to fetch the next page
+    private boolean hasMore;
+}
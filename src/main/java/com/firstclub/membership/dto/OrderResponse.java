@@ -20,5 +20,8 @@ public class OrderResponse {
     private Boolean freeDeliveryApplied;
     private BigDecimal discountPercentage;
     private BigDecimal discountAmount;
+    private Long pointsEarned;
+    private Long pointsRedeemed;
+    private BigDecimal pointsRedemptionAmount;
     private BigDecimal finalAmount;
 }
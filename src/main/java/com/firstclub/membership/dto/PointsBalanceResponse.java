@@ -0,0 +1,17 @@
+package com.firstclub.membership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsBalanceResponse {
+    private Long userId;
+    private Long balance;
+    private BigDecimal redeemableValue;
+}
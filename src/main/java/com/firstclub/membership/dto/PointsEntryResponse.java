@@ -0,0 +1,20 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.PointsEntryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsEntryResponse {
+    private Long entryId;
+    private Long orderId;
+    private PointsEntryType entryType;
+    private Long points;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TierChangeResponse {
+    private Long changeId;
+    private Long userId;
+    private TierLevel previousTier;
+    private MembershipStatus previousStatus;
+    private TierLevel tier;
+    private MembershipStatus status;
+    private TierChangeCause cause;
+    private Long criteriaVersion;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,39 @@
+package com.firstclub.membership.dto;
+
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TierProgressResponse {
+    private Long userId;
+    private TierLevel currentTier;
+    private String cohort;
+    private String month;
+    private long orderCount;
+    private BigDecimal orderValue;
+    private List<TierTarget> higherTiers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TierTarget {
+        private TierLevel targetTier;
+        private Integer minOrderCount;
+        private long ordersRemaining;
+        private BigDecimal minMonthlyOrderValue;
+        private BigDecimal valueRemaining;
+        private Set<String> eligibleCohorts; // Null means any cohort
+        private boolean cohortEligible;
+        private boolean qualified;
+    }
+}
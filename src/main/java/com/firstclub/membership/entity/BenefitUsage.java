@@ -0,0 +1,36 @@
+package com.firstclub.membership.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Quota consumed by a user for one capped benefit in one period. Written in batches by
+ * {@code BenefitQuotaTracker}; {@code used} is in the benefit's quota unit (uses, or discount cents).
+ */
+@Entity
+@Table(name = "benefit_usage", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_benefit_usage_period", columnNames = {"user_id", "benefit_id", "period_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BenefitUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "benefit_id", nullable = false)
+    private Long benefitId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Long used;
+}
@@ -0,0 +1,50 @@
+package com.firstclub.membership.entity;
+
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.TierLevel;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A promotional benefit for one tier, active from {@code startsAt} (inclusive) to {@code endsAt}
+ * (exclusive), on top of the tier's own benefits.
+ */
+@Entity
+@Table(name = "campaigns", indexes = {
+        // Startup loads only campaigns that have not ended yet
+        @Index(name = "idx_campaigns_ends_at", columnList = "ends_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Campaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TierLevel tierLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BenefitType benefitType;
+
+    @Column(nullable = false)
+    private String benefitValue; // parsed by the type's BenefitHandler; a DISCOUNT adds to the tier's discount
+
+    @Column
+    private String applicableCategory; // category path, null means all categories
+
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    @Column(name = "ends_at", nullable = false)
+    private LocalDateTime endsAt;
+}
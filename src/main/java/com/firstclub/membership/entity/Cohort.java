@@ -0,0 +1,23 @@
+package com.firstclub.membership.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "cohorts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Cohort {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String name; // Trimmed and lower-cased, see CohortService.normalize
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+}
@@ -0,0 +1,39 @@
+package com.firstclub.membership.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * An item a background writer gave up on, kept with the error for inspection. Written by
+ * {@code DeadLetterStore}; orders are replayed by {@code OrderDeadLetterReplay}.
+ */
+@Entity
+@Table(name = "dead_letters", indexes = {
+        @Index(name = "idx_dead_letters_source", columnList = "source, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String source;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload; // JSON
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
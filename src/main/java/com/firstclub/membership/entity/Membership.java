@@ -2,12 +2,20 @@ package com.firstclub.membership.entity;
 
 import com.firstclub.membership.enums.MembershipStatus;
 import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.persistence.EntityTimestampListener;
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.Clock;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "memberships")
+@Table(name = "memberships", indexes = {
+        // Warm restarts reload only the memberships changed since the state snapshot was written
+        @Index(name = "idx_memberships_last_modified", columnList = "last_modified"),
+        // The expiry sweep finds active memberships past their expiry date
+        @Index(name = "idx_memberships_status_expiry", columnList = "status, expiry_date")
+})
+@EntityListeners(EntityTimestampListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,21 +55,8 @@ public class Membership {
     @Version
     private Long version; // For optimistic locking to handle concurrency
 
-    @PrePersist
-    protected void onCreate() {
-        lastModified = LocalDateTime.now();
-        if (startDate == null) {
-            startDate = LocalDateTime.now();
-        }
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        lastModified = LocalDateTime.now();
-    }
-
-    public boolean isActive() {
-        return status == MembershipStatus.ACTIVE && LocalDateTime.now().isBefore(expiryDate);
+    public boolean isActive(Clock clock) {
+        return status == MembershipStatus.ACTIVE && LocalDateTime.now(clock).isBefore(expiryDate);
     }
 
     public boolean canUpgradeTo(TierLevel newTier) {
@@ -1,12 +1,19 @@
 package com.firstclub.membership.entity;
 
+import com.firstclub.membership.persistence.EntityTimestampListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Covering index for keyset-paginated order history and monthly aggregates
+        @Index(name = "idx_orders_user_history", columnList = "user_id, order_date DESC, id DESC, category, "
+                + "order_value, discount_amount, discount_percentage, free_delivery_applied, points_earned, "
+                + "points_redeemed, points_redemption_amount")
+})
+@EntityListeners(EntityTimestampListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,8 +21,9 @@ import java.time.LocalDateTime;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_seq")
+    @SequenceGenerator(name = "order_id_seq", sequenceName = "order_id_seq", allocationSize = 50)
+    private Long id; // Sequence-backed so write-behind mode can pre-allocate ids
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -32,6 +40,7 @@ public class Order {
     private String category;
 
     @Column(nullable = false)
+    @Builder.Default
     private Boolean freeDeliveryApplied = false;
 
     @Column(precision = 5, scale = 2)
@@ -40,10 +49,12 @@ public class Order {
     @Column(precision = 10, scale = 2)
     private BigDecimal discountAmount;
 
-    @PrePersist
-    protected void onCreate() {
-        if (orderDate == null) {
-            orderDate = LocalDateTime.now();
-        }
-    }
+    @Column
+    private Long pointsEarned;
+
+    @Column
+    private Long pointsRedeemed;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal pointsRedemptionAmount;
 }
@@ -0,0 +1,41 @@
+package com.firstclub.membership.entity;
+
+import com.firstclub.membership.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A change to deliver to downstream systems, written in the same transaction as the change itself by
+ * {@code OutboxWriter} and delivered in id order by {@code OutboxRelay}. Ids are assigned by the writer.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Delivered events are purged after the retention period
+        @Index(name = "idx_outbox_events_published_at", columnList = "published_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private OutboxEventType eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload; // JSON
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,27 @@
+package com.firstclub.membership.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * The single row naming the instance that writes and relays outbox events, renewed while it runs.
+ * Claimed and renewed by {@code OutboxOwnership}.
+ */
+@Entity
+@Table(name = "outbox_owner")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxOwner {
+
+    @Id
+    private Integer id; // Always 1
+
+    @Column(nullable = false, length = 200)
+    private String instance;
+
+    @Column(name = "renewed_at", nullable = false)
+    private LocalDateTime renewedAt;
+}
@@ -0,0 +1,27 @@
+package com.firstclub.membership.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Compacted points balance of a user: the sum of their ledger entries up to {@code throughEntryId}.
+ * The current balance is this plus the user's ledger entries after the latest compaction.
+ */
+@Entity
+@Table(name = "points_balance")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long balance;
+
+    @Column(name = "through_entry_id", nullable = false)
+    private Long throughEntryId;
+}
@@ -0,0 +1,42 @@
+package com.firstclub.membership.entity;
+
+import com.firstclub.membership.enums.PointsEntryType;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One append-only movement of a user's loyalty points: positive when earned, negative when redeemed.
+ * Written in batches by {@code PointsLedger} and never updated.
+ */
+@Entity
+@Table(name = "points_ledger", indexes = {
+        // Per-user history, newest first
+        @Index(name = "idx_points_ledger_user", columnList = "user_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private PointsEntryType entryType;
+
+    @Column(nullable = false)
+    private Long points;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
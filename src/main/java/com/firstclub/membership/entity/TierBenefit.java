@@ -1,7 +1,10 @@
 package com.firstclub.membership.entity;
 
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.QuotaPeriod;
 import jakarta.persistence.*;
 import lombok.*;
+import java.math.BigDecimal;
 
 @Entity
 @Table(name = "tier_benefits")
@@ -21,15 +24,23 @@ public class TierBenefit {
     @EqualsAndHashCode.Exclude
     private MembershipTier tier;
 
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private String benefitType; // e.g., "DISCOUNT", "FREE_DELIVERY", "PRIORITY_SUPPORT"
+    private BenefitType benefitType;
 
     @Column(nullable = false)
-    private String benefitValue; // e.g., "10", "true", "24h"
+    private String benefitValue; // parsed by the type's BenefitHandler, e.g. "10" (percent) or "true"
 
     @Column(columnDefinition = "TEXT")
     private String description;
 
     @Column
     private String applicableCategory; // null means all categories
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal quotaLimit; // uses (FREE_DELIVERY) or discount amount (DISCOUNT) per period; null means unlimited
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private QuotaPeriod quotaPeriod;
 }
@@ -0,0 +1,57 @@
+package com.firstclub.membership.entity;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One tier or status transition of a membership. Appended by {@code TierHistoryRecorder} in the transaction
+ * that makes the change and never updated, so the row in effect at an instant gives the tier at that instant.
+ */
+@Entity
+@Table(name = "tier_change_history", indexes = {
+        // Point-in-time lookups: latest change of a user at or before an instant
+        @Index(name = "idx_tier_change_history_user_time", columnList = "user_id, changed_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TierChangeHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_tier")
+    private TierLevel previousTier;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private MembershipStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TierLevel tier;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MembershipStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TierChangeCause cause;
+
+    @Column(name = "criteria_version")
+    private Long criteriaVersion; // Fingerprint of the upgrade criteria in effect
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -1,11 +1,14 @@
 package com.firstclub.membership.entity;
 
+import com.firstclub.membership.persistence.EntityTimestampListener;
+import com.firstclub.membership.persistence.UserCohortListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@EntityListeners({EntityTimestampListener.class, UserCohortListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,14 +28,10 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @Column(name = "cohort")
-    private String cohort; // For tier evaluation based on user cohort
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "cohort_id")
+    private Cohort cohort; // For tier evaluation based on user cohort
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Membership membership;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-    }
 }
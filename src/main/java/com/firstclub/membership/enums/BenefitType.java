@@ -0,0 +1,8 @@
+package com.firstclub.membership.enums;
+
+public enum BenefitType {
+    DISCOUNT,
+    FREE_DELIVERY,
+    PRIORITY_SUPPORT,
+    EARLY_ACCESS
+}
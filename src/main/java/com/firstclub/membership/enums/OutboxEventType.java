@@ -0,0 +1,10 @@
+package com.firstclub.membership.enums;
+
+public enum OutboxEventType {
+    MEMBERSHIP_SUBSCRIBED,
+    MEMBERSHIP_TIER_CHANGED,
+    MEMBERSHIP_CANCELLED,
+    MEMBERSHIP_EXPIRED,
+    MEMBERSHIP_UPDATED,
+    ORDER_CREATED
+}
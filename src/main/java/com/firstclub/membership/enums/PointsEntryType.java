@@ -0,0 +1,6 @@
+package com.firstclub.membership.enums;
+
+public enum PointsEntryType {
+    EARN,
+    REDEEM
+}
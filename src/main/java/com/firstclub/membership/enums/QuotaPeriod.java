@@ -0,0 +1,22 @@
+package com.firstclub.membership.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum QuotaPeriod {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * First day of the period containing {@code date}; weeks start on Monday.
+     */
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAILY -> date;
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+        };
+    }
+}
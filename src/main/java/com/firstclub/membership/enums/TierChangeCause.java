@@ -0,0 +1,14 @@
+package com.firstclub.membership.enums;
+
+/**
+ * Why a membership's tier or status changed, as recorded in the tier change history.
+ */
+public enum TierChangeCause {
+    SUBSCRIPTION,
+    RENEWAL,
+    MANUAL,
+    AUTO_EVALUATED,
+    COHORT_GRANT,
+    CANCELLATION,
+    EXPIRY
+}
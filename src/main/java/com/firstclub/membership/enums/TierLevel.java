@@ -1,20 +1,29 @@
 package com.firstclub.membership.enums;
 
 public enum TierLevel {
-    SILVER(1),
-    GOLD(2),
-    PLATINUM(3);
+    SILVER(1, 1),
+    GOLD(2, 2),
+    PLATINUM(3, 3);
 
     private final int level;
+    private final int pointsPerUnit;
 
-    TierLevel(int level) {
+    TierLevel(int level, int pointsPerUnit) {
         this.level = level;
+        this.pointsPerUnit = pointsPerUnit;
     }
 
     public int getLevel() {
         return level;
     }
 
+    /**
+     * Loyalty points earned per whole currency unit paid.
+     */
+    public int getPointsPerUnit() {
+        return pointsPerUnit;
+    }
+
     public boolean isHigherThan(TierLevel other) {
         return this.level > other.level;
     }
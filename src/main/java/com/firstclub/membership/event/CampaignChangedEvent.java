@@ -0,0 +1,18 @@
+package com.firstclub.membership.event;
+
+import com.firstclub.membership.entity.Campaign;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a campaign is created or deleted; {@code campaign} is null after a delete.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CampaignChangedEvent {
+
+    private final Long campaignId;
+    private final Campaign campaign;
+}
@@ -0,0 +1,30 @@
+package com.firstclub.membership.event;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a membership's tier or status changes.
+ * The previous tier and status are null for a new subscription; the expiry date is the membership's current one.
+ * The criteria version is the fingerprint of the upgrade criteria that decided an auto-evaluated change,
+ * null for any other cause.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class MembershipChangedEvent {
+
+    private final Long userId;
+    private final TierLevel previousTier;
+    private final MembershipStatus previousStatus;
+    private final TierLevel newTier;
+    private final MembershipStatus newStatus;
+    private final LocalDateTime expiryDate;
+    private final TierChangeCause cause;
+    private final Long criteriaVersion;
+}
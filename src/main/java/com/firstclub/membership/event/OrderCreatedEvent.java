@@ -0,0 +1,24 @@
+package com.firstclub.membership.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published once an order has been priced and accepted.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderCreatedEvent {
+
+    private final Long orderId;
+    private final Long userId;
+    private final String category;
+    private final LocalDateTime orderDate;
+    private final BigDecimal orderValue;
+    private final BigDecimal discountAmount;
+    private final boolean freeDeliveryApplied;
+}
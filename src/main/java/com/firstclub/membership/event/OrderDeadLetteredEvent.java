@@ -0,0 +1,25 @@
+package com.firstclub.membership.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published once an acknowledged order that the write-behind buffer could not write has been saved to
+ * {@code dead_letters}. Carries the same order as its {@link OrderCreatedEvent}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderDeadLetteredEvent {
+
+    private final Long orderId;
+    private final Long userId;
+    private final String category;
+    private final LocalDateTime orderDate;
+    private final BigDecimal orderValue;
+    private final BigDecimal discountAmount;
+    private final boolean freeDeliveryApplied;
+}
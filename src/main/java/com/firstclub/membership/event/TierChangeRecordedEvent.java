@@ -0,0 +1,29 @@
+package com.firstclub.membership.event;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Published after a transaction that changed a membership commits, once per change, with the id of its
+ * {@code tier_change_history} row.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class TierChangeRecordedEvent {
+
+    private final Long changeId;
+    private final Long userId;
+    private final TierLevel previousTier;
+    private final MembershipStatus previousStatus;
+    private final TierLevel tier;
+    private final MembershipStatus status;
+    private final TierChangeCause cause;
+    private final Long criteriaVersion;
+    private final LocalDateTime changedAt;
+}
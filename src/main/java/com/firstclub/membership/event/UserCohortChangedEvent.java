@@ -0,0 +1,17 @@
+package com.firstclub.membership.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a user is saved, with the cohort they are now in (null for none).
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserCohortChangedEvent {
+
+    private final Long userId;
+    private final Long cohortId;
+}
@@ -0,0 +1,21 @@
+package com.firstclub.membership.exception;
+
+import lombok.Getter;
+import java.time.Duration;
+
+/**
+ * Thrown when a bounded resource (buffer, executor, permit pool) is saturated.
+ * Mapped to 503 with a Retry-After hint.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
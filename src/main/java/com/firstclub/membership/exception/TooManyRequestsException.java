@@ -0,0 +1,21 @@
+package com.firstclub.membership.exception;
+
+import lombok.Getter;
+import java.time.Duration;
+
+/**
+ * Thrown when a caller has used up its request allowance for an endpoint.
+ * Mapped to 429 with a Retry-After hint.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
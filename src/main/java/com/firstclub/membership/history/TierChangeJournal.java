@@ -0,0 +1,249 @@
+package com.firstclub.membership.history;
+
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of tier changes in fixed-size, memory-mapped segment files.
+ *
+ * <p>An append is a handful of stores into the mapped segment; the OS writes the pages back, and
+ * {@link #force()} flushes them on demand. {@link #takeUnforced()} hands out the records appended since it
+ * was last called, so they can be flushed without holding up appends. A full segment is forced and the next
+ * one is created, named after its first sequence number. Change times are local times in the zone the journal
+ * is opened with, stored as the instant they denote. Layout (little-endian): a 64-byte header, then 48-byte
+ * records:
+ * <pre>
+ *  header: 0 int magic "TCHJ", 4 int format version, 8 int record size (48), 16 long first sequence
+ *  record: 0 long sequence      24 byte previous tier (-1 none)   28 byte cause
+ *          8 long user id       25 byte previous status (-1 none) 32 long criteria version (-1 none)
+ *         16 long changed at,   26 byte tier                      40 int  reserved
+ *            UTC epoch millis   27 byte status                    44 int  CRC32 of bytes 0..43
+ * </pre>
+ * On open the last segment is scanned up to the first record that is torn or out of sequence, and appends
+ * continue from there. Not thread-safe; the caller serializes every call, except {@link Unforced#force()}.
+ */
+public final class TierChangeJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x54434A48;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 48;
+    private static final int CRC_OFFSET = 44;
+    private static final String SEGMENT_PREFIX = "tier-history-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final ZoneId zone;
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer segment;
+    private long firstSequence;
+    private int slot;
+    // Records of the current segment before this slot have been handed out by takeUnforced or forced
+    private int forcedSlot;
+
+    /**
+     * Appended records not yet flushed, as a byte range of the segment they were appended to.
+     */
+    public static final class Unforced {
+
+        private final MappedByteBuffer segment;
+        private final int offset;
+        private final int length;
+
+        private Unforced(MappedByteBuffer segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Write the records to the storage device. Safe while appends continue: they store past the range.
+         */
+        public void force() {
+            if (length > 0) {
+                segment.force(offset, length);
+            }
+        }
+    }
+
+    private TierChangeJournal(Path directory, int recordsPerSegment, ZoneId zone) {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.zone = zone;
+    }
+
+    /**
+     * Open the journal in {@code directory}, creating it if needed, and recover the append position.
+     *
+     * @param zone the zone of the change times passed to {@link #append}
+     */
+    public static TierChangeJournal open(Path directory, long segmentBytes, ZoneId zone) throws IOException {
+        long records = (segmentBytes - HEADER_BYTES) / RECORD_BYTES;
+        if (records < 1 || HEADER_BYTES + records * RECORD_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must hold 1 to 44M records: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        TierChangeJournal journal = new TierChangeJournal(directory, (int) records, zone);
+        Path last = journal.lastSegment();
+        if (last == null) {
+            journal.createSegment(1);
+        } else {
+            journal.recover(last);
+        }
+        return journal;
+    }
+
+    /**
+     * Sequence number the next record will get.
+     */
+    public long nextSequence() {
+        return firstSequence + slot;
+    }
+
+    /**
+     * Append one change and return its sequence number.
+     */
+    public long append(long userId, TierLevel previousTier, MembershipStatus previousStatus, TierLevel tier,
+                       MembershipStatus status, TierChangeCause cause, Long criteriaVersion,
+                       LocalDateTime changedAt) throws IOException {
+        if (slot == recordsPerSegment) {
+            segment.force();
+            createSegment(nextSequence());
+        }
+        long sequence = nextSequence();
+        int offset = HEADER_BYTES + slot * RECORD_BYTES;
+        segment.putLong(offset, sequence);
+        segment.putLong(offset + 8, userId);
+        segment.putLong(offset + 16, changedAt.atZone(zone).toInstant().toEpochMilli());
+        segment.put(offset + 24, ordinal(previousTier));
+        segment.put(offset + 25, ordinal(previousStatus));
+        segment.put(offset + 26, ordinal(tier));
+        segment.put(offset + 27, ordinal(status));
+        segment.put(offset + 28, ordinal(cause));
+        segment.put(offset + 29, (byte) 0);
+        segment.putShort(offset + 30, (short) 0);
+        segment.putLong(offset + 32, criteriaVersion != null ? criteriaVersion : -1);
+        segment.putInt(offset + 40, 0);
+        segment.putInt(offset + CRC_OFFSET, checksum(offset));
+        slot++;
+        return sequence;
+    }
+
+    /**
+     * The records appended to the current segment since the last call. A full segment is forced before the
+     * next one is created, so earlier segments have nothing left to flush.
+     */
+    public Unforced takeUnforced() {
+        Unforced unforced = new Unforced(segment, HEADER_BYTES + forcedSlot * RECORD_BYTES,
+                (slot - forcedSlot) * RECORD_BYTES);
+        forcedSlot = slot;
+        return unforced;
+    }
+
+    /**
+     * Write the appended records of the current segment to the storage device.
+     */
+    public void force() {
+        segment.force();
+        forcedSlot = slot;
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void recover(Path path) throws IOException {
+        segment = map(path, false);
+        if (segment.getInt(0) != MAGIC || segment.getInt(4) != FORMAT_VERSION
+                || segment.getInt(8) != RECORD_BYTES || segment.getLong(16) < 1) {
+            throw new IOException("Not a tier change journal segment of this format: " + path);
+        }
+        firstSequence = segment.getLong(16);
+        slot = 0;
+        while (slot < recordsPerSegment) {
+            int offset = HEADER_BYTES + slot * RECORD_BYTES;
+            if (segment.getLong(offset) != firstSequence + slot
+                    || segment.getInt(offset + CRC_OFFSET) != checksum(offset)) {
+                break;
+            }
+            slot++;
+        }
+        // Pages can reach the disk out of order, so a record past a torn one may be intact; clear them all
+        // so a later recovery cannot resume past records that are about to be overwritten
+        for (int rest = slot; rest < recordsPerSegment; rest++) {
+            int offset = HEADER_BYTES + rest * RECORD_BYTES;
+            if (segment.getLong(offset) != 0 || segment.getInt(offset + CRC_OFFSET) != 0) {
+                for (int i = 0; i < RECORD_BYTES; i += 8) {
+                    segment.putLong(offset + i, 0);
+                }
+            }
+        }
+        // Later flushes only cover appended ranges, so the cleared tail is flushed here
+        segment.force();
+        forcedSlot = slot;
+    }
+
+    private void createSegment(long first) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, first, SEGMENT_SUFFIX));
+        segment = map(path, true);
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, FORMAT_VERSION);
+        segment.putInt(8, RECORD_BYTES);
+        segment.putLong(16, first);
+        segment.force();
+        firstSequence = first;
+        slot = 0;
+        forcedSlot = 0;
+    }
+
+    private MappedByteBuffer map(Path path, boolean create) throws IOException {
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = HEADER_BYTES + (long) recordsPerSegment * RECORD_BYTES;
+            if (!create && channel.size() != size) {
+                throw new IOException("Journal segment " + path + " has " + channel.size() + " bytes, expected " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+            return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        }
+    }
+
+    private int checksum(int offset) {
+        crc.reset();
+        crc.update(segment.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return (byte) (value != null ? value.ordinal() : -1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.firstclub.membership.history;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gives every membership without tier change history, such as one created before history was recorded or
+ * bulk-loaded by {@code DatasetLoader}, a SUBSCRIPTION row so that point-in-time lookups find it.
+ *
+ * <p>Earlier transitions are unknown, so the row carries the membership's current tier and status from its
+ * start date, with no criteria version. Seeded rows are not journaled or published as changes. Runs after the
+ * data loaders, in id ranges of {@code membership.history.backfill.chunk-size} memberships, one transaction
+ * each; a membership whose history commits meanwhile is skipped.
+ */
+@Component
+@Order(3)
+@Slf4j
+public class TierHistoryBackfill implements ApplicationRunner {
+
+    private static final String SEED_SQL = "INSERT INTO tier_change_history (user_id, previous_tier, "
+            + "previous_status, tier, status, cause, criteria_version, changed_at) "
+            + "SELECT m.user_id, NULL, NULL, t.tier_level, m.status, 'SUBSCRIPTION', NULL, m.start_date "
+            + "FROM memberships m JOIN membership_tiers t ON t.id = m.tier_id "
+            + "WHERE m.id BETWEEN ? AND ? "
+            + "AND NOT EXISTS (SELECT 1 FROM tier_change_history h WHERE h.user_id = m.user_id)";
+    private static final String ID_RANGE_SQL = "SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), -1) FROM memberships";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public TierHistoryBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               @Value("${membership.history.backfill.chunk-size:10000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Backfill chunk size must be positive: " + chunkSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        BulkheadExecutors.runAs(Bulkhead.ADMIN, this::backfill);
+    }
+
+    private void backfill() {
+        long[] range = jdbcTemplate.queryForObject(ID_RANGE_SQL,
+                (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        long seeded = 0;
+        for (long from = range[0]; from <= range[1]; from += chunkSize) {
+            long first = from;
+            long last = Math.min(range[1], from + chunkSize - 1);
+            Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.update(SEED_SQL, first, last));
+            seeded += inserted != null ? inserted : 0;
+        }
+        if (seeded > 0) {
+            log.info("Seeded tier change history for {} memberships that had none", seeded);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.firstclub.membership.history;
+
+import com.firstclub.membership.criteria.CriteriaSnapshotCache;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import com.firstclub.membership.event.TierChangeRecordedEvent;
+import com.firstclub.membership.persistence.TransactionBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records every tier and status transition, with its cause and the criteria version in effect, in
+ * {@code tier_change_history} and in the memory-mapped {@link TierChangeJournal}.
+ *
+ * <p>Listens synchronously to {@link MembershipChangedEvent}, so history rows are part of the transaction
+ * that makes the change; the rows of one transaction are inserted in one batch just before it commits.
+ * Committed changes are then appended to the journal, so it only ever holds changes that happened, and
+ * published as {@link TierChangeRecordedEvent}s carrying their history ids.
+ * Changes without a criteria version of their own record the version of the cached criteria.
+ */
+@Component
+@Slf4j
+public class TierHistoryRecorder {
+
+    private static final String INSERT_SQL = "INSERT INTO tier_change_history (user_id, previous_tier, "
+            + "previous_status, tier, status, cause, criteria_version, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CriteriaSnapshotCache criteriaCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final TierChangeJournal journal;
+    private final TransactionBuffer<Change, List<Long>> transactionChanges =
+            new TransactionBuffer<>(this::insert, this::committed, changes -> { });
+    // Serializes journal appends and hands out their unforced range, which is flushed outside it; a virtual
+    // thread blocked on a monitor would pin its carrier
+    private final Lock journalLock = new ReentrantLock();
+    private final Counter journalFailures;
+
+    private record Change(long userId, TierLevel previousTier, MembershipStatus previousStatus, TierLevel tier,
+                          MembershipStatus status, TierChangeCause cause, Long criteriaVersion,
+                          LocalDateTime changedAt) {
+    }
+
+    public TierHistoryRecorder(JdbcTemplate jdbcTemplate, CriteriaSnapshotCache criteriaCache,
+                               ApplicationEventPublisher eventPublisher, Clock clock,
+                               @Value("${membership.history.journal.enabled:true}") boolean journalEnabled,
+                               @Value("${membership.history.journal.path:data/tier-history}") Path journalPath,
+                               @Value("${membership.history.journal.segment-size:64MB}") DataSize segmentSize,
+                               MeterRegistry meterRegistry) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.criteriaCache = criteriaCache;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.journal = journalEnabled
+                ? TierChangeJournal.open(journalPath, segmentSize.toBytes(), clock.getZone())
+                : null;
+        this.journalFailures = meterRegistry.counter("membership.history.journal.failures");
+        if (journal != null) {
+            log.info("Tier change journal in {} continues at sequence {}", journalPath, journal.nextSequence());
+        }
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        Long criteriaVersion = event.getCriteriaVersion() != null
+                ? event.getCriteriaVersion() : criteriaCache.get().version();
+        transactionChanges.add(List.of(new Change(event.getUserId(), event.getPreviousTier(),
+                event.getPreviousStatus(), event.getNewTier(), event.getNewStatus(), event.getCause(),
+                criteriaVersion, LocalDateTime.now(clock))));
+    }
+
+    /**
+     * Flush journal pages appended since the last force to the storage device.
+     */
+    @Scheduled(fixedDelayString = "${membership.history.journal.force-interval:1000}",
+            initialDelayString = "${membership.history.journal.force-interval:1000}")
+    public void forceJournal() {
+        if (journal == null) {
+            return;
+        }
+        TierChangeJournal.Unforced unforced;
+        journalLock.lock();
+        try {
+            unforced = journal.takeUnforced();
+        } finally {
+            journalLock.unlock();
+        }
+        unforced.force();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal == null) {
+            return;
+        }
+        journalLock.lock();
+        try {
+            journal.close();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Insert the changes in one batch and return their generated ids, in order.
+     */
+    private List<Long> insert(List<Change> changes) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Change change = changes.get(i);
+                        ps.setLong(1, change.userId());
+                        ps.setString(2, name(change.previousTier()));
+                        ps.setString(3, name(change.previousStatus()));
+                        ps.setString(4, change.tier().name());
+                        ps.setString(5, change.status().name());
+                        ps.setString(6, change.cause().name());
+                        ps.setObject(7, change.criteriaVersion());
+                        ps.setTimestamp(8, Timestamp.valueOf(change.changedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return changes.size();
+                    }
+                }, keys);
+        return keys.getKeyList().stream()
+                .map(row -> ((Number) row.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private void committed(List<Change> changes, List<Long> ids) {
+        journal(changes);
+        for (int i = 0; i < changes.size(); i++) {
+            Change change = changes.get(i);
+            eventPublisher.publishEvent(new TierChangeRecordedEvent(ids.get(i), change.userId(),
+                    change.previousTier(), change.previousStatus(), change.tier(), change.status(), change.cause(),
+                    change.criteriaVersion(), change.changedAt()));
+        }
+    }
+
+    /**
+     * The changes are already committed, so a journal failure is logged and counted, never thrown.
+     */
+    private void journal(List<Change> changes) {
+        if (journal == null) {
+            return;
+        }
+        journalLock.lock();
+        try {
+            for (Change change : changes) {
+                journal.append(change.userId(), change.previousTier(), change.previousStatus(), change.tier(),
+                        change.status(), change.cause(), change.criteriaVersion(), change.changedAt());
+            }
+        } catch (IOException | RuntimeException e) {
+            journalFailures.increment();
+            log.error("Failed to append {} tier changes to the journal: {}", changes.size(), e.getMessage());
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
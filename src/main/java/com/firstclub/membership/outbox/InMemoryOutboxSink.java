@@ -0,0 +1,45 @@
+package com.firstclub.membership.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recently delivered events in memory, as a stand-in for a real destination in local runs
+ * and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "membership.outbox.sink", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${membership.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+        log.debug("Delivered {} outbox events ending with id {}", batch.size(), batch.get(batch.size() - 1).id());
+    }
+
+    /**
+     * Delivered events still held, oldest first.
+     */
+    public synchronized List<OutboxMessage> messages() {
+        return new ArrayList<>(messages);
+    }
+}
@@ -0,0 +1,11 @@
+package com.firstclub.membership.outbox;
+
+import com.firstclub.membership.enums.OutboxEventType;
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to an {@link OutboxSink}; {@code payload} is a JSON object.
+ */
+public record OutboxMessage(long id, OutboxEventType eventType, long userId, String payload,
+                            LocalDateTime createdAt) {
+}
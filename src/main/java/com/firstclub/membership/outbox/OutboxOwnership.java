@@ -0,0 +1,145 @@
+package com.firstclub.membership.outbox;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps outbox writing and relaying to one instance per database.
+ *
+ * <p>{@link OutboxWriter} takes ids from an in-process counter, and the relay's watermark only knows the
+ * uncommitted ids of its own process, so a second instance writing to the same outbox could reuse ids or
+ * have its uncommitted events passed over. The instance that owns the outbox holds a lease in
+ * {@code outbox_owner}, claimed when the relay starts, renewed every
+ * {@code membership.outbox.lease-renew-interval} and released when the relay stops. Another instance waits
+ * up to {@code membership.outbox.lease} for the lease to lapse and otherwise fails to start. An instance
+ * whose lease was taken over, because it went unrenewed for a whole lease, refuses further outbox writes.
+ * Lease times come from each instance's clock, so clocks must agree to well within the lease.
+ */
+@Component
+@Slf4j
+public class OutboxOwnership {
+
+    private static final String TAKE_OVER_SQL = "UPDATE outbox_owner SET instance = ?, renewed_at = ? "
+            + "WHERE id = 1 AND (instance = ? OR renewed_at < ?)";
+    private static final String CLAIM_SQL = "INSERT INTO outbox_owner (id, instance, renewed_at) VALUES (1, ?, ?)";
+    private static final String RENEW_SQL = "UPDATE outbox_owner SET renewed_at = ? WHERE id = 1 AND instance = ?";
+    private static final String RELEASE_SQL = "DELETE FROM outbox_owner WHERE id = 1 AND instance = ?";
+    private static final String HOLDER_SQL = "SELECT instance FROM outbox_owner WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Duration lease;
+    private final String instance = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private volatile boolean owned;
+
+    public OutboxOwnership(JdbcTemplate jdbcTemplate, Clock clock,
+                           @Value("${membership.outbox.lease:30s}") Duration lease,
+                           @Value("${membership.outbox.lease-renew-interval:10000}") long renewIntervalMillis) {
+        if (renewIntervalMillis * 2 > lease.toMillis()) {
+            throw new IllegalArgumentException("Outbox lease " + lease + " must be at least twice the renew interval "
+                    + renewIntervalMillis + "ms");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.lease = lease;
+    }
+
+    /**
+     * Take the outbox lease, waiting up to one lease period for another holder's to lapse.
+     *
+     * @throws IllegalStateException if another instance kept renewing its lease
+     */
+    public void claim() {
+        long deadline = System.nanoTime() + lease.toNanos();
+        while (!tryClaim()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("The outbox is owned by " + holder()
+                        + ", which is still renewing its lease; only one instance may write outbox events");
+            }
+            log.info("Waiting for the outbox lease of {} to lapse", holder());
+            try {
+                TimeUnit.SECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the outbox lease", e);
+            }
+        }
+        owned = true;
+        log.info("Outbox owned by {}", instance);
+    }
+
+    @Scheduled(fixedDelayString = "${membership.outbox.lease-renew-interval:10000}",
+            initialDelayString = "${membership.outbox.lease-renew-interval:10000}")
+    public void renew() {
+        if (!owned) {
+            return;
+        }
+        BulkheadExecutors.runAs(Bulkhead.ADMIN, () -> {
+            if (jdbcTemplate.update(RENEW_SQL, now(), instance) == 0) {
+                owned = false;
+                log.error("Outbox lease of {} was taken over by {}; refusing outbox writes", instance, holder());
+            }
+        });
+    }
+
+    /**
+     * Give the lease up so another instance can take over at once.
+     */
+    public void release() {
+        if (owned) {
+            owned = false;
+            jdbcTemplate.update(RELEASE_SQL, instance);
+        }
+    }
+
+    public boolean isOwned() {
+        return owned;
+    }
+
+    /**
+     * @throws IllegalStateException unless this instance holds the outbox lease
+     */
+    public void checkOwned() {
+        if (!owned) {
+            throw new IllegalStateException("This instance does not own the outbox and cannot record changes");
+        }
+    }
+
+    private boolean tryClaim() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (jdbcTemplate.update(TAKE_OVER_SQL, instance, Timestamp.valueOf(now), instance,
+                Timestamp.valueOf(now.minus(lease))) == 1) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update(CLAIM_SQL, instance, Timestamp.valueOf(now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now(clock));
+    }
+
+    private String holder() {
+        List<String> holders = jdbcTemplate.queryForList(HOLDER_SQL, String.class);
+        return holders.isEmpty() ? "nobody" : holders.get(0);
+    }
+}
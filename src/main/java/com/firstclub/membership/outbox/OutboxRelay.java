@@ -0,0 +1,210 @@
+package com.firstclub.membership.outbox;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.enums.OutboxEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to the {@link OutboxSink} in id order, in batches, from a single thread.
+ *
+ * <p>Each round reads the next batch after the last delivered id and below
+ * {@link OutboxWriter#deliverableBelow()}, hands it to the sink and then marks it published. A batch the
+ * sink rejects is retried with backoff and nothing after it is delivered meanwhile, so per-user order is
+ * kept. The position is recovered on startup from the lowest unpublished id, so a batch delivered but
+ * not yet marked when the process stopped is delivered again. The relay runs while this instance holds the
+ * {@link OutboxOwnership} lease, claimed on start and released on stop. Published events are purged after
+ * {@code membership.outbox.retention}. Delivery and purging are admin work: both take their connections
+ * from the admin bulkhead's share of the pool.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final String BATCH_SQL = "SELECT id, event_type, user_id, payload, created_at FROM outbox_events "
+            + "WHERE id > ? AND id < ? ORDER BY id LIMIT ?";
+    private static final String OLDEST_SQL = "SELECT created_at FROM outbox_events WHERE id > ? ORDER BY id LIMIT 1";
+    private static final String MARK_SQL = "UPDATE outbox_events SET published_at = ? WHERE id > ? AND id <= ?";
+    private static final String POSITION_SQL = "SELECT COALESCE((SELECT MIN(id) - 1 FROM outbox_events "
+            + "WHERE published_at IS NULL), (SELECT MAX(id) FROM outbox_events), 0)";
+    // Keeps the newest event so ids are never reused after a restart
+    private static final String PURGE_SQL = "DELETE FROM outbox_events WHERE published_at < ? "
+            + "AND id < (SELECT MAX(id) FROM outbox_events)";
+
+    private final OutboxWriter outboxWriter;
+    private final OutboxOwnership ownership;
+    private final OutboxSink sink;
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkheadExecutors bulkheads;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration shutdownTimeout;
+
+    private final Counter deliveredEvents;
+    private final Counter sinkFailures;
+    private final Timer batchTimer;
+    private final Timer deliveryDelay;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread relay;
+    private long position;
+
+    public OutboxRelay(OutboxWriter outboxWriter, OutboxOwnership ownership, OutboxSink sink, JdbcTemplate jdbcTemplate,
+                       BulkheadExecutors bulkheads, Clock clock,
+                       @Value("${membership.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${membership.outbox.relay.poll-interval:100ms}") Duration pollInterval,
+                       @Value("${membership.outbox.retention:24h}") Duration retention,
+                       @Value("${membership.outbox.relay.shutdown-timeout:30s}") Duration shutdownTimeout,
+                       MeterRegistry meterRegistry) {
+        this.outboxWriter = outboxWriter;
+        this.ownership = ownership;
+        this.sink = sink;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkheads = bulkheads;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.deliveredEvents = meterRegistry.counter("membership.outbox.relay.delivered");
+        this.sinkFailures = meterRegistry.counter("membership.outbox.relay.failures");
+        this.batchTimer = meterRegistry.timer("membership.outbox.relay.batch");
+        this.deliveryDelay = meterRegistry.timer("membership.outbox.relay.delay");
+        Gauge.builder("membership.outbox.relay.lag", lagMillis, AtomicLong::get)
+                .description("Age in ms of the oldest committed event not yet delivered, as of the last poll")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        ownership.claim();
+        position = jdbcTemplate.queryForObject(POSITION_SQL, Long.class);
+        running = true;
+        relay = new Thread(() -> BulkheadExecutors.runAs(Bulkhead.ADMIN, this::relayLoop), "outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+        log.info("Outbox relay started after event {} with {}", position, sink.getClass().getSimpleName());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            relay.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ownership.release();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the order write-behind buffer and points ledger have drained, before the data source closes.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    @Scheduled(fixedDelayString = "${membership.outbox.purge-interval:3600000}",
+            initialDelayString = "${membership.outbox.purge-interval:3600000}")
+    public void purgePublished() {
+        bulkheads.run(Bulkhead.ADMIN, "outbox purge", this::purge);
+    }
+
+    private void purge() {
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now(clock).minus(retention)));
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox events older than {}", purged, retention);
+        }
+    }
+
+    private void relayLoop() {
+        int failures = 0;
+        // Keep going after stop() until everything committed so far is delivered
+        while (running || outboxWriter.deliverableBelow() > position + 1) {
+            try {
+                if (!ownership.isOwned()) {
+                    // Taken over by another instance, which delivers from here on
+                    if (!running) {
+                        return;
+                    }
+                    TimeUnit.NANOSECONDS.sleep(pollInterval.toNanos());
+                    continue;
+                }
+                List<OutboxMessage> batch = jdbcTemplate.query(BATCH_SQL, (rs, rowNum) -> new OutboxMessage(
+                                rs.getLong(1), OutboxEventType.valueOf(rs.getString(2)), rs.getLong(3),
+                                rs.getString(4), rs.getTimestamp(5).toLocalDateTime()),
+                        position, outboxWriter.deliverableBelow(), batchSize);
+                if (batch.isEmpty()) {
+                    // Committed events can still wait behind a lower id whose transaction is open
+                    lagMillis.set(jdbcTemplate.query(OLDEST_SQL, rs -> rs.next()
+                            ? Math.max(0, Duration.between(rs.getTimestamp(1).toLocalDateTime(),
+                                    LocalDateTime.now(clock)).toMillis())
+                            : 0L, position));
+                    if (!running) {
+                        return;
+                    }
+                    TimeUnit.NANOSECONDS.sleep(pollInterval.toNanos());
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now(clock);
+                lagMillis.set(Math.max(0, Duration.between(batch.get(0).createdAt(), now).toMillis()));
+
+                long start = System.nanoTime();
+                sink.publish(batch);
+                long last = batch.get(batch.size() - 1).id();
+                jdbcTemplate.update(MARK_SQL, Timestamp.valueOf(now), position, last);
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                for (OutboxMessage message : batch) {
+                    deliveryDelay.record(Duration.between(message.createdAt(), now));
+                }
+                deliveredEvents.increment(batch.size());
+                position = last;
+                failures = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failures++;
+                sinkFailures.increment();
+                log.warn("Outbox delivery after event {} failed (attempt {}): {}", position, failures, e.getMessage());
+                if (!running && failures >= 3) {
+                    log.error("Stopping outbox relay with undelivered events after {}", position);
+                    return;
+                }
+                try {
+                    Thread.sleep(Math.min(5000L, 100L * failures));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
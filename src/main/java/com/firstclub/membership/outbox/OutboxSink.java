@@ -0,0 +1,16 @@
+package com.firstclub.membership.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay, such as a message broker producer. Exactly one sink bean is active,
+ * chosen by {@code membership.outbox.sink}.
+ *
+ * <p>Delivery is at least once: a batch that throws is retried as a whole, and a batch delivered just
+ * before a crash is delivered again after restart. Sinks receive batches in event id order, so events of
+ * one user arrive in the order they were written; consumers deduplicate by {@link OutboxMessage#id()}.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,205 @@
+package com.firstclub.membership.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.OutboxEventType;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import com.firstclub.membership.event.OrderCreatedEvent;
+import com.firstclub.membership.persistence.TransactionBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes membership and order changes to {@code outbox_events} inside the transaction that makes them.
+ *
+ * <p>Listens synchronously to {@link MembershipChangedEvent} and {@link OrderCreatedEvent}, so the row is
+ * part of the publishing transaction: it commits with the change or not at all. Rows of one transaction
+ * are inserted in one batch just before it commits. In write-behind mode orders are not in the request
+ * transaction, so the order buffer writes their events with each flushed batch instead.
+ *
+ * <p>Ids come from an in-process counter and stay "in flight" until their transaction completes. The relay
+ * only delivers ids below the lowest one in flight, so it never passes an event that may still commit,
+ * and delivery follows id order. Both only hold within one process, so events are written only by the
+ * instance holding the {@link OutboxOwnership} lease; on any other, recording a change fails.
+ */
+@Component
+@Slf4j
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events (id, event_type, user_id, payload, "
+            + "created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM outbox_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean orderWriteBehind;
+    private final OutboxOwnership ownership;
+
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // Not a monitor: the first allocation queries the table while holding it
+    private final Lock idLock = new ReentrantLock();
+    private long nextId = -1;
+    // Ids leave the in-flight set once their transaction has committed or rolled back
+    private final TransactionBuffer<Row, Void> transactionRows = new TransactionBuffer<>(rows -> {
+        insert(rows);
+        return null;
+    }, (rows, none) -> { }, rows -> rows.forEach(r -> inFlight.remove(r.id())));
+
+    private record Row(long id, OutboxEventType type, long userId, String payload, LocalDateTime createdAt) {
+    }
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Clock clock,
+                        @Value("${membership.orders.write-behind.enabled:false}") boolean orderWriteBehind,
+                        OutboxOwnership ownership) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.orderWriteBehind = orderWriteBehind;
+        this.ownership = ownership;
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", event.getUserId());
+        payload.put("previousTier", event.getPreviousTier());
+        payload.put("previousStatus", event.getPreviousStatus());
+        payload.put("tier", event.getNewTier());
+        payload.put("status", event.getNewStatus());
+        payload.put("expiryDate", event.getExpiryDate());
+        payload.put("cause", event.getCause());
+        transactionRows.add(List.of(row(membershipEventType(event), event.getUserId(), payload)));
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (orderWriteBehind) {
+            return;
+        }
+        transactionRows.add(List.of(row(OutboxEventType.ORDER_CREATED, event.getUserId(),
+                orderPayload(event.getOrderId(), event.getUserId(), event.getCategory(), event.getOrderDate(),
+                        event.getOrderValue(), event.getDiscountAmount(), event.isFreeDeliveryApplied()))));
+    }
+
+    /**
+     * Write the ORDER_CREATED events of a write-behind batch; call inside the batch's transaction.
+     */
+    public void appendOrders(List<Order> orders) {
+        List<Row> rows = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            rows.add(row(OutboxEventType.ORDER_CREATED, order.getUser().getId(),
+                    orderPayload(order.getId(), order.getUser().getId(), order.getCategory(), order.getOrderDate(),
+                            order.getOrderValue(), order.getDiscountAmount(),
+                            Boolean.TRUE.equals(order.getFreeDeliveryApplied()))));
+        }
+        transactionRows.add(rows);
+    }
+
+    /**
+     * Lowest id that may still be uncommitted; every event below it is committed or rolled back.
+     */
+    public long deliverableBelow() {
+        idLock.lock();
+        try {
+            Long lowest = inFlight.isEmpty() ? null : inFlight.first();
+            return lowest != null ? lowest : allocatedUpTo() + 1;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private static OutboxEventType membershipEventType(MembershipChangedEvent event) {
+        if (event.getPreviousStatus() == null || event.getCause() == TierChangeCause.RENEWAL) {
+            return OutboxEventType.MEMBERSHIP_SUBSCRIBED;
+        }
+        if (event.getCause() == TierChangeCause.EXPIRY) {
+            return OutboxEventType.MEMBERSHIP_EXPIRED;
+        }
+        if (event.getNewStatus() == MembershipStatus.CANCELLED
+                && event.getPreviousStatus() != MembershipStatus.CANCELLED) {
+            return OutboxEventType.MEMBERSHIP_CANCELLED;
+        }
+        if (event.getPreviousTier() != event.getNewTier()) {
+            return OutboxEventType.MEMBERSHIP_TIER_CHANGED;
+        }
+        return OutboxEventType.MEMBERSHIP_UPDATED;
+    }
+
+    private static Map<String, Object> orderPayload(Long orderId, Long userId, String category,
+                                                    LocalDateTime orderDate, BigDecimal orderValue,
+                                                    BigDecimal discountAmount, boolean freeDeliveryApplied) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("userId", userId);
+        payload.put("category", category);
+        payload.put("orderDate", orderDate);
+        payload.put("orderValue", orderValue);
+        payload.put("discountAmount", discountAmount);
+        payload.put("freeDeliveryApplied", freeDeliveryApplied);
+        return payload;
+    }
+
+    private Row row(OutboxEventType type, long userId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " outbox event", e);
+        }
+        return new Row(allocate(), type, userId, json, LocalDateTime.now(clock));
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.id());
+            ps.setString(2, row.type().name());
+            ps.setLong(3, row.userId());
+            ps.setString(4, row.payload());
+            ps.setTimestamp(5, Timestamp.valueOf(row.createdAt()));
+        });
+        log.debug("Wrote {} outbox events ending with id {}", rows.size(), rows.get(rows.size() - 1).id());
+    }
+
+    /**
+     * Allocate and mark in flight atomically, so {@link #deliverableBelow()} never sees an allocated id
+     * that is not yet in flight.
+     */
+    private long allocate() {
+        ownership.checkOwned();
+        idLock.lock();
+        try {
+            long id = allocatedUpTo() + 1;
+            nextId = id + 1;
+            inFlight.add(id);
+            return id;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private long allocatedUpTo() {
+        if (nextId < 0) {
+            nextId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class) + 1;
+        }
+        return nextId - 1;
+    }
+}
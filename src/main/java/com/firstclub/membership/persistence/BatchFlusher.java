@@ -0,0 +1,77 @@
+package com.firstclub.membership.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Writes the batches of a single background writer thread so that one bad batch cannot stall it.
+ *
+ * <p>A batch failing with a transient error (lost connection, lock timeout, no connection available) is
+ * retried with backoff, at most {@code maxAttempts} times. A batch failing with any other error is split
+ * in half until the failing items are isolated. Items that still fail, and batches still failing
+ * transiently after the last attempt, go to the dead-letter handler and the writer moves on.
+ */
+@Slf4j
+public final class BatchFlusher<T> {
+
+    private final String name;
+    private final int maxAttempts;
+    private final Consumer<List<T>> writer;
+    private final BiConsumer<List<T>, RuntimeException> deadLetter;
+
+    public BatchFlusher(String name, int maxAttempts, Consumer<List<T>> writer,
+                        BiConsumer<List<T>, RuntimeException> deadLetter) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+        }
+        this.name = name;
+        this.maxAttempts = maxAttempts;
+        this.writer = writer;
+        this.deadLetter = deadLetter;
+    }
+
+    /**
+     * Write the batch and return how many of its items were written; the others were dead-lettered.
+     */
+    public int flush(List<T> batch) throws InterruptedException {
+        RuntimeException failure;
+        int attempt = 0;
+        while (true) {
+            try {
+                writer.accept(batch);
+                return batch.size();
+            } catch (RuntimeException e) {
+                attempt++;
+                if (!isTransient(e) || attempt >= maxAttempts) {
+                    failure = e;
+                    break;
+                }
+                log.warn("Failed to write {} {} (attempt {}): {}", batch.size(), name, attempt, e.getMessage());
+                Thread.sleep(Math.min(1000L, 50L * attempt));
+            }
+        }
+        if (!isTransient(failure) && batch.size() > 1) {
+            int half = batch.size() / 2;
+            return flush(batch.subList(0, half)) + flush(batch.subList(half, batch.size()));
+        }
+        log.error("Dead-lettering {} {} after {} attempts: {}", batch.size(), name, attempt, failure.getMessage());
+        deadLetter.accept(batch, failure);
+        return 0;
+    }
+
+    /**
+     * Failures that may succeed on retry, as opposed to ones caused by the data itself.
+     */
+    static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+}
@@ -0,0 +1,118 @@
+package com.firstclub.membership.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Saves items that background writers gave up on to {@code dead_letters}.
+ *
+ * <p>Counts saved items per source in {@code membership.dead_letters.saved}. When the table cannot be
+ * written either, the items are logged in full and counted in {@code membership.dead_letters.lost}.
+ * Saved items can be read back for replay and removed once replayed.
+ */
+@Component
+@Slf4j
+public class DeadLetterStore {
+
+    private static final String INSERT_SQL = "INSERT INTO dead_letters (source, user_id, payload, error, created_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String FIND_SQL = "SELECT id, payload FROM dead_letters WHERE source = ? "
+            + "ORDER BY id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM dead_letters WHERE id = ?";
+    private static final String ERROR_SQL = "UPDATE dead_letters SET error = ? WHERE id = ?";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * A saved item: its row id and the JSON of its payload.
+     */
+    public record Saved(long id, String payload) {
+    }
+
+    public DeadLetterStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Clock clock,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Save the items, each as the JSON of its {@code payload}, and return how many were saved.
+     */
+    public <T> int save(String source, List<T> items, Function<T, Long> userId, Function<T, Object> payload,
+                        RuntimeException error) {
+        String truncated = truncate(error);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+                ps.setString(1, source);
+                ps.setObject(2, userId.apply(item));
+                ps.setString(3, json(payload.apply(item)));
+                ps.setString(4, truncated);
+                ps.setTimestamp(5, now);
+            });
+            counter("membership.dead_letters.saved", source).increment(items.size());
+            return items.size();
+        } catch (RuntimeException e) {
+            counter("membership.dead_letters.lost", source).increment(items.size());
+            for (T item : items) {
+                log.error("Lost {} item, dead-letter table unavailable ({}): {}", source, e.getMessage(),
+                        payload.apply(item));
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Up to {@code limit} saved items of {@code source}, oldest first.
+     */
+    public List<Saved> find(String source, int limit) {
+        return jdbcTemplate.query(FIND_SQL, (rs, row) -> new Saved(rs.getLong(1), rs.getString(2)), source, limit);
+    }
+
+    /**
+     * Remove a replayed item, in the replay's transaction.
+     */
+    public void delete(long id) {
+        jdbcTemplate.update(DELETE_SQL, id);
+    }
+
+    /**
+     * Replace the error of an item whose replay failed too.
+     */
+    public void updateError(long id, RuntimeException error) {
+        jdbcTemplate.update(ERROR_SQL, truncate(error), id);
+    }
+
+    private static String truncate(RuntimeException error) {
+        String message = error.toString();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private String json(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(payload);
+        }
+    }
+
+    private Counter counter(String name, String source) {
+        return Counter.builder(name).tag("source", source).register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.firstclub.membership.persistence;
+
+import com.firstclub.membership.entity.Membership;
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.entity.User;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Fills creation and modification timestamps from the application {@link Clock}.
+ * Hibernate obtains this listener from the Spring context, so the clock is injected.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityTimestampListener {
+
+    private final Clock clock;
+
+    @PrePersist
+    public void onCreate(Object entity) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (entity instanceof Membership membership) {
+            membership.setLastModified(now);
+            if (membership.getStartDate() == null) {
+                membership.setStartDate(now);
+            }
+        } else if (entity instanceof Order order) {
+            if (order.getOrderDate() == null) {
+                order.setOrderDate(now);
+            }
+        } else if (entity instanceof User user) {
+            user.setCreatedAt(now);
+        }
+    }
+
+    @PreUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Membership membership) {
+            membership.setLastModified(LocalDateTime.now(clock));
+        }
+    }
+}
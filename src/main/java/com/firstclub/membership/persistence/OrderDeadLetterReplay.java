@@ -0,0 +1,119 @@
+package com.firstclub.membership.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.entity.User;
+import com.firstclub.membership.event.OrderCreatedEvent;
+import com.firstclub.membership.event.OrderDeadLetteredEvent;
+import com.firstclub.membership.outbox.OutboxWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes the orders that the write-behind buffer dead-lettered, from the {@code order} source of
+ * {@code dead_letters}.
+ *
+ * <p>A dead-lettered order was acknowledged with its id, and its points ledger entries and benefit quota use
+ * are written independently of it, so they stay applied; what is missing is its row and ORDER_CREATED outbox
+ * event, and its {@link OrderDeadLetteredEvent} took it back out of the analytics and monthly activity. A
+ * replay inserts the row and removes the dead letter in one transaction per order, and publishes
+ * {@link OrderCreatedEvent} in it as for a new order, so the outbox event is written and the counters take the
+ * order again. An order that fails again, such as one whose data violates a constraint, stays in
+ * {@code dead_letters} with the new error.
+ */
+@Component
+@Slf4j
+public class OrderDeadLetterReplay {
+
+    private final OrderWriteBehindBuffer writeBehindBuffer;
+    private final DeadLetterStore deadLetterStore;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The payload written by {@link OrderWriteBehindBuffer} for a dead-lettered order.
+     */
+    private record Payload(Long id, Long userId, BigDecimal orderValue, LocalDateTime orderDate, String category,
+                           Boolean freeDeliveryApplied, BigDecimal discountPercentage, BigDecimal discountAmount,
+                           Long pointsEarned, Long pointsRedeemed, BigDecimal pointsRedemptionAmount) {
+    }
+
+    /**
+     * How many dead-lettered orders a replay wrote, and how many failed again.
+     */
+    public record Result(int replayed, int failed) {
+    }
+
+    public OrderDeadLetterReplay(OrderWriteBehindBuffer writeBehindBuffer, DeadLetterStore deadLetterStore,
+                                 OutboxWriter outboxWriter, TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.deadLetterStore = deadLetterStore;
+        this.outboxWriter = outboxWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write up to {@code limit} dead-lettered orders, oldest first.
+     */
+    public Result replay(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Replay limit must be positive: " + limit);
+        }
+        int replayed = 0;
+        int failed = 0;
+        List<DeadLetterStore.Saved> deadLetters =
+                deadLetterStore.find(OrderWriteBehindBuffer.DEAD_LETTER_SOURCE, limit);
+        for (DeadLetterStore.Saved saved : deadLetters) {
+            try {
+                Order order = toOrder(objectMapper.readValue(saved.payload(), Payload.class));
+                transactionTemplate.executeWithoutResult(status -> {
+                    writeBehindBuffer.insert(List.of(order));
+                    // Otherwise OutboxWriter writes the event from OrderCreatedEvent, as for any order
+                    if (writeBehindBuffer.isEnabled()) {
+                        outboxWriter.appendOrders(List.of(order));
+                    }
+                    deadLetterStore.delete(saved.id());
+                    eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), order.getUser().getId(),
+                            order.getCategory(), order.getOrderDate(), order.getOrderValue(),
+                            order.getDiscountAmount(), Boolean.TRUE.equals(order.getFreeDeliveryApplied())));
+                });
+                replayed++;
+            } catch (Exception e) {
+                failed++;
+                log.warn("Failed to replay dead-lettered order {}: {}", saved.id(), e.getMessage());
+                deadLetterStore.updateError(saved.id(),
+                        e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e));
+            }
+        }
+        if (replayed > 0 || failed > 0) {
+            log.info("Replayed {} dead-lettered orders, {} failed again", replayed, failed);
+        }
+        return new Result(replayed, failed);
+    }
+
+    private static Order toOrder(Payload payload) {
+        return Order.builder()
+                .id(payload.id())
+                .user(User.builder().id(payload.userId()).build())
+                .orderValue(payload.orderValue())
+                .orderDate(payload.orderDate())
+                .category(payload.category())
+                .freeDeliveryApplied(payload.freeDeliveryApplied())
+                .discountPercentage(payload.discountPercentage())
+                .discountAmount(payload.discountAmount())
+                .pointsEarned(payload.pointsEarned())
+                .pointsRedeemed(payload.pointsRedeemed())
+                .pointsRedemptionAmount(payload.pointsRedemptionAmount())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.firstclub.membership.persistence;
+
+import com.firstclub.membership.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out order ids from the same pooled sequence Hibernate uses for Order,
+ * so write-behind orders can be acknowledged with their final id before they are inserted.
+ * Only one sequence round trip is made per allocation block, on the caller's own connection.
+ */
+@Component
+public class OrderIdAllocator {
+
+    private final IdentifierGenerator generator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderIdAllocator(EntityManagerFactory entityManagerFactory) {
+        this.generator = (IdentifierGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Order.class)
+                .getGenerator();
+    }
+
+    public Long nextId() {
+        return (Long) generator.generate(entityManager.unwrap(SharedSessionContractImplementor.class), null);
+    }
+}
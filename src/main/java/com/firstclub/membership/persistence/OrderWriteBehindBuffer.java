@@ -0,0 +1,331 @@
+package com.firstclub.membership.persistence;
+
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.event.OrderDeadLetteredEvent;
+import com.firstclub.membership.exception.ServiceOverloadedException;
+import com.firstclub.membership.outbox.OutboxWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional write-behind path for orders.
+ * Accepted orders are appended to a bounded ring buffer and a single flusher thread
+ * persists them in group-committed JDBC batches. A slot is reserved while the order's
+ * transaction runs and the order is appended only once it commits, so a rolled-back order
+ * is never written. When the buffer is full, callers are rejected after a short wait
+ * instead of growing memory. Each batch also writes the orders' outbox events in the same
+ * transaction. Transient failures are retried a few times; orders that cannot be written
+ * go to {@code dead_letters} so the flusher keeps going, and an {@link OrderDeadLetteredEvent}
+ * is published for each. On shutdown the buffer stops accepting orders and is drained before
+ * the data source closes.
+ */
+@Component
+@Slf4j
+public class OrderWriteBehindBuffer implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO orders (id, user_id, order_value, order_date, category, "
+            + "free_delivery_applied, discount_percentage, discount_amount, points_earned, points_redeemed, "
+            + "points_redemption_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String DEAD_LETTER_SOURCE = "order";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxLinger;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final int capacity;
+    private final BlockingQueue<Order> buffer;
+    // Free slots; taken when an order is accepted and given back once it is written or rolled back
+    private final Semaphore slots;
+    // Ids of accepted orders not yet written, dead-lettered or rolled back
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong unflushed = new AtomicLong();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final DeadLetterStore deadLetterStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BatchFlusher<Order> batchFlusher;
+
+    private final Counter acceptedOrders;
+    private final Counter rejectedOrders;
+    private final Counter flushedOrders;
+    private final Counter deadLetteredOrders;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public OrderWriteBehindBuffer(
+            @Value("${membership.orders.write-behind.enabled:false}") boolean enabled,
+            @Value("${membership.orders.write-behind.capacity:65536}") int capacity,
+            @Value("${membership.orders.write-behind.batch-size:500}") int batchSize,
+            @Value("${membership.orders.write-behind.max-linger:20ms}") Duration maxLinger,
+            @Value("${membership.orders.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+            @Value("${membership.orders.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+            @Value("${membership.orders.write-behind.max-attempts:5}") int maxAttempts,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            OutboxWriter outboxWriter,
+            DeadLetterStore deadLetterStore,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxLinger = maxLinger;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.capacity = capacity;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.slots = new Semaphore(capacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxWriter = outboxWriter;
+        this.deadLetterStore = deadLetterStore;
+        this.eventPublisher = eventPublisher;
+        this.batchFlusher = new BatchFlusher<>("orders", maxAttempts, this::writeBatch, this::deadLetter);
+
+        this.acceptedOrders = meterRegistry.counter("membership.orders.write_behind.accepted");
+        this.rejectedOrders = meterRegistry.counter("membership.orders.write_behind.rejected");
+        this.flushedOrders = meterRegistry.counter("membership.orders.write_behind.flushed");
+        this.deadLetteredOrders = meterRegistry.counter("membership.orders.write_behind.dead_lettered");
+        this.batchTimer = meterRegistry.timer("membership.orders.write_behind.batch");
+        Gauge.builder("membership.orders.write_behind.pending", unflushed, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Append an order that already carries its id and order date, once the caller's transaction commits
+     * (immediately when there is none). Blocks for at most the offer timeout when the buffer is full.
+     */
+    public void enqueue(Order order) {
+        if (!running) {
+            throw new ServiceOverloadedException("Order buffer is not accepting orders", Duration.ofSeconds(1));
+        }
+        try {
+            if (!slots.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejectedOrders.increment();
+                throw new ServiceOverloadedException("Order buffer is full", Duration.ofSeconds(1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while buffering order", Duration.ofSeconds(1));
+        }
+        inFlight.add(order.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(order);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(order);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    inFlight.remove(order.getId());
+                    slots.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Orders acknowledged but not yet committed, including the batch being written.
+     */
+    public long pendingCount() {
+        return unflushed.get();
+    }
+
+    /**
+     * Wait until every order accepted so far has been written, dead-lettered or rolled back, so that a
+     * snapshot taken afterwards contains each of them that will ever be written.
+     *
+     * @throws IllegalStateException if they are not settled within the shutdown timeout
+     */
+    public void awaitFlushed() {
+        List<Long> accepted = new ArrayList<>(inFlight);
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (Long id : accepted) {
+                while (inFlight.contains(id)) {
+                    if (System.nanoTime() - deadline > 0) {
+                        throw new IllegalStateException("Buffered orders were not written within " + shutdownTimeout
+                                + "; " + unflushed.get() + " orders still pending");
+                    }
+                    TimeUnit.MILLISECONDS.sleep(1);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for buffered orders", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "order-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Order write-behind enabled (capacity {}, batch size {})",
+                buffer.remainingCapacity(), batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.error("Order flush did not complete within {}; {} orders still pending",
+                    shutdownTimeout, unflushed.get());
+        } else {
+            log.info("Order write-behind buffer drained");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    /**
+     * Stop after the web server so in-flight requests can still enqueue, and before the data source closes.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void append(Order order) {
+        // Cannot fail: the queue holds as many orders as there are slots
+        buffer.add(order);
+        unflushed.incrementAndGet();
+        acceptedOrders.increment();
+    }
+
+    private void flushLoop() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        // After stop, keep going until every reserved slot is written or rolled back
+        while (running || slots.availablePermits() < capacity) {
+            try {
+                Order first = buffer.poll(maxLinger.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<Order> batch) throws InterruptedException {
+        try {
+            flushedOrders.increment(batchFlusher.flush(batch));
+        } finally {
+            for (Order order : batch) {
+                inFlight.remove(order.getId());
+            }
+            unflushed.addAndGet(-batch.size());
+            slots.release(batch.size());
+        }
+    }
+
+    private void deadLetter(List<Order> orders, RuntimeException error) {
+        deadLetteredOrders.increment(orders.size());
+        deadLetterStore.save(DEAD_LETTER_SOURCE, orders, order -> order.getUser().getId(),
+                OrderWriteBehindBuffer::payload, error);
+        for (Order order : orders) {
+            eventPublisher.publishEvent(new OrderDeadLetteredEvent(order.getId(), order.getUser().getId(),
+                    order.getCategory(), order.getOrderDate(), order.getOrderValue(), order.getDiscountAmount(),
+                    Boolean.TRUE.equals(order.getFreeDeliveryApplied())));
+        }
+    }
+
+    private static Map<String, Object> payload(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", order.getId());
+        payload.put("userId", order.getUser().getId());
+        payload.put("orderValue", order.getOrderValue());
+        payload.put("orderDate", order.getOrderDate());
+        payload.put("category", order.getCategory());
+        payload.put("freeDeliveryApplied", order.getFreeDeliveryApplied());
+        payload.put("discountPercentage", order.getDiscountPercentage());
+        payload.put("discountAmount", order.getDiscountAmount());
+        payload.put("pointsEarned", order.getPointsEarned());
+        payload.put("pointsRedeemed", order.getPointsRedeemed());
+        payload.put("pointsRedemptionAmount", order.getPointsRedemptionAmount());
+        return payload;
+    }
+
+    private void writeBatch(List<Order> batch) {
+        batchTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            insert(batch);
+            outboxWriter.appendOrders(batch);
+        }));
+        log.debug("Flushed {} orders ending with id {}", batch.size(), batch.get(batch.size() - 1).getId());
+    }
+
+    /**
+     * Insert orders that carry their id, in the caller's transaction.
+     */
+    void insert(List<Order> orders) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setLong(1, order.getId());
+            ps.setLong(2, order.getUser().getId());
+            ps.setBigDecimal(3, order.getOrderValue());
+            ps.setTimestamp(4, Timestamp.valueOf(order.getOrderDate()));
+            ps.setString(5, order.getCategory());
+            ps.setBoolean(6, Boolean.TRUE.equals(order.getFreeDeliveryApplied()));
+            ps.setBigDecimal(7, order.getDiscountPercentage());
+            ps.setBigDecimal(8, order.getDiscountAmount());
+            ps.setObject(9, order.getPointsEarned());
+            ps.setObject(10, order.getPointsRedeemed());
+            ps.setBigDecimal(11, order.getPointsRedemptionAmount());
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.firstclub.membership.persistence;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collects the items a transaction produces and writes them in one batch just before it commits.
+ *
+ * <p>{@code flush} writes the items inside the transaction and returns a result, such as generated ids;
+ * {@code committed} then gets the items and that result once the transaction has committed, and
+ * {@code completed} gets the items after it commits or rolls back. Outside a transaction the three run at
+ * once, in that order, with {@code completed} running even if {@code flush} fails.
+ */
+public final class TransactionBuffer<T, R> {
+
+    private final Function<List<T>, R> flush;
+    private final BiConsumer<List<T>, R> committed;
+    private final Consumer<List<T>> completed;
+
+    public TransactionBuffer(Function<List<T>, R> flush, BiConsumer<List<T>, R> committed,
+                             Consumer<List<T>> completed) {
+        this.flush = flush;
+        this.committed = committed;
+        this.completed = completed;
+    }
+
+    /**
+     * Add the items to the current transaction's batch.
+     */
+    @SuppressWarnings("unchecked")
+    public void add(List<T> items) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                committed.accept(items, flush.apply(items));
+            } finally {
+                completed.accept(items);
+            }
+            return;
+        }
+        List<T> pending = (List<T>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<T> transactionItems = new ArrayList<>();
+            pending = transactionItems;
+            TransactionSynchronizationManager.bindResource(this, transactionItems);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private R result;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    result = flush.apply(transactionItems);
+                }
+
+                @Override
+                public void afterCommit() {
+                    committed.accept(transactionItems, result);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionBuffer.this);
+                    completed.accept(transactionItems);
+                }
+            });
+        }
+        pending.addAll(items);
+    }
+}
@@ -0,0 +1,27 @@
+package com.firstclub.membership.persistence;
+
+import com.firstclub.membership.entity.User;
+import com.firstclub.membership.event.UserCohortChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a {@link UserCohortChangedEvent} for every user insert and update made through JPA,
+ * so the cohort index follows changes wherever they come from.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCohortListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        eventPublisher.publishEvent(new UserCohortChangedEvent(user.getId(),
+                user.getCohort() != null ? user.getCohort().getId() : null));
+    }
+}
@@ -0,0 +1,414 @@
+package com.firstclub.membership.points;
+
+import com.firstclub.membership.enums.PointsEntryType;
+import com.firstclub.membership.exception.ServiceOverloadedException;
+import com.firstclub.membership.persistence.BatchFlusher;
+import com.firstclub.membership.persistence.DeadLetterStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loyalty points balances backed by an append-only ledger.
+ *
+ * <p>Orders never update a balance row. Earned and redeemed points are appended to {@code points_ledger}
+ * by a single writer thread in JDBC batches, and the same thread periodically compacts the entries since
+ * the previous compaction into {@code points_balance}. On startup each balance is rebuilt as its compacted
+ * value plus the ledger entries after the latest compaction, and from then on it is kept in memory with
+ * one atomic counter per user. Redemptions are compare-and-set against that counter, so two concurrent
+ * orders can never spend the same points, and are released again if the order's transaction rolls back.
+ *
+ * <p>An order claims queue room for its entries inside its transaction, waiting up to {@code offer-timeout},
+ * and fails with 503 when the queue stays full; the entries are queued once it commits, into the room it
+ * claimed. Once the writer has drained for the last time at shutdown, entries are instead inserted in the
+ * order's own transaction. Entries still queued when the process dies are lost, as with the order
+ * write-behind buffer. Entries that cannot be written go to {@code dead_letters} and are taken back out of
+ * the in-memory balance, so that it matches the balance rebuilt on the next start.
+ */
+@Component
+@Slf4j
+public class PointsLedger implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "INSERT INTO points_ledger (user_id, order_id, entry_type, points, "
+            + "created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String WATERMARK_SQL = "SELECT COALESCE(MAX(through_entry_id), 0) FROM points_balance";
+    private static final String SNAPSHOT_SQL = "SELECT user_id, balance FROM points_balance";
+    private static final String TAIL_SQL = "SELECT user_id, SUM(points) FROM points_ledger WHERE id > ? "
+            + "GROUP BY user_id";
+    private static final String LAST_ENTRY_SQL = "SELECT COALESCE(MAX(id), 0) FROM points_ledger";
+    // Folds the entries in (watermark, last] into each affected user's compacted balance
+    private static final String COMPACT_SQL = "MERGE INTO points_balance (user_id, balance, through_entry_id) "
+            + "KEY (user_id) SELECT l.user_id, COALESCE(MAX(b.balance), 0) + SUM(l.points), ? FROM points_ledger l "
+            + "LEFT JOIN points_balance b ON b.user_id = l.user_id WHERE l.id > ? AND l.id <= ? GROUP BY l.user_id";
+
+    private final int batchSize;
+    private final Duration maxLinger;
+    private final Duration compactionInterval;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<Entry> queue;
+    // Queue room, claimed by an order before it commits and given back when the writer takes its entries
+    private final Semaphore room;
+    private final AtomicLong unwritten = new AtomicLong();
+    // Orders between their closed check and queueing their entries; the writer waits for them before its
+    // last drain
+    private final AtomicInteger appending = new AtomicInteger();
+    private final Map<Long, AtomicLong> balances = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final DeadLetterStore deadLetterStore;
+    private final BatchFlusher<Entry> batchFlusher;
+
+    private final Counter writtenEntries;
+    private final Counter deadLetteredEntries;
+    private final Counter rejectedRedemptions;
+    private final Timer batchTimer;
+    private final Timer compactionTimer;
+
+    private volatile boolean running;
+    // Set by the writer once it has drained for the last time; later entries are written by their order
+    private volatile boolean closed;
+    private Thread writer;
+    // Last ledger id folded into points_balance; only the writer thread touches it after start()
+    private long watermark;
+    private long lastCompaction = System.nanoTime();
+
+    private record Entry(long userId, Long orderId, PointsEntryType type, long points, LocalDateTime createdAt) {
+    }
+
+    public PointsLedger(
+            @Value("${membership.points.ledger.capacity:65536}") int capacity,
+            @Value("${membership.points.ledger.batch-size:1000}") int batchSize,
+            @Value("${membership.points.ledger.max-linger:20ms}") Duration maxLinger,
+            @Value("${membership.points.ledger.compaction-interval:60s}") Duration compactionInterval,
+            @Value("${membership.points.ledger.offer-timeout:100ms}") Duration offerTimeout,
+            @Value("${membership.points.ledger.shutdown-timeout:30s}") Duration shutdownTimeout,
+            @Value("${membership.points.ledger.max-attempts:5}") int maxAttempts,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Clock clock,
+            DeadLetterStore deadLetterStore,
+            MeterRegistry meterRegistry) {
+        this.batchSize = batchSize;
+        this.maxLinger = maxLinger;
+        this.compactionInterval = compactionInterval;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.room = new Semaphore(capacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.deadLetterStore = deadLetterStore;
+        this.batchFlusher = new BatchFlusher<>("points entries", maxAttempts, this::writeBatch, this::deadLetter);
+
+        this.writtenEntries = meterRegistry.counter("membership.points.ledger.written");
+        this.deadLetteredEntries = meterRegistry.counter("membership.points.ledger.dead_lettered");
+        this.rejectedRedemptions = meterRegistry.counter("membership.points.redemptions.rejected");
+        this.batchTimer = meterRegistry.timer("membership.points.ledger.batch");
+        this.compactionTimer = meterRegistry.timer("membership.points.ledger.compaction");
+        Gauge.builder("membership.points.ledger.pending", unwritten, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Current balance, including points not yet written to the ledger.
+     */
+    public long balance(long userId) {
+        AtomicLong balance = balances.get(userId);
+        return balance != null ? balance.get() : 0;
+    }
+
+    /**
+     * Take {@code points} from the balance for an order being placed; given back if its transaction rolls back.
+     *
+     * @throws IllegalStateException if the balance is lower than {@code points}
+     */
+    public void reserve(long userId, long points) {
+        if (!running) {
+            throw new ServiceOverloadedException("Points ledger is not accepting entries", Duration.ofSeconds(1));
+        }
+        AtomicLong balance = balances.computeIfAbsent(userId, id -> new AtomicLong());
+        while (true) {
+            long current = balance.get();
+            if (current < points) {
+                rejectedRedemptions.increment();
+                throw new IllegalStateException("Insufficient points: balance is " + current);
+            }
+            if (balance.compareAndSet(current, current - points)) {
+                break;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        balance.addAndGet(points);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Append an order's points movements to the ledger and credit the earned points once the order's
+     * transaction commits (immediately when there is none). Redeemed points must have been reserved.
+     *
+     * @throws ServiceOverloadedException if the ledger queue has no room within the offer timeout
+     */
+    public void record(long userId, Long orderId, long earned, long redeemed) {
+        if (earned == 0 && redeemed == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Entry> entries = new ArrayList<>(2);
+        if (redeemed > 0) {
+            entries.add(new Entry(userId, orderId, PointsEntryType.REDEEM, -redeemed, now));
+        }
+        if (earned > 0) {
+            entries.add(new Entry(userId, orderId, PointsEntryType.EARN, earned, now));
+        }
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        appending.incrementAndGet();
+        boolean queued;
+        try {
+            queued = claim(entries.size());
+            if (!queued) {
+                // The writer has drained for the last time, so the order's own transaction writes the entries
+                log.warn("Points ledger is closed, writing entries of order {} directly", orderId);
+                insert(entries);
+                writtenEntries.increment(entries.size());
+            }
+        } catch (RuntimeException e) {
+            appending.decrementAndGet();
+            if (!inTransaction && redeemed > 0) {
+                balances.get(userId).addAndGet(redeemed);
+            }
+            throw e;
+        }
+        if (!inTransaction) {
+            try {
+                committed(entries, queued);
+            } finally {
+                appending.decrementAndGet();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed(entries, queued);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && queued) {
+                    room.release(entries.size());
+                }
+                appending.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Claim queue room for {@code count} entries, or return false if the writer has closed.
+     */
+    private boolean claim(int count) {
+        if (closed) {
+            return false;
+        }
+        boolean claimed;
+        try {
+            claimed = room.tryAcquire(count, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            claimed = false;
+        }
+        if (!claimed) {
+            throw new ServiceOverloadedException("Points ledger queue is full", Duration.ofSeconds(1));
+        }
+        return true;
+    }
+
+    /**
+     * Credit the earned points and queue the entries into the room claimed for them.
+     */
+    private void committed(List<Entry> entries, boolean queued) {
+        for (Entry entry : entries) {
+            if (entry.type() == PointsEntryType.EARN) {
+                balances.computeIfAbsent(entry.userId(), id -> new AtomicLong()).addAndGet(entry.points());
+            }
+            if (queued) {
+                unwritten.incrementAndGet();
+                queue.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Ledger entries queued but not yet committed, including the batch being written.
+     */
+    public long pendingCount() {
+        return unwritten.get();
+    }
+
+    /**
+     * Rebuild the balances from the compacted snapshot plus the ledger tail, before the writer starts.
+     */
+    private void load() {
+        long start = System.nanoTime();
+        long snapshotWatermark = jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+        jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+            balances.computeIfAbsent(rs.getLong(1), id -> new AtomicLong()).addAndGet(rs.getLong(2));
+        });
+        long[] tailUsers = {0};
+        jdbcTemplate.query(TAIL_SQL, rs -> {
+            balances.computeIfAbsent(rs.getLong(1), id -> new AtomicLong()).addAndGet(rs.getLong(2));
+            tailUsers[0]++;
+        }, snapshotWatermark);
+        watermark = snapshotWatermark;
+        log.info("Loaded points balances of {} users ({} with entries since the last compaction) in {} ms",
+                balances.size(), tailUsers[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+        writer = new Thread(this::writeLoop, "points-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.error("Points ledger did not drain within {}; {} entries still pending", shutdownTimeout,
+                    unwritten.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server so in-flight orders can still append, and before the data source closes.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty() || appending.get() > 0) {
+                drainOnce(batch);
+                if (System.nanoTime() - lastCompaction >= compactionInterval.toNanos()) {
+                    compact();
+                }
+            }
+            closed = true;
+            // An order that checked closed just before it was set may still be queueing its entries
+            while (appending.get() > 0 || !queue.isEmpty()) {
+                drainOnce(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        compact();
+    }
+
+    private void drainOnce(List<Entry> batch) throws InterruptedException {
+        Entry first = queue.poll(maxLinger.toNanos(), TimeUnit.NANOSECONDS);
+        if (first != null) {
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            room.release(batch.size());
+            try {
+                writtenEntries.increment(batchFlusher.flush(batch));
+            } finally {
+                unwritten.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        batchTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insert(batch)));
+    }
+
+    private void insert(List<Entry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.userId());
+            ps.setObject(2, entry.orderId());
+            ps.setString(3, entry.type().name());
+            ps.setLong(4, entry.points());
+            ps.setTimestamp(5, Timestamp.valueOf(entry.createdAt()));
+        });
+    }
+
+    /**
+     * The entries will not be in the ledger the balances are rebuilt from, so take them back out of memory.
+     */
+    private void deadLetter(List<Entry> entries, RuntimeException error) {
+        deadLetteredEntries.increment(entries.size());
+        for (Entry entry : entries) {
+            balances.computeIfAbsent(entry.userId(), id -> new AtomicLong()).addAndGet(-entry.points());
+        }
+        deadLetterStore.save("points", entries, Entry::userId, entry -> entry, error);
+    }
+
+    /**
+     * Runs on the writer thread, so no entry below the last id can still be uncommitted.
+     */
+    private void compact() {
+        lastCompaction = System.nanoTime();
+        try {
+            long last = jdbcTemplate.queryForObject(LAST_ENTRY_SQL, Long.class);
+            if (last <= watermark) {
+                return;
+            }
+            long from = watermark;
+            Integer users = compactionTimer.record(() -> transactionTemplate.execute(status ->
+                    jdbcTemplate.update(COMPACT_SQL, last, from, last)));
+            watermark = last;
+            log.debug("Compacted points ledger entries {}..{} into {} balances", from + 1, last, users);
+        } catch (RuntimeException e) {
+            log.warn("Failed to compact points ledger, retrying next time: {}", e.getMessage());
+        }
+    }
+}
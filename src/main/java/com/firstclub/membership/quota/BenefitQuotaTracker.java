@@ -0,0 +1,278 @@
+package com.firstclub.membership.quota;
+
+import com.firstclub.membership.benefit.Benefit;
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.QuotaPeriod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user, per-period consumption of capped benefits ({@link Benefit#hasQuota()}), held in memory so
+ * checkout never takes a row lock to check a quota.
+ *
+ * <p>Each (user, benefit, period) has its own atomic counter in a concurrent map, so orders of different
+ * users never contend. Reservations are compare-and-set against the limit and are released again if the
+ * surrounding transaction rolls back. Usage reserved since the last flush is added to {@code benefit_usage}
+ * in batches every {@code membership.benefits.quota.flush-interval}, on the admin bulkhead, and at shutdown,
+ * as increments rather than absolute values, so instances sharing the table never overwrite each other's
+ * usage. After each flush the current periods are read back, so usage recorded by other instances counts
+ * against the caps here within one flush interval. Usage reserved after the last flush before a crash is lost.
+ *
+ * <p>Quota units: FREE_DELIVERY counts uses, DISCOUNT counts discount cents.
+ */
+@Component
+@Slf4j
+public class BenefitQuotaTracker {
+
+    private static final String LOAD_SQL =
+            "SELECT user_id, benefit_id, period_start, used FROM benefit_usage WHERE period_start >= ?";
+    private static final String FLUSH_SQL = "MERGE INTO benefit_usage t USING (VALUES (CAST(? AS BIGINT), "
+            + "CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT))) s (user_id, benefit_id, period_start, delta) "
+            + "ON t.user_id = s.user_id AND t.benefit_id = s.benefit_id AND t.period_start = s.period_start "
+            + "WHEN MATCHED THEN UPDATE SET used = t.used + s.delta "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, benefit_id, period_start, used) "
+            + "VALUES (s.user_id, s.benefit_id, s.period_start, s.delta)";
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkheadExecutors bulkheads;
+    private final Clock clock;
+    private final Counter exhausted;
+    private final Map<UsageKey, Usage> usage = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+
+    public BenefitQuotaTracker(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               BulkheadExecutors bulkheads, Clock clock, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkheads = bulkheads;
+        this.clock = clock;
+        this.exhausted = meterRegistry.counter("membership.benefits.quota.exhausted");
+    }
+
+    /**
+     * Whether the user can still use the benefit in the current period.
+     */
+    public boolean hasRemaining(long userId, Benefit benefit) {
+        if (!benefit.hasQuota()) {
+            return true;
+        }
+        Usage current = usage.get(key(userId, benefit));
+        return current == null || current.used.get() < limit(benefit);
+    }
+
+    /**
+     * Consume one use of a capped benefit; always true for an uncapped one.
+     */
+    public boolean tryUse(long userId, Benefit benefit) {
+        return !benefit.hasQuota() || reserve(userId, benefit, 1, false) == 1;
+    }
+
+    /**
+     * Consume discount quota for {@code amount} and return the part of it still covered this period,
+     * which is the whole amount for an uncapped benefit and zero once the cap is reached.
+     */
+    public BigDecimal capDiscount(long userId, Benefit benefit, BigDecimal amount) {
+        if (!benefit.hasQuota()) {
+            return amount;
+        }
+        long granted = reserve(userId, benefit, amount.movePointRight(2).longValue(), true);
+        return BigDecimal.valueOf(granted, 2);
+    }
+
+    private long reserve(long userId, Benefit benefit, long requested, boolean partial) {
+        long limit = limit(benefit);
+        Usage current = usage.computeIfAbsent(key(userId, benefit), k -> new Usage());
+        long granted;
+        while (true) {
+            long used = current.used.get();
+            granted = Math.min(requested, Math.max(0, limit - used));
+            if (granted == 0 || (granted < requested && !partial)) {
+                exhausted.increment();
+                return 0;
+            }
+            if (current.used.compareAndSet(used, used + granted)) {
+                break;
+            }
+        }
+        current.unflushed.addAndGet(granted);
+        releaseOnRollback(current, granted);
+        return granted;
+    }
+
+    private void releaseOnRollback(Usage current, long granted) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    current.used.addAndGet(-granted);
+                    current.unflushed.addAndGet(-granted);
+                }
+            }
+        });
+    }
+
+    /**
+     * Load usage of every period that can still be current. Counters reserved before the load keep
+     * their value on top of the stored one, since it was not flushed yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        long start = System.nanoTime();
+        flushLock.lock();
+        try {
+            LocalDate earliest = earliestCurrentPeriodStart();
+            long rows = readStored(earliest);
+            log.info("Loaded {} benefit quota counters since {} in {} ms", rows, earliest,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Bring each counter's stored part up to date with {@code benefit_usage}, which includes the usage of
+     * other instances. Runs under the flush lock, the only place {@code stored} changes.
+     */
+    private long readStored(LocalDate earliest) {
+        long[] rows = {0};
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            UsageKey key = new UsageKey(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate());
+            Usage current = usage.computeIfAbsent(key, k -> new Usage());
+            long stored = rs.getLong(4);
+            current.used.addAndGet(stored - current.stored);
+            current.stored = stored;
+            rows[0]++;
+        }, Date.valueOf(earliest));
+        return rows[0];
+    }
+
+    /**
+     * Add the usage reserved since the last flush in batches, then read back the current periods and drop
+     * counters of periods that have ended.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            long start = System.nanoTime();
+            List<Delta> deltas = new ArrayList<>();
+            LocalDate earliest = earliestCurrentPeriodStart();
+            for (Map.Entry<UsageKey, Usage> entry : usage.entrySet()) {
+                Usage current = entry.getValue();
+                UsageKey key = entry.getKey();
+                // Read once; usage reserved after this read stays unflushed and is written next time
+                long delta = current.unflushed.get();
+                if (delta != 0) {
+                    deltas.add(new Delta(key, current, delta));
+                } else if (key.periodStart().isBefore(earliest)) {
+                    usage.remove(key, current);
+                }
+            }
+            try {
+                if (!deltas.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate(FLUSH_SQL, deltas, FLUSH_BATCH_SIZE, (ps, delta) -> {
+                                ps.setLong(1, delta.key().userId());
+                                ps.setLong(2, delta.key().benefitId());
+                                ps.setDate(3, Date.valueOf(delta.key().periodStart()));
+                                ps.setLong(4, delta.amount());
+                            }));
+                    // Only once committed: a failed flush leaves the deltas to be added next time
+                    for (Delta delta : deltas) {
+                        delta.usage().unflushed.addAndGet(-delta.amount());
+                        delta.usage().stored += delta.amount();
+                    }
+                }
+                readStored(earliest);
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush {} benefit quota counters, retrying next time: {}", deltas.size(),
+                        e.getMessage());
+                return;
+            }
+            log.debug("Flushed {} benefit quota counters in {} ms", deltas.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${membership.benefits.quota.flush-interval:5000}",
+            initialDelayString = "${membership.benefits.quota.flush-interval:5000}")
+    public void flushPeriodically() {
+        bulkheads.run(Bulkhead.ADMIN, "benefit quota flush", this::flush);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private UsageKey key(long userId, Benefit benefit) {
+        return new UsageKey(userId, benefit.id(), benefit.quotaPeriod().start(LocalDate.now(clock)));
+    }
+
+    /**
+     * Start of the longest period containing today: counters starting earlier belong to ended periods.
+     */
+    private LocalDate earliestCurrentPeriodStart() {
+        LocalDate today = LocalDate.now(clock);
+        return Arrays.stream(QuotaPeriod.values())
+                .map(period -> period.start(today))
+                .min(LocalDate::compareTo)
+                .orElse(today);
+    }
+
+    private static long limit(Benefit benefit) {
+        BigDecimal limit = benefit.quotaLimit();
+        return benefit.type() == BenefitType.DISCOUNT ? limit.movePointRight(2).longValue() : limit.longValue();
+    }
+
+    private record UsageKey(long userId, long benefitId, LocalDate periodStart) {
+    }
+
+    private record Delta(UsageKey key, Usage usage, long amount) {
+    }
+
+    /**
+     * {@code used} is {@code stored} plus {@code unflushed}: what the table held at the last read, and what
+     * this instance reserved since its last flush.
+     */
+    private static final class Usage {
+
+        private final AtomicLong used = new AtomicLong();
+        private final AtomicLong unflushed = new AtomicLong();
+        // Guarded by flushLock
+        private long stored;
+    }
+}
@@ -0,0 +1,15 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.entity.Campaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+
+    List<Campaign> findByEndsAtAfterOrderByStartsAt(LocalDateTime instant);
+
+    List<Campaign> findAllByOrderByStartsAt();
+}
@@ -0,0 +1,11 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.entity.Cohort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface CohortRepository extends JpaRepository<Cohort, Long> {
+    Optional<Cohort> findByName(String name);
+}
@@ -3,12 +3,16 @@ package com.firstclub.membership.repository;
 import com.firstclub.membership.entity.Membership;
 import com.firstclub.membership.entity.User;
 import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,5 +26,23 @@ public interface MembershipRepository extends JpaRepository<Membership, Long> {
     @Query("SELECT m FROM Membership m WHERE m.user.id = :userId")
     Optional<Membership> findByUserIdWithLock(@Param("userId") Long userId);
 
+    /**
+     * Tier and cohort name of the user's membership, without loading the membership, user or cohort.
+     */
+    @Query("SELECT t.tierLevel AS tier, c.name AS cohort FROM Membership m JOIN m.tier t JOIN m.user u "
+            + "LEFT JOIN u.cohort c WHERE u.id = :userId")
+    Optional<TierAndCohort> findTierAndCohortByUserId(@Param("userId") Long userId);
+
     boolean existsByUserAndStatus(User user, MembershipStatus status);
+
+    List<Membership> findByStatusAndExpiryDateLessThanEqualOrderByExpiryDate(MembershipStatus status,
+                                                                              LocalDateTime expiryDate,
+                                                                              Pageable pageable);
+
+    interface TierAndCohort {
+
+        TierLevel getTier();
+
+        String getCohort();
+    }
 }
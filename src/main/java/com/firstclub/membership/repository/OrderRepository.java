@@ -9,7 +9,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.orderDate >= :startDate")
     long countOrdersByUserSince(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
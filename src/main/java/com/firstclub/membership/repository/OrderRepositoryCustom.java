@@ -0,0 +1,16 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.dto.OrderResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * One page of a user's orders, newest first, strictly after the (orderDate, id) cursor when given, and
+     * placed in [from, to) when those are given.
+     * Reads only the columns OrderResponse needs so the query is answered from the covering index.
+     */
+    List<OrderResponse> findOrderHistoryPage(Long userId, LocalDateTime cursorDate, Long cursorId,
+                                             String category, LocalDateTime from, LocalDateTime to, int limit);
+}
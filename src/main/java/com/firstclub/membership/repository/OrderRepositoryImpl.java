@@ -0,0 +1,70 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.dto.OrderResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset pagination over orders backed by idx_orders_user_history.
+ * The cursor predicate is written as a range on order_date plus a tie-break on id
+ * so the index seek is the same for the first page and the thousandth.
+ */
+@RequiredArgsConstructor
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<OrderResponse> findOrderHistoryPage(Long userId, LocalDateTime cursorDate, Long cursorId,
+                                                    String category, LocalDateTime from, LocalDateTime to,
+                                                    int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, order_value, category, order_date, free_delivery_applied, "
+                + "discount_percentage, discount_amount, points_earned, points_redeemed, points_redemption_amount "
+                + "FROM orders WHERE user_id = :userId");
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+
+        if (cursorDate != null) {
+            sql.append(" AND order_date <= :cursorDate AND (order_date < :cursorDate OR id < :cursorId)");
+            params.addValue("cursorDate", cursorDate).addValue("cursorId", cursorId);
+        }
+        if (category != null) {
+            sql.append(" AND category = :category");
+            params.addValue("category", category);
+        }
+        if (from != null) {
+            sql.append(" AND order_date >= :from");
+            params.addValue("from", from);
+        }
+        if (to != null) {
+            sql.append(" AND order_date < :to");
+            params.addValue("to", to);
+        }
+        sql.append(" ORDER BY order_date DESC, id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            BigDecimal orderValue = rs.getBigDecimal("order_value");
+            BigDecimal discountAmount = rs.getBigDecimal("discount_amount");
+            BigDecimal redemptionAmount = rs.getBigDecimal("points_redemption_amount");
+            BigDecimal finalAmount = discountAmount != null ? orderValue.subtract(discountAmount) : orderValue;
+            return OrderResponse.builder()
+                    .orderId(rs.getLong("id"))
+                    .userId(userId)
+                    .orderValue(orderValue)
+                    .category(rs.getString("category"))
+                    .orderDate(rs.getTimestamp("order_date").toLocalDateTime())
+                    .freeDeliveryApplied(rs.getBoolean("free_delivery_applied"))
+                    .discountPercentage(rs.getBigDecimal("discount_percentage"))
+                    .discountAmount(discountAmount)
+                    .pointsEarned(rs.getObject("points_earned", Long.class))
+                    .pointsRedeemed(rs.getObject("points_redeemed", Long.class))
+                    .pointsRedemptionAmount(redemptionAmount)
+                    .finalAmount(redemptionAmount != null ? finalAmount.subtract(redemptionAmount) : finalAmount)
+                    .build();
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.entity.PointsLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface PointsLedgerRepository extends JpaRepository<PointsLedgerEntry, Long> {
+
+    List<PointsLedgerEntry> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+}
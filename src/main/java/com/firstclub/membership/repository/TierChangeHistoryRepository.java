@@ -0,0 +1,20 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.entity.TierChangeHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TierChangeHistoryRepository extends JpaRepository<TierChangeHistory, Long> {
+
+    Optional<TierChangeHistory> findFirstByUserIdAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(
+            Long userId, LocalDateTime at);
+
+    List<TierChangeHistory> findByUserIdOrderByChangedAtDescIdDesc(Long userId, Pageable pageable);
+
+    List<TierChangeHistory> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
+}
@@ -1,20 +1,34 @@
 package com.firstclub.membership.service;
 
-import com.firstclub.membership.entity.Membership;
+import com.firstclub.membership.benefit.Benefit;
+import com.firstclub.membership.benefit.BenefitHandler;
+import com.firstclub.membership.benefit.BenefitHandlerRegistry;
+import com.firstclub.membership.benefit.TierBenefits;
+import com.firstclub.membership.cache.MembershipStateCache;
+import com.firstclub.membership.cache.ReadCoalescer;
+import com.firstclub.membership.cache.TierBenefitCatalog;
+import com.firstclub.membership.campaign.CampaignIndex;
 import com.firstclub.membership.entity.Order;
-import com.firstclub.membership.entity.TierBenefit;
+import com.firstclub.membership.enums.BenefitType;
+import com.firstclub.membership.enums.TierLevel;
 import com.firstclub.membership.repository.MembershipRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Service for calculating benefits based on membership tier.
- * Uses Strategy-like pattern for different benefit types.
+ * Each benefit type is evaluated by its {@link BenefitHandler}, looked up by type in the registry, over
+ * the tier's own benefits followed by those of the tier's campaigns running at the time.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,26 +36,35 @@ import java.util.Optional;
 public class BenefitCalculationService {
 
     private final MembershipRepository membershipRepository;
+    private final MembershipStateCache membershipStateCache;
+    private final TierBenefitCatalog benefitCatalog;
+    private final BenefitHandlerRegistry handlerRegistry;
+    private final CampaignIndex campaignIndex;
+    private final ReadCoalescer readCoalescer;
+    private final Clock clock;
+
+    private record ActiveTier(TierLevel tier, TierBenefits benefits) {
+    }
 
     /**
      * Apply membership benefits to an order.
      */
     @Transactional
     public Order applyBenefits(Order order) {
-        Optional<Membership> membershipOpt = membershipRepository.findByUserId(order.getUser().getId());
+        Optional<ActiveTier> active = activeTier(order.getUser().getId());
 
-        if (membershipOpt.isEmpty() || !membershipOpt.get().isActive()) {
+        if (active.isEmpty()) {
             log.debug("No active membership for user {}", order.getUser().getId());
             return order;
         }
 
-        Membership membership = membershipOpt.get();
-
-        // Apply free delivery benefit
-        applyFreeDelivery(order, membership);
-
-        // Apply discount benefit
-        applyDiscount(order, membership);
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (BenefitType type : BenefitType.values()) {
+            List<Benefit> benefits = matching(active.get(), type, order.getCategory(), now);
+            if (!benefits.isEmpty()) {
+                handlerRegistry.handler(type).apply(order, benefits);
+            }
+        }
 
         log.info("Applied benefits to order {} for user {}", order.getId(), order.getUser().getId());
         return order;
@@ -51,85 +74,83 @@ public class BenefitCalculationService {
      * Check if user is eligible for free delivery.
      */
     public boolean isEligibleForFreeDelivery(Long userId, String category) {
-        Optional<Membership> membershipOpt = membershipRepository.findByUserId(userId);
-
-        if (membershipOpt.isEmpty() || !membershipOpt.get().isActive()) {
-            return false;
-        }
-
-        Membership membership = membershipOpt.get();
-
-        return membership.getTier().getBenefits().stream()
-                .filter(b -> "FREE_DELIVERY".equals(b.getBenefitType()))
-                .filter(b -> "true".equalsIgnoreCase(b.getBenefitValue()))
-                .anyMatch(b -> b.getApplicableCategory() == null ||
-                        b.getApplicableCategory().equalsIgnoreCase(category));
+        return Boolean.TRUE.equals(entitlement(userId, category, BenefitType.FREE_DELIVERY));
     }
 
     /**
      * Get applicable discount percentage for user and category.
      */
     public BigDecimal getApplicableDiscount(Long userId, String category) {
-        Optional<Membership> membershipOpt = membershipRepository.findByUserId(userId);
-
-        if (membershipOpt.isEmpty() || !membershipOpt.get().isActive()) {
-            return BigDecimal.ZERO;
-        }
-
-        Membership membership = membershipOpt.get();
-
-        return membership.getTier().getBenefits().stream()
-                .filter(b -> "DISCOUNT".equals(b.getBenefitType()))
-                .filter(b -> b.getApplicableCategory() == null ||
-                        b.getApplicableCategory().equalsIgnoreCase(category))
-                .map(b -> new BigDecimal(b.getBenefitValue()))
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
+        BigDecimal discount = (BigDecimal) entitlement(userId, category, BenefitType.DISCOUNT);
+        return discount != null ? discount : BigDecimal.ZERO;
     }
 
-    private void applyFreeDelivery(Order order, Membership membership) {
-        boolean hasFreeDelivery = membership.getTier().getBenefits().stream()
-                .filter(b -> "FREE_DELIVERY".equals(b.getBenefitType()))
-                .filter(b -> "true".equalsIgnoreCase(b.getBenefitValue()))
-                .anyMatch(b -> isBenefitApplicable(b, order.getCategory()));
-
-        if (hasFreeDelivery) {
-            order.setFreeDeliveryApplied(true);
-            log.debug("Free delivery applied for order {}", order.getId());
+    /**
+     * Everything the user is currently entitled to for an order in the category, by benefit type.
+     */
+    public Map<BenefitType, Object> getEntitlements(Long userId, String category) {
+        Map<BenefitType, Object> entitlements = new EnumMap<>(BenefitType.class);
+        Optional<ActiveTier> active = activeTier(userId);
+        if (active.isEmpty()) {
+            return entitlements;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (BenefitType type : BenefitType.values()) {
+            Object entitlement = handlerRegistry.handler(type)
+                    .entitlement(userId, category, matching(active.get(), type, category, now));
+            if (entitlement != null) {
+                entitlements.put(type, entitlement);
+            }
         }
+        return entitlements;
     }
 
-    private void applyDiscount(Order order, Membership membership) {
-        Optional<TierBenefit> applicableBenefit = membership.getTier().getBenefits().stream()
-                .filter(b -> "DISCOUNT".equals(b.getBenefitType()))
-                .filter(b -> isBenefitApplicable(b, order.getCategory()))
-                .findFirst();
-
-        if (applicableBenefit.isPresent()) {
-            BigDecimal discountPercent = new BigDecimal(applicableBenefit.get().getBenefitValue());
-            BigDecimal discountAmount = order.getOrderValue()
-                    .multiply(discountPercent)
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
-
-            order.setDiscountPercentage(discountPercent);
-            order.setDiscountAmount(discountAmount);
+    /**
+     * The user's tier if their membership is active.
+     */
+    public Optional<TierLevel> getActiveTier(Long userId) {
+        return activeTier(userId).map(ActiveTier::tier);
+    }
 
-            log.debug("Applied {}% discount (amount: {}) for order {}",
-                    discountPercent, discountAmount, order.getId());
-        }
+    private Object entitlement(Long userId, String category, BenefitType type) {
+        return activeTier(userId)
+                .map(active -> handlerRegistry.handler(type)
+                        .entitlement(userId, category, matching(active, type, category, LocalDateTime.now(clock))))
+                .orElse(null);
     }
 
-    private boolean isBenefitApplicable(TierBenefit benefit, String orderCategory) {
-        // If benefit has no category restriction, it applies to all
-        if (benefit.getApplicableCategory() == null || benefit.getApplicableCategory().isBlank()) {
-            return true;
+    /**
+     * The tier's benefits of the type covering the category, followed by those of its running campaigns.
+     */
+    private List<Benefit> matching(ActiveTier active, BenefitType type, String category, LocalDateTime now) {
+        List<Benefit> base = active.benefits().matching(type, category);
+        List<Benefit> promotions = campaignIndex.active(active.tier(), type, category, now);
+        if (promotions.isEmpty()) {
+            return base;
         }
+        List<Benefit> all = new ArrayList<>(base.size() + promotions.size());
+        all.addAll(base);
+        all.addAll(promotions);
+        return all;
+    }
 
-        // If order has no category, benefit only applies if it has no category restriction
-        if (orderCategory == null || orderCategory.isBlank()) {
-            return false;
+    /**
+     * The user's tier and its benefits if their membership is active, empty otherwise.
+     * Served from the membership state cache and benefit catalog once they are loaded.
+     */
+    private Optional<ActiveTier> activeTier(Long userId) {
+        if (membershipStateCache.isLoaded() && benefitCatalog.isLoaded()) {
+            long state = membershipStateCache.get(userId);
+            if (!membershipStateCache.isActive(state)) {
+                return Optional.empty();
+            }
+            TierLevel tier = MembershipStateCache.tier(state);
+            return Optional.of(new ActiveTier(tier, benefitCatalog.benefits(tier)));
         }
 
-        return benefit.getApplicableCategory().equalsIgnoreCase(orderCategory);
+        return readCoalescer.read("active-benefits", userId, userId, () -> membershipRepository.findByUserId(userId)
+                .filter(m -> m.isActive(clock))
+                .map(m -> new ActiveTier(m.getTier().getTierLevel(),
+                        handlerRegistry.resolveAll(m.getTier().getBenefits()))));
     }
 }
@@ -0,0 +1,92 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.benefit.BenefitHandlerRegistry;
+import com.firstclub.membership.dto.CampaignRequest;
+import com.firstclub.membership.dto.CampaignResponse;
+import com.firstclub.membership.entity.Campaign;
+import com.firstclub.membership.event.CampaignChangedEvent;
+import com.firstclub.membership.repository.CampaignRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CampaignService {
+
+    private final CampaignRepository campaignRepository;
+    private final BenefitHandlerRegistry handlerRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    /**
+     * Schedule a campaign. It takes effect at its start time once the transaction commits.
+     */
+    @Transactional
+    public CampaignResponse createCampaign(CampaignRequest request) {
+        if (!request.getEndsAt().isAfter(request.getStartsAt())) {
+            throw new IllegalArgumentException("Campaign must end after it starts");
+        }
+        if (!request.getEndsAt().isAfter(LocalDateTime.now(clock))) {
+            throw new IllegalArgumentException("Campaign has already ended");
+        }
+
+        Campaign campaign = campaignRepository.save(Campaign.builder()
+                .name(request.getName().trim())
+                .tierLevel(request.getTierLevel())
+                .benefitType(request.getBenefitType())
+                .benefitValue(request.getBenefitValue().trim())
+                .applicableCategory(BenefitHandlerRegistry.normalizeCategory(request.getApplicableCategory()))
+                .startsAt(request.getStartsAt())
+                .endsAt(request.getEndsAt())
+                .build());
+        // Validates the value with the type's handler; an invalid one rolls the insert back
+        handlerRegistry.resolve(campaign);
+
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaign.getId(), campaign));
+        log.info("Scheduled campaign {} '{}' for {} from {} to {}", campaign.getId(), campaign.getName(),
+                campaign.getTierLevel(), campaign.getStartsAt(), campaign.getEndsAt());
+        return convertToResponse(campaign);
+    }
+
+    /**
+     * All campaigns ordered by start time, or only those running now.
+     */
+    @Transactional(readOnly = true)
+    public List<CampaignResponse> getCampaigns(boolean runningOnly) {
+        return campaignRepository.findAllByOrderByStartsAt().stream()
+                .map(this::convertToResponse)
+                .filter(c -> !runningOnly || c.isRunning())
+                .toList();
+    }
+
+    @Transactional
+    public void deleteCampaign(Long campaignId) {
+        Campaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new IllegalArgumentException("Campaign not found"));
+        campaignRepository.delete(campaign);
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaignId, null));
+        log.info("Deleted campaign {} '{}'", campaignId, campaign.getName());
+    }
+
+    private CampaignResponse convertToResponse(Campaign campaign) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return CampaignResponse.builder()
+                .id(campaign.getId())
+                .name(campaign.getName())
+                .tierLevel(campaign.getTierLevel())
+                .benefitType(campaign.getBenefitType())
+                .benefitValue(campaign.getBenefitValue())
+                .applicableCategory(campaign.getApplicableCategory())
+                .startsAt(campaign.getStartsAt())
+                .endsAt(campaign.getEndsAt())
+                .running(!now.isBefore(campaign.getStartsAt()) && now.isBefore(campaign.getEndsAt()))
+                .build();
+    }
+}
@@ -0,0 +1,212 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.cohort.CohortIndex;
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
+import com.firstclub.membership.dto.CohortResponse;
+import com.firstclub.membership.dto.CohortSegmentResponse;
+import com.firstclub.membership.dto.CohortTierGrantResponse;
+import com.firstclub.membership.entity.Cohort;
+import com.firstclub.membership.entity.MembershipTier;
+import com.firstclub.membership.entity.User;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import com.firstclub.membership.repository.CohortRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CohortService {
+
+    // H2 evaluates = ANY(?) per row against the whole array, so keep arrays short
+    private static final int GRANT_CHUNK_SIZE = 1_000;
+
+    // Locks the rows that still qualify so the update below changes exactly these
+    private static final String LOCK_GRANTABLE_SQL = "SELECT user_id, tier_id, expiry_date FROM memberships "
+            + "WHERE user_id = ANY(?) AND status = 'ACTIVE' AND expiry_date > ? AND tier_id = ANY(?) FOR UPDATE";
+    private static final String GRANT_TIER_SQL = "UPDATE memberships SET tier_id = ?, last_modified = ?, "
+            + "version = version + 1 WHERE user_id = ANY(?)";
+
+    private final CohortRepository cohortRepository;
+    private final UserRepository userRepository;
+    private final MembershipTierRepository tierRepository;
+    private final CohortIndex cohortIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    /**
+     * Cohort names are stored trimmed and lower-cased, so "Premium " and "premium" are the same cohort.
+     */
+    public static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Cohort name is required");
+        }
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Find the cohort by name, creating it if it does not exist yet.
+     */
+    @Transactional
+    public Cohort resolve(String name) {
+        String normalized = normalize(name);
+        return cohortRepository.findByName(normalized)
+                .orElseGet(() -> cohortRepository.save(Cohort.builder().name(normalized).build()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CohortResponse> getAllCohorts() {
+        Map<Long, Integer> sizes = cohortIndex.cohortSizes();
+        return cohortRepository.findAll().stream()
+                .sorted(Comparator.comparing(Cohort::getName))
+                .map(c -> CohortResponse.builder()
+                        .id(c.getId())
+                        .name(c.getName())
+                        .description(c.getDescription())
+                        .users((long) sizes.getOrDefault(c.getId(), 0))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Users in the cohort with one of the given tiers (all tiers when empty) and, when set, the status.
+     */
+    @Transactional(readOnly = true)
+    public CohortSegmentResponse getSegment(String cohortName, List<TierLevel> tiers, MembershipStatus status,
+                                            int limit) {
+        Cohort cohort = findCohort(cohortName);
+        List<TierLevel> segmentTiers = tiers == null || tiers.isEmpty() ? List.of(TierLevel.values()) : tiers;
+        RoaringBitmap users = cohortIndex.members(cohort.getId(), segmentTiers, status);
+
+        List<Long> userIds = new ArrayList<>(Math.min(limit, users.getCardinality()));
+        PeekableIntIterator it = users.getIntIterator();
+        while (it.hasNext() && userIds.size() < limit) {
+            userIds.add((long) it.next());
+        }
+        return CohortSegmentResponse.builder()
+                .cohort(cohort.getName())
+                .tiers(segmentTiers)
+                .status(status)
+                .count(users.getLongCardinality())
+                .userIds(userIds)
+                .build();
+    }
+
+    /**
+     * Move a user into a cohort, creating the cohort if needed.
+     */
+    @Transactional
+    public CohortResponse assignUser(String cohortName, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        Cohort cohort = resolve(cohortName);
+        user.setCohort(cohort);
+        userRepository.save(user);
+        stalenessGuard.recordWrite(userId);
+        log.info("User {} moved to cohort {}", userId, cohort.getName());
+        return CohortResponse.builder()
+                .id(cohort.getId())
+                .name(cohort.getName())
+                .description(cohort.getDescription())
+                .build();
+    }
+
+    /**
+     * Upgrade every active member of the cohort who is below the given tier.
+     *
+     * <p>Candidates come from the cohort index; each chunk of them is re-checked and locked in the database
+     * and then updated with one set-based statement, so members who changed since the index saw them are
+     * skipped rather than overwritten. Every upgraded member gets a {@link MembershipChangedEvent}.
+     */
+    @Transactional
+    public CohortTierGrantResponse grantTier(String cohortName, TierLevel tierLevel) {
+        long start = System.nanoTime();
+        Cohort cohort = findCohort(cohortName);
+        MembershipTier tier = tierRepository.findByTierLevel(tierLevel)
+                .orElseThrow(() -> new IllegalStateException("Tier not found: " + tierLevel));
+
+        Map<Long, TierLevel> lowerTiers = new HashMap<>();
+        for (MembershipTier candidate : tierRepository.findAll()) {
+            if (candidate.getTierLevel().isLowerThan(tierLevel)) {
+                lowerTiers.put(candidate.getId(), candidate.getTierLevel());
+            }
+        }
+        if (lowerTiers.isEmpty()) {
+            throw new IllegalArgumentException("No tier below " + tierLevel + " to upgrade from");
+        }
+
+        RoaringBitmap candidates = cohortIndex.members(cohort.getId(), lowerTiers.values(), MembershipStatus.ACTIVE);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Long[] lowerTierIds = lowerTiers.keySet().toArray(Long[]::new);
+        long upgraded = 0;
+
+        int[] ids = candidates.toArray();
+        for (int from = 0; from < ids.length; from += GRANT_CHUNK_SIZE) {
+            Long[] chunk = Arrays.stream(ids, from, Math.min(ids.length, from + GRANT_CHUNK_SIZE))
+                    .mapToObj(Long::valueOf)
+                    .toArray(Long[]::new);
+
+            List<Object[]> grantable = jdbcTemplate.query(LOCK_GRANTABLE_SQL, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", chunk));
+                ps.setTimestamp(2, Timestamp.valueOf(now));
+                ps.setArray(3, ps.getConnection().createArrayOf("BIGINT", lowerTierIds));
+            }, (rs, row) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime()});
+            if (grantable.isEmpty()) {
+                continue;
+            }
+
+            Long[] userIds = grantable.stream().map(r -> (Long) r[0]).toArray(Long[]::new);
+            upgraded += jdbcTemplate.update(GRANT_TIER_SQL, ps -> {
+                ps.setLong(1, tier.getId());
+                ps.setTimestamp(2, Timestamp.valueOf(now));
+                ps.setArray(3, ps.getConnection().createArrayOf("BIGINT", userIds));
+            });
+            for (Object[] row : grantable) {
+                Long userId = (Long) row[0];
+                stalenessGuard.recordWrite(userId);
+                eventPublisher.publishEvent(new MembershipChangedEvent(userId, lowerTiers.get((Long) row[1]),
+                        MembershipStatus.ACTIVE, tierLevel, MembershipStatus.ACTIVE, (LocalDateTime) row[2],
+                        TierChangeCause.COHORT_GRANT, null));
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Granted {} to {} of {} candidates in cohort {} in {} ms",
+                tierLevel, upgraded, candidates.getCardinality(), cohort.getName(), elapsedMs);
+        return CohortTierGrantResponse.builder()
+                .cohort(cohort.getName())
+                .tierLevel(tierLevel)
+                .candidates(candidates.getLongCardinality())
+                .upgraded(upgraded)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private Cohort findCohort(String name) {
+        return cohortRepository.findByName(normalize(name))
+                .orElseThrow(() -> new IllegalArgumentException("Cohort not found: " + name));
+    }
+}
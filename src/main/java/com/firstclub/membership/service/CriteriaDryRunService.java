@@ -0,0 +1,197 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.criteria.CompiledCriteria;
+import com.firstclub.membership.criteria.MemberActivitySnapshot;
+import com.firstclub.membership.dto.CriteriaDefinition;
+import com.firstclub.membership.dto.CriteriaDryRunRequest;
+import com.firstclub.membership.dto.CriteriaDryRunResponse;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a proposed criteria set against every active member without changing anything.
+ *
+ * <p>Month-to-date order count and value per member come from one aggregate query; the evaluation
+ * itself is a fork/join pass over the resulting arrays, so the cost is dominated by the query.
+ * Members keep the rule semantics of {@link TierEvaluationService}: the highest tier whose criteria
+ * they meet, SILVER otherwise. Tier evaluation only ever upgrades, so only members qualifying for a
+ * higher tier would move; those qualifying for a lower one keep their tier and are reported separately
+ * as below criteria.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CriteriaDryRunService {
+
+    private static final int DEFAULT_SAMPLE_SIZE = 10;
+    private static final int SEQUENTIAL_THRESHOLD = 16_384;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    @Transactional(readOnly = true)
+    public CriteriaDryRunResponse dryRun(CriteriaDryRunRequest request) {
+        CompiledCriteria criteria = CompiledCriteria.compile(request.getCriteria().stream()
+                .map(CriteriaDefinition::toCriteria)
+                .toList());
+        int sampleSize = request.getSampleSize() != null ? request.getSampleSize() : DEFAULT_SAMPLE_SIZE;
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime monthStart = LocalDate.now(clock).withDayOfMonth(1).atStartOfDay();
+
+        long start = System.nanoTime();
+        MemberActivitySnapshot snapshot = MemberActivitySnapshot.load(jdbcTemplate, monthStart, now);
+        long loaded = System.nanoTime();
+        Tally tally = ForkJoinPool.commonPool().invoke(new EvaluateTask(snapshot, criteria,
+                criteria.cohortTable(snapshot.cohortDictionary()), sampleSize, 0, snapshot.size()));
+        long evaluated = System.nanoTime();
+
+        CriteriaDryRunResponse response = toResponse(tally, snapshot.size(), YearMonth.from(now));
+        response.setLoadMs((loaded - start) / 1_000_000);
+        response.setEvaluationMs((evaluated - loaded) / 1_000_000);
+        log.info("Criteria dry-run over {} members: {} unchanged, load {} ms, evaluation {} ms",
+                snapshot.size(), response.getUnchanged(), response.getLoadMs(), response.getEvaluationMs());
+        return response;
+    }
+
+    private CriteriaDryRunResponse toResponse(Tally tally, int members, YearMonth month) {
+        TierLevel[] tiers = TierLevel.values();
+        Map<TierLevel, Long> upgrades = new EnumMap<>(TierLevel.class);
+        Map<TierLevel, Long> belowCriteria = new EnumMap<>(TierLevel.class);
+        List<CriteriaDryRunResponse.Transition> transitions = new ArrayList<>();
+        long moved = 0;
+        for (int from = 0; from < tiers.length; from++) {
+            for (int to = 0; to < tiers.length; to++) {
+                long count = tally.counts[from][to];
+                if (from == to || count == 0) {
+                    continue;
+                }
+                if (to < from) {
+                    belowCriteria.merge(tiers[from], count, Long::sum);
+                    continue;
+                }
+                moved += count;
+                upgrades.merge(tiers[to], count, Long::sum);
+                transitions.add(CriteriaDryRunResponse.Transition.builder()
+                        .from(tiers[from])
+                        .to(tiers[to])
+                        .count(count)
+                        .sampleUserIds(tally.samples(from, to))
+                        .build());
+            }
+        }
+        return CriteriaDryRunResponse.builder()
+                .month(month.toString())
+                .evaluatedMembers(members)
+                .unchanged(members - moved)
+                .upgrades(upgrades)
+                .belowCriteria(belowCriteria)
+                .transitions(transitions)
+                .build();
+    }
+
+    /**
+     * Transition counts and the first sampled user ids per (from, to) tier pair.
+     */
+    private static final class Tally {
+
+        private final long[][] counts;
+        private final List<List<Long>> samples; // indexed from * tiers + to
+
+        Tally(int tiers) {
+            counts = new long[tiers][tiers];
+            samples = new ArrayList<>(tiers * tiers);
+            for (int i = 0; i < tiers * tiers; i++) {
+                samples.add(new ArrayList<>());
+            }
+        }
+
+        List<Long> samples(int from, int to) {
+            return samples.get(from * counts.length + to);
+        }
+
+        void merge(Tally other, int sampleSize) {
+            for (int from = 0; from < counts.length; from++) {
+                for (int to = 0; to < counts.length; to++) {
+                    counts[from][to] += other.counts[from][to];
+                    List<Long> target = samples(from, to);
+                    for (Long userId : other.samples(from, to)) {
+                        if (target.size() >= sampleSize) {
+                            break;
+                        }
+                        target.add(userId);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class EvaluateTask extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MemberActivitySnapshot snapshot;
+        private final CompiledCriteria criteria;
+        private final boolean[][] cohortAllowed;
+        private final int sampleSize;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(MemberActivitySnapshot snapshot, CompiledCriteria criteria, boolean[][] cohortAllowed,
+                     int sampleSize, int from, int to) {
+            this.snapshot = snapshot;
+            this.criteria = criteria;
+            this.cohortAllowed = cohortAllowed;
+            this.sampleSize = sampleSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                EvaluateTask left = new EvaluateTask(snapshot, criteria, cohortAllowed, sampleSize, from, mid);
+                left.fork();
+                Tally right = new EvaluateTask(snapshot, criteria, cohortAllowed, sampleSize, mid, to).compute();
+                Tally result = left.join();
+                result.merge(right, sampleSize);
+                return result;
+            }
+
+            Tally tally = new Tally(TierLevel.values().length);
+            int silver = TierLevel.SILVER.ordinal();
+            for (int i = from; i < to; i++) {
+                int qualified = silver;
+                int cohort = snapshot.cohortId(i);
+                for (int rule = 0; rule < criteria.size(); rule++) {
+                    if (cohortAllowed[rule][cohort]
+                            && criteria.meetsActivity(rule, snapshot.orderCount(i), snapshot.valueCents(i))) {
+                        qualified = criteria.targetTier(rule).ordinal();
+                        break;
+                    }
+                }
+                int current = snapshot.tierOrdinal(i);
+                tally.counts[current][qualified]++;
+                if (current < qualified && tally.samples(current, qualified).size() < sampleSize) {
+                    tally.samples(current, qualified).add(snapshot.userId(i));
+                }
+            }
+            return tally;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.firstclub.membership.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams full table dumps as newline-delimited JSON.
+ * Rows are read through a forward-only, read-only JDBC cursor and written to the
+ * output as they arrive, so heap usage does not grow with table size.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final String MEMBERSHIPS_SQL = "SELECT m.id, m.user_id, u.email, c.name AS cohort, p.name AS plan_name, "
+            + "p.duration, t.tier_level, m.status, m.start_date, m.expiry_date, m.last_modified "
+            + "FROM memberships m "
+            + "JOIN users u ON u.id = m.user_id "
+            + "LEFT JOIN cohorts c ON c.id = u.cohort_id "
+            + "JOIN membership_plans p ON p.id = m.plan_id "
+            + "JOIN membership_tiers t ON t.id = m.tier_id";
+
+    private static final String ORDERS_SQL = "SELECT o.id, o.user_id, o.order_value, o.order_date, o.category, "
+            + "o.free_delivery_applied, o.discount_percentage, o.discount_amount "
+            + "FROM orders o";
+
+    private static final String ORDERS_BY_TIER_JOIN = " JOIN memberships m ON m.user_id = o.user_id "
+            + "JOIN membership_tiers t ON t.id = m.tier_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int flushEveryRows;
+
+    public ExportService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${membership.export.fetch-size:1000}") int fetchSize,
+                         @Value("${membership.export.flush-every-rows:500}") int flushEveryRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.flushEveryRows = flushEveryRows;
+    }
+
+    /**
+     * Export memberships last modified in [from, to), optionally restricted to one tier.
+     */
+    public long exportMemberships(LocalDate from, LocalDate to, TierLevel tier, OutputStream out) {
+        StringBuilder sql = new StringBuilder(MEMBERSHIPS_SQL);
+        List<Object> params = new ArrayList<>();
+        appendFilters(sql, params, "m.last_modified", from, to, tier);
+        sql.append(" ORDER BY m.id");
+
+        return stream(sql.toString(), params, out, (rs, json) -> {
+            json.writeNumberField("membershipId", rs.getLong("id"));
+            json.writeNumberField("userId", rs.getLong("user_id"));
+            json.writeStringField("userEmail", rs.getString("email"));
+            json.writeStringField("cohort", rs.getString("cohort"));
+            json.writeStringField("planName", rs.getString("plan_name"));
+            json.writeStringField("planDuration", rs.getString("duration"));
+            json.writeStringField("tierLevel", rs.getString("tier_level"));
+            json.writeStringField("status", rs.getString("status"));
+            json.writeStringField("startDate", isoString(rs.getTimestamp("start_date")));
+            json.writeStringField("expiryDate", isoString(rs.getTimestamp("expiry_date")));
+            json.writeStringField("lastModified", isoString(rs.getTimestamp("last_modified")));
+        });
+    }
+
+    /**
+     * Export orders placed in [from, to), optionally restricted to users currently on one tier.
+     */
+    public long exportOrders(LocalDate from, LocalDate to, TierLevel tier, OutputStream out) {
+        StringBuilder sql = new StringBuilder(ORDERS_SQL);
+        if (tier != null) {
+            sql.append(ORDERS_BY_TIER_JOIN);
+        }
+        List<Object> params = new ArrayList<>();
+        appendFilters(sql, params, "o.order_date", from, to, tier);
+        sql.append(" ORDER BY o.id");
+
+        return stream(sql.toString(), params, out, (rs, json) -> {
+            json.writeNumberField("orderId", rs.getLong("id"));
+            json.writeNumberField("userId", rs.getLong("user_id"));
+            json.writeNumberField("orderValue", rs.getBigDecimal("order_value"));
+            json.writeStringField("orderDate", isoString(rs.getTimestamp("order_date")));
+            json.writeStringField("category", rs.getString("category"));
+            json.writeBooleanField("freeDeliveryApplied", rs.getBoolean("free_delivery_applied"));
+            json.writeNumberField("discountPercentage", rs.getBigDecimal("discount_percentage"));
+            json.writeNumberField("discountAmount", rs.getBigDecimal("discount_amount"));
+        });
+    }
+
+    private void appendFilters(StringBuilder sql, List<Object> params, String dateColumn,
+                               LocalDate from, LocalDate to, TierLevel tier) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add(dateColumn + " >= ?");
+            params.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            conditions.add(dateColumn + " < ?");
+            params.add(Timestamp.valueOf(to.atStartOfDay()));
+        }
+        if (tier != null) {
+            conditions.add("t.tier_level = ?");
+            params.add(tier.name());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private long stream(String sql, List<Object> params, OutputStream out, RowWriter rowWriter) {
+        long start = System.nanoTime();
+        Long rows = readOnlyTransaction.execute(status -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.setRootValueSeparator(null);
+                long[] count = {0};
+                RowCallbackHandler handler = rs -> {
+                    try {
+                        json.writeStartObject();
+                        rowWriter.write(rs, json);
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                        if (++count[0] % flushEveryRows == 0) {
+                            json.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    return ps;
+                }, handler);
+                json.flush();
+                return count[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} rows in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private static String isoString(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, JsonGenerator json) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,90 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.bulkhead.Bulkhead;
+import com.firstclub.membership.bulkhead.BulkheadExecutors;
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
+import com.firstclub.membership.entity.Membership;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import com.firstclub.membership.repository.MembershipRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Marks active memberships whose expiry date has passed as EXPIRED, so the lapse shows up in the tier
+ * change history and to every listener of {@link MembershipChangedEvent} like any other status change.
+ * Runs every {@code membership.expiry.sweep-interval} on the admin bulkhead, one transaction per batch.
+ */
+@Service
+@Slf4j
+public class MembershipExpiryService {
+
+    private final MembershipRepository membershipRepository;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkheadExecutors bulkheads;
+    private final Clock clock;
+    private final int batchSize;
+
+    public MembershipExpiryService(MembershipRepository membershipRepository, ReplicaStalenessGuard stalenessGuard,
+                                   ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                                   BulkheadExecutors bulkheads, Clock clock,
+                                   @Value("${membership.expiry.batch-size:500}") int batchSize) {
+        this.membershipRepository = membershipRepository;
+        this.stalenessGuard = stalenessGuard;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkheads = bulkheads;
+        this.clock = clock;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${membership.expiry.sweep-interval:60000}",
+            initialDelayString = "${membership.expiry.sweep-interval:60000}")
+    public void expireLapsed() {
+        bulkheads.run(Bulkhead.ADMIN, "expiry sweep", this::sweep);
+    }
+
+    private void sweep() {
+        long expired = 0;
+        try {
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> expireBatch());
+                expired += batch;
+            } while (batch == batchSize);
+        } catch (DataAccessException e) {
+            // Typically a concurrent change to one of the memberships; the next sweep picks the batch up again
+            log.warn("Expiry sweep stopped after {} memberships: {}", expired, e.getMessage());
+        }
+        if (expired > 0) {
+            log.info("Expired {} lapsed memberships", expired);
+        }
+    }
+
+    private int expireBatch() {
+        List<Membership> lapsed = membershipRepository.findByStatusAndExpiryDateLessThanEqualOrderByExpiryDate(
+                MembershipStatus.ACTIVE, LocalDateTime.now(clock), PageRequest.of(0, batchSize));
+        for (Membership membership : lapsed) {
+            Long userId = membership.getUser().getId();
+            membership.setStatus(MembershipStatus.EXPIRED);
+            membershipRepository.save(membership);
+            stalenessGuard.recordWrite(userId);
+            eventPublisher.publishEvent(new MembershipChangedEvent(userId, membership.getTier().getTierLevel(),
+                    MembershipStatus.ACTIVE, membership.getTier().getTierLevel(), MembershipStatus.EXPIRED,
+                    membership.getExpiryDate(), TierChangeCause.EXPIRY, null));
+        }
+        return lapsed.size();
+    }
+}
@@ -1,18 +1,24 @@
 package com.firstclub.membership.service;
 
+import com.firstclub.membership.cache.ReadCoalescer;
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
 import com.firstclub.membership.dto.BenefitResponse;
 import com.firstclub.membership.dto.MembershipResponse;
 import com.firstclub.membership.dto.SubscriptionRequest;
 import com.firstclub.membership.entity.*;
 import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierChangeCause;
 import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
 import com.firstclub.membership.repository.*;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 
@@ -26,32 +32,41 @@ public class MembershipService {
     private final MembershipTierRepository tierRepository;
     private final UserRepository userRepository;
     private final TierEvaluationService tierEvaluationService;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final ReadCoalescer readCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
 
     private static final int MAX_RETRY_ATTEMPTS = 3;
 
     /**
-     * Subscribe a user to a membership plan.
+     * Subscribe a user to a membership plan. A user whose earlier membership was cancelled or has lapsed
+     * renews it: the same membership restarts on the new plan and keeps its tier.
      */
     @Transactional
     public MembershipResponse subscribe(SubscriptionRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Check if user already has an active membership
-        if (membershipRepository.existsByUserAndStatus(user, MembershipStatus.ACTIVE)) {
+        Membership existing = membershipRepository.findByUser(user).orElse(null);
+        if (existing != null && existing.isActive(clock)) {
             throw new IllegalStateException("User already has an active membership");
         }
 
         MembershipPlan plan = planRepository.findByIdAndActiveTrue(request.getPlanId())
                 .orElseThrow(() -> new IllegalArgumentException("Plan not found or inactive"));
 
+        LocalDateTime startDate = LocalDateTime.now(clock);
+        LocalDateTime expiryDate = startDate.plusMonths(plan.getDuration().getMonths());
+
+        if (existing != null) {
+            return renew(existing, plan, startDate, expiryDate);
+        }
+
         // Default tier is SILVER for new subscriptions
         MembershipTier tier = tierRepository.findByTierLevel(TierLevel.SILVER)
                 .orElseThrow(() -> new IllegalStateException("SILVER tier not found"));
 
-        LocalDateTime startDate = LocalDateTime.now();
-        LocalDateTime expiryDate = startDate.plusMonths(plan.getDuration().getMonths());
-
         Membership membership = Membership.builder()
                 .user(user)
                 .plan(plan)
@@ -62,11 +77,32 @@ public class MembershipService {
                 .build();
 
         membership = membershipRepository.save(membership);
+        stalenessGuard.recordWrite(user.getId());
+        eventPublisher.publishEvent(new MembershipChangedEvent(user.getId(), null, null,
+                TierLevel.SILVER, MembershipStatus.ACTIVE, expiryDate, TierChangeCause.SUBSCRIPTION, null));
         log.info("User {} subscribed to plan {} with tier {}", user.getId(), plan.getName(), tier.getName());
 
         return convertToResponse(membership);
     }
 
+    private MembershipResponse renew(Membership membership, MembershipPlan plan, LocalDateTime startDate,
+                                     LocalDateTime expiryDate) {
+        Long userId = membership.getUser().getId();
+        MembershipStatus previousStatus = membership.getStatus();
+        TierLevel tier = membership.getTier().getTierLevel();
+        membership.setPlan(plan);
+        membership.setStatus(MembershipStatus.ACTIVE);
+        membership.setStartDate(startDate);
+        membership.setExpiryDate(expiryDate);
+        membership = membershipRepository.save(membership);
+        stalenessGuard.recordWrite(userId);
+        eventPublisher.publishEvent(new MembershipChangedEvent(userId, tier, previousStatus,
+                tier, MembershipStatus.ACTIVE, expiryDate, TierChangeCause.RENEWAL, null));
+        log.info("User {} renewed membership on plan {} with tier {}", userId, plan.getName(), tier);
+
+        return convertToResponse(membership);
+    }
+
     /**
      * Upgrade membership tier manually.
      */
@@ -80,7 +116,7 @@ public class MembershipService {
             Membership membership = membershipRepository.findByUserIdWithLock(userId)
                     .orElseThrow(() -> new IllegalArgumentException("No membership found for user"));
 
-            if (!membership.isActive()) {
+            if (!membership.isActive(clock)) {
                 throw new IllegalStateException("Membership is not active");
             }
 
@@ -91,8 +127,12 @@ public class MembershipService {
             MembershipTier newTier = tierRepository.findByTierLevel(newTierLevel)
                     .orElseThrow(() -> new IllegalStateException("Tier not found: " + newTierLevel));
 
+            TierLevel previousTier = membership.getTier().getTierLevel();
             membership.setTier(newTier);
             membership = membershipRepository.save(membership);
+            stalenessGuard.recordWrite(userId);
+            eventPublisher.publishEvent(new MembershipChangedEvent(userId, previousTier, membership.getStatus(),
+                    newTierLevel, membership.getStatus(), membership.getExpiryDate(), TierChangeCause.MANUAL, null));
 
             log.info("User {} upgraded to tier {}", userId, newTierLevel);
             return convertToResponse(membership);
@@ -124,7 +164,7 @@ public class MembershipService {
             Membership membership = membershipRepository.findByUserIdWithLock(userId)
                     .orElseThrow(() -> new IllegalArgumentException("No membership found for user"));
 
-            if (!membership.isActive()) {
+            if (!membership.isActive(clock)) {
                 throw new IllegalStateException("Membership is not active");
             }
 
@@ -135,8 +175,12 @@ public class MembershipService {
             MembershipTier newTier = tierRepository.findByTierLevel(newTierLevel)
                     .orElseThrow(() -> new IllegalStateException("Tier not found: " + newTierLevel));
 
+            TierLevel previousTier = membership.getTier().getTierLevel();
             membership.setTier(newTier);
             membership = membershipRepository.save(membership);
+            stalenessGuard.recordWrite(userId);
+            eventPublisher.publishEvent(new MembershipChangedEvent(userId, previousTier, membership.getStatus(),
+                    newTierLevel, membership.getStatus(), membership.getExpiryDate(), TierChangeCause.MANUAL, null));
 
             log.info("User {} downgraded to tier {}", userId, newTierLevel);
             return convertToResponse(membership);
@@ -163,22 +207,29 @@ public class MembershipService {
         Membership membership = membershipRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("No membership found for user"));
 
+        MembershipStatus previousStatus = membership.getStatus();
         membership.setStatus(MembershipStatus.CANCELLED);
         membership = membershipRepository.save(membership);
+        stalenessGuard.recordWrite(userId);
+        eventPublisher.publishEvent(new MembershipChangedEvent(userId, membership.getTier().getTierLevel(),
+                previousStatus, membership.getTier().getTierLevel(), MembershipStatus.CANCELLED,
+                membership.getExpiryDate(), TierChangeCause.CANCELLATION, null));
 
         log.info("User {} cancelled membership", userId);
         return convertToResponse(membership);
     }
 
     /**
-     * Get current membership for user.
+     * Get current membership for user. Concurrent requests for the same user share one load.
      */
     @Transactional(readOnly = true)
     public MembershipResponse getCurrentMembership(Long userId) {
-        Membership membership = membershipRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("No membership found for user"));
-
-        return convertToResponse(membership);
+        stalenessGuard.pinIfRecentlyWritten(userId);
+        return readCoalescer.read("membership", userId, userId, () -> {
+            Membership membership = membershipRepository.findByUserId(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("No membership found for user"));
+            return convertToResponse(membership);
+        });
     }
 
     private MembershipResponse convertToResponse(Membership membership) {
@@ -194,13 +245,15 @@ public class MembershipService {
                 .status(membership.getStatus())
                 .startDate(membership.getStartDate())
                 .expiryDate(membership.getExpiryDate())
-                .isActive(membership.isActive())
+                .isActive(membership.isActive(clock))
                 .benefits(membership.getTier().getBenefits().stream()
                         .map(b -> BenefitResponse.builder()
                                 .benefitType(b.getBenefitType())
                                 .benefitValue(b.getBenefitValue())
                                 .description(b.getDescription())
                                 .applicableCategory(b.getApplicableCategory())
+                                .quotaLimit(b.getQuotaLimit())
+                                .quotaPeriod(b.getQuotaPeriod())
                                 .build())
                         .collect(Collectors.toList()))
                 .build();
@@ -42,6 +42,8 @@ public class MembershipTierService {
                 .benefitValue(benefit.getBenefitValue())
                 .description(benefit.getDescription())
                 .applicableCategory(benefit.getApplicableCategory())
+                .quotaLimit(benefit.getQuotaLimit())
+                .quotaPeriod(benefit.getQuotaPeriod())
                 .build();
     }
 }
@@ -1,28 +1,51 @@
 package com.firstclub.membership.service;
 
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
 import com.firstclub.membership.dto.CreateOrderRequest;
+import com.firstclub.membership.dto.OrderHistoryResponse;
 import com.firstclub.membership.dto.OrderResponse;
 import com.firstclub.membership.entity.Order;
 import com.firstclub.membership.entity.User;
+import com.firstclub.membership.event.OrderCreatedEvent;
+import com.firstclub.membership.persistence.OrderIdAllocator;
+import com.firstclub.membership.persistence.OrderWriteBehindBuffer;
 import com.firstclub.membership.repository.OrderRepository;
 import com.firstclub.membership.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final BenefitCalculationService benefitCalculationService;
+    private final PointsService pointsService;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final OrderWriteBehindBuffer writeBehindBuffer;
+    private final OrderIdAllocator orderIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
 
     /**
      * Create an order and apply membership benefits.
+     * In write-behind mode the order is acknowledged with a pre-allocated id and persisted asynchronously,
+     * once this transaction commits.
      */
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
@@ -35,20 +58,92 @@ public class OrderService {
                 .category(request.getCategory())
                 .build();
 
-        // Apply membership benefits
+        // Apply membership benefits, then points against what is left to pay
         order = benefitCalculationService.applyBenefits(order);
+        pointsService.applyPoints(order, request.getRedeemPoints());
 
-        order = orderRepository.save(order);
-        log.info("Created order {} for user {}", order.getId(), user.getId());
+        if (writeBehindBuffer.isEnabled()) {
+            order.setId(orderIdAllocator.nextId());
+            order.setOrderDate(LocalDateTime.now(clock));
+            writeBehindBuffer.enqueue(order);
+            log.debug("Buffered order {} for user {}", order.getId(), user.getId());
+        } else {
+            order = orderRepository.save(order);
+            log.info("Created order {} for user {}", order.getId(), user.getId());
+        }
+        pointsService.recordPoints(order);
+        stalenessGuard.recordWrite(user.getId());
+        eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), user.getId(), order.getCategory(),
+                order.getOrderDate(), order.getOrderValue(), order.getDiscountAmount(),
+                Boolean.TRUE.equals(order.getFreeDeliveryApplied())));
 
         return convertToResponse(order);
     }
 
+    /**
+     * Get a page of the user's order history, newest first, using keyset pagination on (orderDate, id).
+     * {@code from} and {@code to} are both inclusive days.
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryResponse getOrderHistory(Long userId, String cursor, int limit,
+                                                String category, LocalDate from, LocalDate to) {
+        stalenessGuard.pinIfRecentlyWritten(userId);
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDateTime.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        List<OrderResponse> page = orderRepository.findOrderHistoryPage(userId, cursorDate, cursorId, category,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                pageSize + 1);
+
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+        OrderResponse last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return OrderHistoryResponse.builder()
+                .userId(userId)
+                .orders(page)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(last.getOrderDate(), last.getOrderId()) : null)
+                .build();
+    }
+
+    private static String encodeCursor(LocalDateTime orderDate, Long orderId) {
+        String raw = orderDate + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     private OrderResponse convertToResponse(Order order) {
         BigDecimal finalAmount = order.getOrderValue();
         if (order.getDiscountAmount() != null) {
             finalAmount = finalAmount.subtract(order.getDiscountAmount());
         }
+        if (order.getPointsRedemptionAmount() != null) {
+            finalAmount = finalAmount.subtract(order.getPointsRedemptionAmount());
+        }
 
         return OrderResponse.builder()
                 .orderId(order.getId())
@@ -59,6 +154,9 @@ public class OrderService {
                 .freeDeliveryApplied(order.getFreeDeliveryApplied())
                 .discountPercentage(order.getDiscountPercentage())
                 .discountAmount(order.getDiscountAmount())
+                .pointsEarned(order.getPointsEarned())
+                .pointsRedeemed(order.getPointsRedeemed())
+                .pointsRedemptionAmount(order.getPointsRedemptionAmount())
                 .finalAmount(finalAmount)
                 .build();
     }
@@ -0,0 +1,101 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.PointsBalanceResponse;
+import com.firstclub.membership.dto.PointsEntryResponse;
+import com.firstclub.membership.entity.Order;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.points.PointsLedger;
+import com.firstclub.membership.repository.PointsLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loyalty points: active members earn points per whole currency unit paid, scaled by tier, and anyone
+ * with a balance can redeem points against an order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PointsService {
+
+    private static final int MAX_HISTORY = 200;
+
+    private final PointsLedger pointsLedger;
+    private final PointsLedgerRepository ledgerRepository;
+    private final BenefitCalculationService benefitCalculationService;
+
+    @Value("${membership.points.point-value:0.01}")
+    private BigDecimal pointValue;
+
+    /**
+     * Redeem points against an order that already has its benefits applied and work out the points it
+     * earns. Must run inside the order's transaction so a failed order gives the points back.
+     */
+    public void applyPoints(Order order, Long redeemPoints) {
+        long userId = order.getUser().getId();
+        BigDecimal payable = order.getOrderValue();
+        if (order.getDiscountAmount() != null) {
+            payable = payable.subtract(order.getDiscountAmount());
+        }
+
+        if (redeemPoints != null && redeemPoints > 0) {
+            BigDecimal redemptionAmount = pointValue.multiply(BigDecimal.valueOf(redeemPoints))
+                    .setScale(2, RoundingMode.HALF_UP);
+            if (redemptionAmount.compareTo(payable) > 0) {
+                throw new IllegalArgumentException("Redeeming " + redeemPoints + " points (" + redemptionAmount
+                        + ") exceeds the amount payable (" + payable + ")");
+            }
+            pointsLedger.reserve(userId, redeemPoints);
+            order.setPointsRedeemed(redeemPoints);
+            order.setPointsRedemptionAmount(redemptionAmount);
+            payable = payable.subtract(redemptionAmount);
+        }
+
+        long wholeUnitsPaid = payable.setScale(0, RoundingMode.DOWN).longValueExact();
+        Optional<TierLevel> tier = benefitCalculationService.getActiveTier(userId);
+        order.setPointsEarned(tier.map(t -> wholeUnitsPaid * t.getPointsPerUnit()).orElse(0L));
+    }
+
+    /**
+     * Append the order's points to the ledger once it commits; the order must have its id.
+     */
+    public void recordPoints(Order order) {
+        pointsLedger.record(order.getUser().getId(), order.getId(),
+                order.getPointsEarned() != null ? order.getPointsEarned() : 0,
+                order.getPointsRedeemed() != null ? order.getPointsRedeemed() : 0);
+    }
+
+    public PointsBalanceResponse getBalance(Long userId) {
+        long balance = pointsLedger.balance(userId);
+        return PointsBalanceResponse.builder()
+                .userId(userId)
+                .balance(balance)
+                .redeemableValue(pointValue.multiply(BigDecimal.valueOf(balance)).setScale(2, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    /**
+     * Newest ledger entries of the user. Entries of the last few milliseconds may not be written yet.
+     */
+    @Transactional(readOnly = true)
+    public List<PointsEntryResponse> getHistory(Long userId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY));
+        return ledgerRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, pageSize)).stream()
+                .map(e -> PointsEntryResponse.builder()
+                        .entryId(e.getId())
+                        .orderId(e.getOrderId())
+                        .entryType(e.getEntryType())
+                        .points(e.getPoints())
+                        .createdAt(e.getCreatedAt())
+                        .build())
+                .toList();
+    }
+}
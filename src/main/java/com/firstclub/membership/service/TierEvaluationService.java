@@ -1,7 +1,12 @@
 package com.firstclub.membership.service;
 
+import com.firstclub.membership.cache.ReadCoalescer;
+import com.firstclub.membership.criteria.CompiledCriteria;
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
 import com.firstclub.membership.entity.*;
+import com.firstclub.membership.enums.TierChangeCause;
 import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
 import com.firstclub.membership.repository.MembershipRepository;
 import com.firstclub.membership.repository.MembershipTierRepository;
 import com.firstclub.membership.repository.TierUpgradeCriteriaRepository;
@@ -10,6 +15,7 @@ import com.firstclub.membership.strategy.TierEvaluationStrategy;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +32,9 @@ public class TierEvaluationService {
     private final MembershipRepository membershipRepository;
     private final MembershipTierRepository tierRepository;
     private final UserRepository userRepository;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final ReadCoalescer readCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final int MAX_RETRY_ATTEMPTS = 3;
 
@@ -53,7 +62,8 @@ public class TierEvaluationService {
             TierLevel currentTier = membership.getTier().getTierLevel();
 
             // Find the highest tier user qualifies for
-            TierLevel newTier = findHighestEligibleTier(user, currentTier);
+            List<TierUpgradeCriteria> criteriaList = criteriaRepository.findByActiveTrue();
+            TierLevel newTier = findHighestEligibleTier(user, currentTier, criteriaList);
 
             if (newTier != null && newTier.isHigherThan(currentTier)) {
                 log.info("Upgrading user {} from {} to {}", userId, currentTier, newTier);
@@ -63,6 +73,10 @@ public class TierEvaluationService {
 
                 membership.setTier(tierEntity);
                 membershipRepository.save(membership);
+                stalenessGuard.recordWrite(userId);
+                eventPublisher.publishEvent(new MembershipChangedEvent(userId, currentTier, membership.getStatus(),
+                        newTier, membership.getStatus(), membership.getExpiryDate(), TierChangeCause.AUTO_EVALUATED,
+                        CompiledCriteria.compile(criteriaList).version()));
 
                 return Optional.of(newTier);
             }
@@ -87,9 +101,8 @@ public class TierEvaluationService {
     /**
      * Finds the highest tier the user qualifies for.
      */
-    private TierLevel findHighestEligibleTier(User user, TierLevel currentTier) {
-        List<TierUpgradeCriteria> criteriaList = criteriaRepository.findByActiveTrue();
-
+    private TierLevel findHighestEligibleTier(User user, TierLevel currentTier,
+                                              List<TierUpgradeCriteria> criteriaList) {
         TierLevel highestEligibleTier = null;
 
         for (TierUpgradeCriteria criteria : criteriaList) {
@@ -125,16 +138,16 @@ public class TierEvaluationService {
      */
     @Transactional(readOnly = true)
     public TierLevel checkEligibleTier(Long userId) {
+        stalenessGuard.pinIfRecentlyWritten(userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        Optional<Membership> membershipOpt = membershipRepository.findByUserId(userId);
-        TierLevel currentTier = membershipOpt
-                .map(m -> m.getTier().getTierLevel())
+        TierLevel currentTier = readCoalescer.read("membership-tier", userId, userId,
+                () -> membershipRepository.findByUserId(userId).map(m -> m.getTier().getTierLevel()))
                 .orElse(TierLevel.SILVER); // Default to SILVER if no membership
 
-        return findHighestEligibleTier(user, TierLevel.values()[0]) != null
-                ? findHighestEligibleTier(user, TierLevel.values()[0])
-                : currentTier;
+        TierLevel eligibleTier = findHighestEligibleTier(user, TierLevel.values()[0],
+                criteriaRepository.findByActiveTrue());
+        return eligibleTier != null ? eligibleTier : currentTier;
     }
 }
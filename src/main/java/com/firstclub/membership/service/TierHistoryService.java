@@ -0,0 +1,75 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
+import com.firstclub.membership.dto.TierChangeResponse;
+import com.firstclub.membership.entity.TierChangeHistory;
+import com.firstclub.membership.repository.TierChangeHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads the tier change history written by {@code TierHistoryRecorder}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TierHistoryService {
+
+    private static final int MAX_HISTORY = 200;
+
+    private final TierChangeHistoryRepository historyRepository;
+    private final ReplicaStalenessGuard stalenessGuard;
+
+    /**
+     * The change in effect for the user at {@code at}: its tier and status are the user's at that instant.
+     */
+    @Transactional(readOnly = true)
+    public TierChangeResponse getTierAt(Long userId, LocalDateTime at) {
+        stalenessGuard.pinIfRecentlyWritten(userId);
+        return historyRepository.findFirstByUserIdAndChangedAtLessThanEqualOrderByChangedAtDescIdDesc(userId, at)
+                .map(TierHistoryService::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("No membership history for user " + userId
+                        + " at " + at));
+    }
+
+    /**
+     * Newest tier and status changes of the user.
+     */
+    @Transactional(readOnly = true)
+    public List<TierChangeResponse> getHistory(Long userId, int limit) {
+        stalenessGuard.pinIfRecentlyWritten(userId);
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY));
+        return historyRepository.findByUserIdOrderByChangedAtDescIdDesc(userId, PageRequest.of(0, pageSize)).stream()
+                .map(TierHistoryService::toResponse)
+                .toList();
+    }
+
+    /**
+     * The user's changes after {@code afterId}, oldest first, at most {@code limit} of them.
+     */
+    @Transactional(readOnly = true)
+    public List<TierChangeResponse> getChangesAfter(Long userId, Long afterId, int limit) {
+        stalenessGuard.pinIfRecentlyWritten(userId);
+        return historyRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(TierHistoryService::toResponse)
+                .toList();
+    }
+
+    private static TierChangeResponse toResponse(TierChangeHistory change) {
+        return TierChangeResponse.builder()
+                .changeId(change.getId())
+                .userId(change.getUserId())
+                .previousTier(change.getPreviousTier())
+                .previousStatus(change.getPreviousStatus())
+                .tier(change.getTier())
+                .status(change.getStatus())
+                .cause(change.getCause())
+                .criteriaVersion(change.getCriteriaVersion())
+                .changedAt(change.getChangedAt())
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.cache.ReadCoalescer;
+import com.firstclub.membership.criteria.CompiledCriteria;
+import com.firstclub.membership.criteria.CriteriaSnapshotCache;
+import com.firstclub.membership.criteria.MonthlyActivityTracker;
+import com.firstclub.membership.datasource.ReplicaStalenessGuard;
+import com.firstclub.membership.dto.TierProgressResponse;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.repository.MembershipRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a member towards each higher tier this month, from the tracked monthly activity and the
+ * cached criteria snapshot. Uses the same rule semantics as {@link TierEvaluationService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TierProgressService {
+
+    private final MembershipRepository membershipRepository;
+    private final MonthlyActivityTracker activityTracker;
+    private final CriteriaSnapshotCache criteriaCache;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final ReadCoalescer readCoalescer;
+
+    @Transactional(readOnly = true)
+    public TierProgressResponse getProgress(Long userId) {
+        stalenessGuard.pinIfRecentlyWritten(userId);
+        MembershipRepository.TierAndCohort member = readCoalescer.read("membership-cohort", userId, userId,
+                () -> membershipRepository.findTierAndCohortByUserId(userId)
+                        .orElseThrow(() -> new IllegalArgumentException("No membership found for user")));
+
+        TierLevel currentTier = member.getTier();
+        String cohort = member.getCohort();
+        MonthlyActivityTracker.Activity activity = activityTracker.activity(userId);
+        CompiledCriteria criteria = criteriaCache.get();
+
+        // Rules are ordered highest tier first; list the next tier first
+        List<TierProgressResponse.TierTarget> higherTiers = new ArrayList<>();
+        for (int rule = criteria.size() - 1; rule >= 0; rule--) {
+            TierLevel target = criteria.targetTier(rule);
+            if (!target.isHigherThan(currentTier)) {
+                continue;
+            }
+            Integer minOrderCount = criteria.minOrderCount(rule);
+            Long minValueCents = criteria.minValueCents(rule);
+            higherTiers.add(TierProgressResponse.TierTarget.builder()
+                    .targetTier(target)
+                    .minOrderCount(minOrderCount)
+                    .ordersRemaining(minOrderCount == null ? 0 : Math.max(0, minOrderCount - activity.orderCount()))
+                    .minMonthlyOrderValue(minValueCents == null ? null : BigDecimal.valueOf(minValueCents, 2))
+                    .valueRemaining(BigDecimal.valueOf(minValueCents == null ? 0
+                            : Math.max(0, minValueCents - activity.valueCents()), 2))
+                    .eligibleCohorts(criteria.eligibleCohorts(rule))
+                    .cohortEligible(criteria.cohortAllowed(rule, cohort))
+                    .qualified(criteria.cohortAllowed(rule, cohort)
+                            && criteria.meetsActivity(rule, activity.orderCount(), activity.valueCents()))
+                    .build());
+        }
+
+        return TierProgressResponse.builder()
+                .userId(userId)
+                .currentTier(currentTier)
+                .cohort(cohort)
+                .month(activityTracker.month().toString())
+                .orderCount(activity.orderCount())
+                .orderValue(BigDecimal.valueOf(activity.valueCents(), 2))
+                .higherTiers(higherTiers)
+                .build();
+    }
+}
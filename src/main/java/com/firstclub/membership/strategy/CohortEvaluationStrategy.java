@@ -23,10 +23,10 @@ public class CohortEvaluationStrategy implements TierEvaluationStrategy {
 
         List<String> eligibleCohorts = Arrays.asList(criteria.getEligibleCohort().split(","));
         boolean isEligible = eligibleCohorts.stream()
-                .anyMatch(cohort -> cohort.trim().equalsIgnoreCase(user.getCohort().trim()));
+                .anyMatch(cohort -> cohort.trim().equalsIgnoreCase(user.getCohort().getName()));
 
         log.debug("User {} with cohort {} is eligible: {}",
-                user.getId(), user.getCohort(), isEligible);
+                user.getId(), user.getCohort().getName(), isEligible);
 
         return isEligible;
     }
@@ -1,12 +1,16 @@
 package com.firstclub.membership.strategy;
 
+import com.firstclub.membership.cache.ReadCoalescer;
 import com.firstclub.membership.entity.TierUpgradeCriteria;
 import com.firstclub.membership.entity.User;
 import com.firstclub.membership.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -14,6 +18,8 @@ import java.time.LocalDateTime;
 public class OrderCountEvaluationStrategy implements TierEvaluationStrategy {
 
     private final OrderRepository orderRepository;
+    private final ReadCoalescer readCoalescer;
+    private final Clock clock;
 
     @Override
     public boolean evaluate(User user, TierUpgradeCriteria criteria) {
@@ -21,8 +27,10 @@ public class OrderCountEvaluationStrategy implements TierEvaluationStrategy {
             return true; // No order count requirement
         }
 
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        long orderCount = orderRepository.countOrdersByUserSince(user.getId(), startOfMonth);
+        LocalDateTime startOfMonth = LocalDate.now(clock).withDayOfMonth(1).atStartOfDay();
+        long orderCount = readCoalescer.read("monthly-order-count", user.getId(),
+                Map.entry(user.getId(), startOfMonth),
+                () -> orderRepository.countOrdersByUserSince(user.getId(), startOfMonth));
 
         log.debug("User {} has {} orders this month. Required: {}",
                 user.getId(), orderCount, criteria.getMinOrderCount());
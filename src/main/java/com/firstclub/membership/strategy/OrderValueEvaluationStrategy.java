@@ -1,5 +1,6 @@
 package com.firstclub.membership.strategy;
 
+import com.firstclub.membership.cache.ReadCoalescer;
 import com.firstclub.membership.entity.TierUpgradeCriteria;
 import com.firstclub.membership.entity.User;
 import com.firstclub.membership.repository.OrderRepository;
@@ -7,7 +8,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -15,6 +19,8 @@ import java.time.LocalDateTime;
 public class OrderValueEvaluationStrategy implements TierEvaluationStrategy {
 
     private final OrderRepository orderRepository;
+    private final ReadCoalescer readCoalescer;
+    private final Clock clock;
 
     @Override
     public boolean evaluate(User user, TierUpgradeCriteria criteria) {
@@ -22,8 +28,10 @@ public class OrderValueEvaluationStrategy implements TierEvaluationStrategy {
             return true; // No order value requirement
         }
 
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        BigDecimal totalValue = orderRepository.sumOrderValueByUserSince(user.getId(), startOfMonth);
+        LocalDateTime startOfMonth = LocalDate.now(clock).withDayOfMonth(1).atStartOfDay();
+        BigDecimal totalValue = readCoalescer.read("monthly-order-value", user.getId(),
+                Map.entry(user.getId(), startOfMonth),
+                () -> orderRepository.sumOrderValueByUserSince(user.getId(), startOfMonth));
 
         log.debug("User {} has order value {} this month. Required: {}",
                 user.getId(), totalValue, criteria.getMinMonthlyOrderValue());
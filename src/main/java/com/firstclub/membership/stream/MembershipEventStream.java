@@ -0,0 +1,344 @@
+package com.firstclub.membership.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.TierChangeResponse;
+import com.firstclub.membership.event.TierChangeRecordedEvent;
+import com.firstclub.membership.exception.ServiceOverloadedException;
+import com.firstclub.membership.repository.UserRepository;
+import com.firstclub.membership.service.TierHistoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams of users' tier and status changes, fed by {@link TierChangeRecordedEvent}s.
+ *
+ * <p>A stream is an async servlet response, so an idle connection holds no thread. Each connection has a
+ * bounded buffer of {@code membership.events.buffer-size} frames, drained by a small shared sender pool;
+ * a connection whose buffer overflows is closed, and its client catches up by reconnecting. Event ids are
+ * tier change history ids, so a reconnect with {@code Last-Event-ID} replays the changes committed since,
+ * oldest first, and a new stream starts with the user's latest change. When more changes were missed than
+ * fit the buffer, the stream is closed once the oldest buffer-full is sent, and the client resumes from
+ * there. A comment is sent every heartbeat interval to keep proxies from closing idle streams and to detect
+ * clients that went away.
+ */
+@Component
+@Slf4j
+public class MembershipEventStream implements SmartLifecycle {
+
+    private static final String EVENT_NAME = "tier-change";
+
+    private final TierHistoryService historyService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxConnections;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ExecutorService sender;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter sentEvents;
+    private final Counter overflows;
+
+    private volatile boolean running;
+
+    /**
+     * A change serialized once for every connection of its user; a heartbeat has no id.
+     */
+    private record Frame(Long id, String data) {
+    }
+
+    public MembershipEventStream(TierHistoryService historyService, UserRepository userRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${membership.events.max-connections:20000}") int maxConnections,
+                                 @Value("${membership.events.buffer-size:16}") int bufferSize,
+                                 @Value("${membership.events.timeout:30m}") Duration timeout,
+                                 @Value("${membership.events.sender-threads:4}") int senderThreads,
+                                 MeterRegistry meterRegistry) {
+        this.historyService = historyService;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.maxConnections = maxConnections;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "membership-events-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentEvents = meterRegistry.counter("membership.events.sent");
+        this.overflows = meterRegistry.counter("membership.events.overflows");
+        Gauge.builder("membership.events.connections", open, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of the user's changes, after {@code lastEventId} when the client is reconnecting.
+     *
+     * @throws ServiceOverloadedException if {@code membership.events.max-connections} streams are open
+     */
+    public SseEmitter subscribe(long userId, Long lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (!running) {
+            throw new ServiceOverloadedException("Membership event streams are not accepting connections",
+                    Duration.ofSeconds(1));
+        }
+        if (open.incrementAndGet() > maxConnections) {
+            open.decrementAndGet();
+            throw new ServiceOverloadedException("Too many membership event streams", Duration.ofSeconds(5));
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+        // Registered before the replay is read, so a change committed meanwhile is held, not missed
+        connections.compute(userId, (id, set) -> {
+            Set<Connection> userConnections = set != null ? set : ConcurrentHashMap.newKeySet();
+            userConnections.add(connection);
+            return userConnections;
+        });
+
+        List<TierChangeResponse> missed;
+        try {
+            // One more than fits, to tell whether the client has to come back for the rest
+            missed = lastEventId != null
+                    ? historyService.getChangesAfter(userId, lastEventId, bufferSize + 1)
+                    : historyService.getHistory(userId, 1);
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        boolean more = missed.size() > bufferSize;
+        List<Frame> replay = new ArrayList<>(Math.min(missed.size(), bufferSize));
+        for (TierChangeResponse change : more ? missed.subList(0, bufferSize) : missed) {
+            replay.add(frame(change));
+        }
+        connection.finishReplay(replay, more);
+        return emitter;
+    }
+
+    @EventListener
+    public void onTierChangeRecorded(TierChangeRecordedEvent event) {
+        Set<Connection> userConnections = connections.get(event.getUserId());
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+        Frame frame = frame(TierChangeResponse.builder()
+                .changeId(event.getChangeId())
+                .userId(event.getUserId())
+                .previousTier(event.getPreviousTier())
+                .previousStatus(event.getPreviousStatus())
+                .tier(event.getTier())
+                .status(event.getStatus())
+                .cause(event.getCause())
+                .criteriaVersion(event.getCriteriaVersion())
+                .changedAt(event.getChangedAt())
+                .build());
+        for (Connection connection : userConnections) {
+            connection.offer(frame);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${membership.events.heartbeat-interval:15000}",
+            initialDelayString = "${membership.events.heartbeat-interval:15000}")
+    public void heartbeat() {
+        Frame heartbeat = new Frame(null, null);
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.heartbeat(heartbeat);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Set<Connection> userConnections : connections.values()) {
+            userConnections.forEach(Connection::complete);
+        }
+        sender.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop before the web server, so open streams end instead of holding up its shutdown.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    private Frame frame(TierChangeResponse change) {
+        try {
+            return new Frame(change.getChangeId(), objectMapper.writeValueAsString(change));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize tier change " + change.getChangeId(), e);
+        }
+    }
+
+    /**
+     * One open stream. Frames are queued by publishers and written by at most one sender thread at a time.
+     */
+    private final class Connection implements Runnable {
+
+        private final long userId;
+        private final SseEmitter emitter;
+        private final Queue<Frame> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Set when the replay left changes behind: the stream ends once its buffer is sent
+        private volatile boolean closeWhenDrained;
+        // Live changes that arrive while the replay is being read; null once it has been queued
+        private List<Frame> heldDuringReplay = new ArrayList<>();
+        private long lastQueuedId;
+
+        Connection(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(Frame frame) {
+            if (heldDuringReplay != null) {
+                heldDuringReplay.add(frame);
+            } else {
+                enqueue(frame);
+            }
+        }
+
+        /**
+         * Queue the replay and the live changes held meanwhile, or, when {@code more} changes were missed
+         * than the replay holds, only the replay: the held ones come after the rest, on the next connection.
+         */
+        synchronized void finishReplay(List<Frame> replay, boolean more) {
+            replay.forEach(this::enqueue);
+            if (more) {
+                closeWhenDrained = true;
+                schedule();
+            } else {
+                heldDuringReplay.forEach(this::enqueue);
+            }
+            heldDuringReplay = null;
+        }
+
+        synchronized void heartbeat(Frame heartbeat) {
+            // A connection with frames still queued is not idle, and one that cannot keep up overflows anyway.
+            // None is sent before the replay, which may need the whole buffer.
+            if (heldDuringReplay == null && !closeWhenDrained && buffer.isEmpty() && buffer.offer(heartbeat)) {
+                schedule();
+            }
+        }
+
+        private void enqueue(Frame frame) {
+            if (closed.get() || closeWhenDrained || frame.id() <= lastQueuedId) {
+                return;
+            }
+            if (!buffer.offer(frame)) {
+                overflows.increment();
+                log.debug("Closing event stream of user {}: {} frames buffered", userId, bufferSize);
+                complete();
+                return;
+            }
+            lastQueuedId = frame.id();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Frame frame = buffer.poll();
+                if (frame == null) {
+                    scheduled.set(false);
+                    if (buffer.isEmpty()) {
+                        if (closeWhenDrained) {
+                            complete();
+                        }
+                        return;
+                    }
+                    // A frame queued after the poll but before the flag was cleared has no sender yet
+                    if (!scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (closed.get()) {
+                    continue;
+                }
+                try {
+                    if (frame.id() == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(String.valueOf(frame.id())).name(EVENT_NAME)
+                                .data(frame.data()));
+                        sentEvents.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away or the response already completed
+                    close();
+                }
+            }
+        }
+
+        void complete() {
+            if (!closed.get()) {
+                emitter.complete();
+                close();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                open.decrementAndGet();
+                connections.computeIfPresent(userId, (id, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+}
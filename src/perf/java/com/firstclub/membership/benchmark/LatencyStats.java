@@ -0,0 +1,41 @@
+package com.firstclub.membership.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size, thread-safe latency sample collector for in-process benchmarks.
+ */
+public class LatencyStats {
+
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public LatencyStats(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+        }
+    }
+
+    public String summary() {
+        int n = Math.min(count.get(), samples.length);
+        if (n == 0) {
+            return "no samples";
+        }
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        return String.format("n=%d p50=%.3fms p90=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                n, millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99),
+                millis(sorted, 0.999), sorted[n - 1] / 1_000_000.0);
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
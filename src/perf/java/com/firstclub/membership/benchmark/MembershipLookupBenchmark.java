@@ -0,0 +1,151 @@
+package com.firstclub.membership.benchmark;
+
+import com.firstclub.membership.cache.LongLongHashMap;
+import com.firstclub.membership.cache.MembershipStateCache;
+import com.firstclub.membership.enums.MembershipStatus;
+import com.firstclub.membership.enums.TierLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Compares the primitive {@link LongLongHashMap} behind {@link MembershipStateCache} with a boxed
+ * {@code ConcurrentHashMap<Long, Long>} holding the same packed membership states: heap per entry and
+ * lookup latency under concurrent random reads. Needs a heap of a few GB at the default 10M entries:
+ *
+ * <pre>
+ * java -Xmx4g -jar target/perf/membership-program-1.0.0-perf.jar --spring.profiles.active=benchmark \
+ *   --membership.benchmark.scenario=membership-lookup --membership.benchmark.entries=10000000
+ * </pre>
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "membership.benchmark.scenario", havingValue = "membership-lookup")
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipLookupBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    private final ConfigurableApplicationContext context;
+    private final Clock clock;
+
+    @Value("${membership.benchmark.entries:10000000}")
+    private int entries;
+
+    @Value("${membership.benchmark.lookups:20000000}")
+    private int lookups;
+
+    @Value("${membership.benchmark.threads:4}")
+    private int threads;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() throws Exception {
+        LocalDateTime expiry = LocalDateTime.now(clock).plusYears(1);
+        long[] states = new long[TierLevel.values().length];
+        for (TierLevel tier : TierLevel.values()) {
+            states[tier.ordinal()] = MembershipStateCache.pack(tier, MembershipStatus.ACTIVE, expiry);
+        }
+
+        long before = usedHeap();
+        LongLongHashMap primitive = new LongLongHashMap(entries, 64, MembershipStateCache.MISSING);
+        for (long userId = 1; userId <= entries; userId++) {
+            primitive.put(userId, states[(int) (userId % states.length)]);
+        }
+        long primitiveBytes = usedHeap() - before;
+        log.info("[membership-lookup/primitive] {} entries, {} bytes/entry (heap), {} bytes/entry (slot arrays)",
+                entries, primitiveBytes / entries, primitive.tableBytes() / entries);
+        measure("primitive", primitive::get);
+        primitive = null;
+
+        before = usedHeap();
+        ConcurrentHashMap<Long, Long> boxed = new ConcurrentHashMap<>(entries);
+        for (long userId = 1; userId <= entries; userId++) {
+            boxed.put(userId, states[(int) (userId % states.length)]);
+        }
+        long boxedBytes = usedHeap() - before;
+        log.info("[membership-lookup/boxed] {} entries, {} bytes/entry (heap)", entries, boxedBytes / entries);
+        ConcurrentHashMap<Long, Long> lookupMap = boxed;
+        measure("boxed", userId -> {
+            Long state = lookupMap.get(userId);
+            return state != null ? state : MembershipStateCache.MISSING;
+        });
+
+        log.info("[membership-lookup] primitive map uses {}% of the boxed map's heap",
+                Math.round(100.0 * primitiveBytes / Math.max(1, boxedBytes)));
+        context.close();
+    }
+
+    /**
+     * Random lookups from several threads; each histogram sample is the mean of one batch, in ns per lookup.
+     */
+    private void measure(String name, LongUnaryOperator lookup) throws Exception {
+        run(lookup, Math.min(lookups, 2_000_000), new ConcurrentHistogram(3), 99); // warm-up
+
+        Histogram nanosPerLookup = new ConcurrentHistogram(3);
+        long start = System.nanoTime();
+        long checksum = run(lookup, lookups, nanosPerLookup, 7);
+        long elapsed = System.nanoTime() - start;
+        log.info("[membership-lookup/{}] threads={} ns/lookup p50={} p99={} p999={} max={}, {} M lookups/s (checksum {})",
+                name, threads, nanosPerLookup.getValueAtPercentile(50), nanosPerLookup.getValueAtPercentile(99),
+                nanosPerLookup.getValueAtPercentile(99.9), nanosPerLookup.getMaxValue(),
+                Math.round(lookups * 100_000.0 / elapsed) / 100.0, checksum);
+    }
+
+    private long run(LongUnaryOperator lookup, int count, Histogram histogram, long seed) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong checksum = new AtomicLong();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(seed * 31 + t);
+                int batches = count / threads / BATCH;
+                workers.add(executor.submit(() -> {
+                    long sum = 0;
+                    for (int b = 0; b < batches; b++) {
+                        long begin = System.nanoTime();
+                        for (int i = 0; i < BATCH; i++) {
+                            sum += lookup.applyAsLong(random.nextLong(1, entries + 1L));
+                        }
+                        histogram.recordValue(Math.max(1, (System.nanoTime() - begin) / BATCH));
+                    }
+                    checksum.addAndGet(sum);
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return checksum.get();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
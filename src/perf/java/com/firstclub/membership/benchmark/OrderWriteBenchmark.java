@@ -0,0 +1,133 @@
+package com.firstclub.membership.benchmark;
+
+import com.firstclub.membership.dto.CreateOrderRequest;
+import com.firstclub.membership.dto.SubscriptionRequest;
+import com.firstclub.membership.entity.MembershipPlan;
+import com.firstclub.membership.entity.User;
+import com.firstclub.membership.persistence.OrderWriteBehindBuffer;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.UserRepository;
+import com.firstclub.membership.service.MembershipService;
+import com.firstclub.membership.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures POST /api/orders service latency and throughput for whichever persistence mode is configured.
+ * Run once with membership.orders.write-behind.enabled=false and once with true to compare:
+ *
+ * <pre>
+ * mvn -Pperf spring-boot:run -Dspring-boot.run.profiles=benchmark \
+ *   -Dspring-boot.run.arguments="--membership.benchmark.scenario=order-write --membership.orders.write-behind.enabled=true"
+ * </pre>
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "membership.benchmark.scenario", havingValue = "order-write")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderWriteBenchmark {
+
+    private static final String[] CATEGORIES = {"electronics", "grocery", "fashion", "home", "books"};
+
+    private final UserRepository userRepository;
+    private final MembershipPlanRepository planRepository;
+    private final MembershipService membershipService;
+    private final OrderService orderService;
+    private final OrderWriteBehindBuffer writeBehindBuffer;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${membership.benchmark.orders:50000}")
+    private int orders;
+
+    @Value("${membership.benchmark.threads:16}")
+    private int threads;
+
+    @Value("${membership.benchmark.users:500}")
+    private int users;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() throws InterruptedException {
+        List<Long> userIds = createSubscribedUsers();
+
+        log.info("Warming up...");
+        execute(userIds, Math.min(orders / 5, 10_000), new LatencyStats(1));
+        waitForFlush();
+
+        LatencyStats stats = new LatencyStats(orders);
+        long start = System.nanoTime();
+        execute(userIds, orders, stats);
+        long acknowledged = System.nanoTime() - start;
+        waitForFlush();
+        long durable = System.nanoTime() - start;
+
+        String mode = writeBehindBuffer.isEnabled() ? "write-behind" : "synchronous";
+        log.info("[order-write/{}] threads={} latency: {}", mode, threads, stats.summary());
+        log.info("[order-write/{}] acknowledged throughput: {} orders/s, durable throughput: {} orders/s",
+                mode, perSecond(orders, acknowledged), perSecond(orders, durable));
+        context.close();
+    }
+
+    private List<Long> createSubscribedUsers() {
+        MembershipPlan plan = planRepository.findByActiveTrue().get(0);
+        List<User> created = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            created.add(User.builder()
+                    .email("bench-" + System.nanoTime() + "-" + i + "@example.com")
+                    .name("Benchmark User " + i)
+                    .build());
+        }
+        List<Long> userIds = new ArrayList<>(users);
+        for (User user : userRepository.saveAll(created)) {
+            // Every other user is a member so both benefit paths are exercised
+            if (user.getId() % 2 == 0) {
+                membershipService.subscribe(new SubscriptionRequest(user.getId(), plan.getId()));
+            }
+            userIds.add(user.getId());
+        }
+        return userIds;
+    }
+
+    private void execute(List<Long> userIds, int count, LatencyStats stats) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CreateOrderRequest request = CreateOrderRequest.builder()
+                        .userId(userIds.get(random.nextInt(userIds.size())))
+                        .orderValue(BigDecimal.valueOf(random.nextInt(500, 50_000), 2))
+                        .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                        .build();
+                long begin = System.nanoTime();
+                orderService.createOrder(request);
+                stats.record(System.nanoTime() - begin);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void waitForFlush() throws InterruptedException {
+        while (writeBehindBuffer.isEnabled() && writeBehindBuffer.pendingCount() > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static long perSecond(int count, long nanos) {
+        return Math.round(count / (nanos / 1_000_000_000.0));
+    }
+}
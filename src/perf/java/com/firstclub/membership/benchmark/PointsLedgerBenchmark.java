@@ -0,0 +1,125 @@
+package com.firstclub.membership.benchmark;
+
+import com.firstclub.membership.exception.ServiceOverloadedException;
+import com.firstclub.membership.points.PointsLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures {@link PointsLedger} under a mix of balance reads and order postings (points earned, and on a
+ * share of orders points redeemed first), reporting acknowledged and durable throughput and latency per
+ * operation. Orders are posted without a surrounding transaction, so they append immediately:
+ *
+ * <pre>
+ * java -jar target/perf/membership-program-1.0.0-perf.jar --spring.profiles.active=benchmark \
+ *   --membership.benchmark.scenario=points-ledger --membership.benchmark.orders=1000000
+ * </pre>
+ */
+@Component
+@Profile("benchmark")
+@ConditionalOnProperty(name = "membership.benchmark.scenario", havingValue = "points-ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class PointsLedgerBenchmark {
+
+    private final PointsLedger pointsLedger;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${membership.benchmark.orders:1000000}")
+    private int orders;
+
+    @Value("${membership.benchmark.reads-per-order:1}")
+    private int readsPerOrder;
+
+    @Value("${membership.benchmark.threads:16}")
+    private int threads;
+
+    @Value("${membership.benchmark.users:100000}")
+    private int users;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() throws InterruptedException {
+        AtomicLong orderIds = new AtomicLong(1_000_000_000L);
+
+        log.info("Warming up...");
+        execute(Math.min(orders / 5, 100_000), orderIds, new LatencyStats(1), new LatencyStats(1), new AtomicLong(),
+                new AtomicLong());
+        waitForWrites();
+
+        LatencyStats readStats = new LatencyStats(orders * readsPerOrder);
+        LatencyStats writeStats = new LatencyStats(orders);
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong overloaded = new AtomicLong();
+        long start = System.nanoTime();
+        execute(orders, orderIds, readStats, writeStats, rejected, overloaded);
+        long acknowledged = System.nanoTime() - start;
+        waitForWrites();
+        long durable = System.nanoTime() - start;
+
+        log.info("[points-ledger] threads={} users={} balance reads: {}", threads, users, readStats.summary());
+        log.info("[points-ledger] order postings: {} ({} redemptions rejected for insufficient points, "
+                + "{} orders rejected for a full ledger queue)", writeStats.summary(), rejected.get(), overloaded.get());
+        log.info("[points-ledger] acknowledged throughput: {} orders/s, durable throughput: {} orders/s",
+                perSecond(orders, acknowledged), perSecond(orders, durable));
+        context.close();
+    }
+
+    private void execute(int count, AtomicLong orderIds, LatencyStats readStats, LatencyStats writeStats,
+                         AtomicLong rejected, AtomicLong overloaded) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long userId = 1 + random.nextInt(users);
+                for (int r = 0; r < readsPerOrder; r++) {
+                    long begin = System.nanoTime();
+                    pointsLedger.balance(userId);
+                    readStats.record(System.nanoTime() - begin);
+                }
+
+                long begin = System.nanoTime();
+                long redeemed = 0;
+                // One order in ten tries to redeem points
+                if (random.nextInt(10) == 0) {
+                    try {
+                        redeemed = 1 + random.nextInt(200);
+                        pointsLedger.reserve(userId, redeemed);
+                    } catch (IllegalStateException e) {
+                        redeemed = 0;
+                        rejected.incrementAndGet();
+                    }
+                }
+                try {
+                    pointsLedger.record(userId, orderIds.incrementAndGet(), random.nextInt(5, 500), redeemed);
+                } catch (ServiceOverloadedException e) {
+                    overloaded.incrementAndGet();
+                }
+                writeStats.record(System.nanoTime() - begin);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void waitForWrites() throws InterruptedException {
+        while (pointsLedger.pendingCount() > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static long perSecond(int count, long nanos) {
+        return Math.round(count / (nanos / 1_000_000_000.0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.firstclub.membership.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * REST calls the load test can issue, named as they appear in the workload mix.
+ */
+public enum LoadOperation {
+
+    SUBSCRIBE("subscribe") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            String body = "{\"userId\":" + userId + ",\"planId\":" + planIds[random.nextInt(planIds.length)] + "}";
+            return json(baseUrl + "/api/memberships/subscribe").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    CREATE_ORDER("create-order") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            String body = "{\"userId\":" + userId + ",\"orderValue\":" + random.nextInt(500, 50_000) / 100.0
+                    + ",\"category\":\"" + category(random) + "\"}";
+            return json(baseUrl + "/api/orders").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    BENEFIT_CHECK("benefit-check") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            String benefit = random.nextBoolean() ? "free-delivery" : "discount";
+            return get(baseUrl + "/api/orders/benefits/" + benefit + "?userId=" + userId
+                    + "&category=" + category(random));
+        }
+    },
+    GET_MEMBERSHIP("get-membership") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            return get(baseUrl + "/api/memberships/user/" + userId);
+        }
+    },
+    EVALUATE_TIER("evaluate-tier") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/memberships/user/" + userId + "/evaluate-tier"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    UPGRADE("upgrade") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            String tier = random.nextBoolean() ? "GOLD" : "PLATINUM";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/memberships/user/" + userId
+                    + "/upgrade?tierLevel=" + tier)).PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    DOWNGRADE("downgrade") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random) {
+            String tier = random.nextBoolean() ? "SILVER" : "GOLD";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/memberships/user/" + userId
+                    + "/downgrade?tierLevel=" + tier)).PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    };
+
+    private static final String[] CATEGORIES = {"grocery", "electronics", "fashion", "home", "beauty", "books"};
+
+    private final String key;
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, long userId, long[] planIds, SplittableRandom random);
+
+    HttpRequest build(String baseUrl, long userId, long[] planIds, SplittableRandom random, Duration timeout) {
+        return request(baseUrl, userId, planIds, random).timeout(timeout).build();
+    }
+
+    public static LoadOperation fromKey(String key) {
+        for (LoadOperation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load test operation: " + key);
+    }
+
+    private static String category(SplittableRandom random) {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    private static HttpRequest.Builder json(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET();
+    }
+}
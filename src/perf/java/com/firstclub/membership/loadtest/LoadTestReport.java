@@ -0,0 +1,169 @@
+package com.firstclub.membership.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Run summaries written as JSON, and a side-by-side comparison against a previous run.
+ * Each summary keeps the compressed histogram so distributions can be re-analysed later.
+ */
+public final class LoadTestReport {
+
+    public static final String TOTAL = "total";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestReport() {
+    }
+
+    static RunSummary summarize(String name, String workload, double targetRate, long elapsedNanos,
+                                Map<LoadOperation, OperationStats> stats) {
+        Map<String, OperationSummary> operations = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long ok = 0, clientErrors = 0, serverErrors = 0, failures = 0;
+        for (Map.Entry<LoadOperation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            if (s.histogram().getTotalCount() == 0) {
+                continue;
+            }
+            operations.put(entry.getKey().getKey(), operationSummary(s.histogram(), s.ok(), s.clientErrors(),
+                    s.serverErrors(), s.failures(), elapsedNanos));
+            total.add(s.histogram());
+            ok += s.ok();
+            clientErrors += s.clientErrors();
+            serverErrors += s.serverErrors();
+            failures += s.failures();
+        }
+        operations.put(TOTAL, operationSummary(total, ok, clientErrors, serverErrors, failures, elapsedNanos));
+
+        return RunSummary.builder()
+                .name(name)
+                .finishedAt(LocalDateTime.now())
+                .workload(workload)
+                .targetRate(targetRate)
+                .durationSeconds(elapsedNanos / 1e9)
+                .operations(operations)
+                .build();
+    }
+
+    public static void write(RunSummary summary, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        MAPPER.writeValue(file.toFile(), summary);
+    }
+
+    public static RunSummary read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), RunSummary.class);
+    }
+
+    /**
+     * Text table of the run, with the change against the baseline when one is given.
+     */
+    public static String format(RunSummary run, RunSummary baseline) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nLoad test '%s' (%s) target %.0f req/s over %.0fs%s%n", run.getName(),
+                run.getWorkload(), run.getTargetRate(), run.getDurationSeconds(),
+                baseline != null ? ", compared with '" + baseline.getName() + "'" : ""));
+        sb.append(String.format("%-16s %9s %9s %20s %20s %20s %18s%n",
+                "operation", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "error %"));
+        run.getOperations().forEach((operation, current) -> {
+            OperationSummary base = baseline != null ? baseline.getOperations().get(operation) : null;
+            sb.append(String.format("%-16s %9d %9.1f %20s %20s %20s %18s%n", operation, current.getCount(),
+                    current.getThroughput(),
+                    cell(current.getP50Ms(), base != null ? base.getP50Ms() : null),
+                    cell(current.getP99Ms(), base != null ? base.getP99Ms() : null),
+                    cell(current.getP999Ms(), base != null ? base.getP999Ms() : null),
+                    cell(current.getErrorRate() * 100, base != null ? base.getErrorRate() * 100 : null)));
+        });
+        return sb.toString();
+    }
+
+    private static String cell(double value, Double baseline) {
+        if (baseline == null) {
+            return String.format("%.2f", value);
+        }
+        if (baseline == 0) {
+            return String.format("%.2f (was 0)", value);
+        }
+        return String.format("%.2f (%+.0f%%)", value, (value - baseline) / baseline * 100);
+    }
+
+    private static OperationSummary operationSummary(Histogram histogram, long ok, long clientErrors,
+                                                     long serverErrors, long failures, long elapsedNanos) {
+        long count = histogram.getTotalCount();
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return OperationSummary.builder()
+                .count(count)
+                .ok(ok)
+                .clientErrors(clientErrors)
+                .serverErrors(serverErrors)
+                .failures(failures)
+                .errorRate(count == 0 ? 0 : (double) (serverErrors + failures) / count)
+                .throughput(count / (elapsedNanos / 1e9))
+                .p50Ms(millis(histogram, 50))
+                .p90Ms(millis(histogram, 90))
+                .p99Ms(millis(histogram, 99))
+                .p999Ms(millis(histogram, 99.9))
+                .maxMs(histogram.getMaxValue() / 1000.0)
+                .histogram(Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)))
+                .build();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RunSummary {
+        private String name;
+        private LocalDateTime finishedAt;
+        private String workload;
+        private double targetRate;
+        private double durationSeconds;
+        private Map<String, OperationSummary> operations;
+    }
+
+    /**
+     * Error rate counts 5xx responses and failed requests; 4xx responses are business rejections
+     * (e.g. subscribing twice) and are reported separately.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OperationSummary {
+        private long count;
+        private long ok;
+        private long clientErrors;
+        private long serverErrors;
+        private long failures;
+        private double errorRate;
+        private double throughput;
+        private double p50Ms;
+        private double p90Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+        private String histogram; // Base64 of the compressed HdrHistogram, values in microseconds
+    }
+}
@@ -0,0 +1,208 @@
+package com.firstclub.membership.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator that drives the real REST endpoints of this application
+ * (or of the instance at membership.loadtest.base-url).
+ *
+ * <p>Requests are issued on a fixed schedule at the target rate whether or not earlier ones have
+ * completed, and latency is measured from each request's scheduled time, so a slow server shows up as
+ * latency instead of silently lowering the offered load. Users are picked uniformly from the users
+ * table; run together with the dataset profile for a realistic population:
+ *
+ * <pre>
+ * java -jar target/perf/membership-program-1.0.0-perf.jar --spring.profiles.active=dataset,loadtest \
+ *   --membership.loadtest.rate=500 --membership.loadtest.name=release-1.4
+ * </pre>
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestRunner {
+
+    private static final DateTimeFormatter RUN_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${membership.loadtest.base-url:}")
+    private String baseUrl;
+
+    @Value("${membership.loadtest.rate:200}")
+    private double rate;
+
+    @Value("${membership.loadtest.arrivals:constant}")
+    private String arrivals;
+
+    @Value("${membership.loadtest.duration:60s}")
+    private Duration duration;
+
+    @Value("${membership.loadtest.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${membership.loadtest.mix:create-order:40,benefit-check:25,get-membership:10,evaluate-tier:10,"
+            + "subscribe:5,upgrade:5,downgrade:5}")
+    private String mix;
+
+    @Value("${membership.loadtest.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${membership.loadtest.request-timeout:10s}")
+    private Duration requestTimeout;
+
+    @Value("${membership.loadtest.seed:7}")
+    private long seed;
+
+    @Value("${membership.loadtest.name:}")
+    private String name;
+
+    @Value("${membership.loadtest.output-dir:target/loadtest}")
+    private String outputDir;
+
+    @Value("${membership.loadtest.baseline:}")
+    private String baseline;
+
+    @Value("${membership.loadtest.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() throws Exception {
+        String target = baseUrl.isBlank()
+                ? "http://localhost:" + environment.getProperty("local.server.port", "8080")
+                : baseUrl;
+        WorkloadMix workload = WorkloadMix.parse(mix);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+
+        long[] userRange = userIdRange();
+        long[] planIds = planIds(client, target);
+        log.info("Load test against {}: {} req/s ({} arrivals), mix {}, users {}..{}",
+                target, rate, arrivals, workload, userRange[0], userRange[1]);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        if (!warmup.isZero()) {
+            log.info("Warming up for {}s...", warmup.toSeconds());
+            drive(client, target, workload, userRange, planIds, random, warmup);
+        }
+        log.info("Measuring for {}s...", duration.toSeconds());
+        long start = System.nanoTime();
+        Map<LoadOperation, OperationStats> stats = drive(client, target, workload, userRange, planIds, random, duration);
+        long elapsed = System.nanoTime() - start;
+
+        String runName = name.isBlank() ? "run-" + LocalDateTime.now().format(RUN_NAME_FORMAT) : name;
+        LoadTestReport.RunSummary summary = LoadTestReport.summarize(runName, workload.toString(), rate, elapsed, stats);
+        Path output = Path.of(outputDir, runName + ".json");
+        LoadTestReport.write(summary, output);
+
+        LoadTestReport.RunSummary previous = baseline.isBlank() ? null : LoadTestReport.read(Path.of(baseline));
+        log.info("{}Summary written to {}", LoadTestReport.format(summary, previous), output.toAbsolutePath());
+
+        if (exitWhenDone) {
+            context.close();
+        }
+    }
+
+    private Map<LoadOperation, OperationStats> drive(HttpClient client, String target, WorkloadMix workload,
+                                                     long[] userRange, long[] planIds, SplittableRandom random,
+                                                     Duration length) throws InterruptedException {
+        Map<LoadOperation, OperationStats> stats = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        boolean poisson = "poisson".equalsIgnoreCase(arrivals);
+        double meanIntervalNanos = 1e9 / rate;
+
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        double offset = 0;
+        while (true) {
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            offset += poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            LoadOperation operation = workload.pick(random.nextInt(workload.totalWeight()));
+            OperationStats operationStats = stats.get(operation);
+            if (!inFlight.tryAcquire()) {
+                operationStats.recordFailure((System.nanoTime() - intended) / 1000);
+                continue;
+            }
+            long userId = random.nextLong(userRange[0], userRange[1] + 1);
+            HttpRequest request = operation.build(target, userId, planIds, random, requestTimeout);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long micros = (System.nanoTime() - intended) / 1000;
+                if (error != null) {
+                    operationStats.recordFailure(micros);
+                } else {
+                    operationStats.recordResponse(response.statusCode(), micros);
+                }
+                inFlight.release();
+            });
+        }
+
+        // Let outstanding requests finish (or time out) before reporting
+        if (!inFlight.tryAcquire(maxInFlight, requestTimeout.toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            log.warn("{} requests still in flight after the run", maxInFlight - inFlight.availablePermits());
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return stats;
+    }
+
+    private long[] userIdRange() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM users",
+                (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    private long[] planIds(HttpClient client, String target) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(target + "/api/plans"))
+                .timeout(requestTimeout).build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode plans = objectMapper.readTree(response.body());
+        long[] ids = new long[plans.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = plans.get(i).get("id").asLong();
+        }
+        if (ids.length == 0) {
+            throw new IllegalStateException("No active plans at " + target);
+        }
+        return ids;
+    }
+}
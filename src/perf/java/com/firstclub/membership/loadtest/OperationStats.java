@@ -0,0 +1,57 @@
+package com.firstclub.membership.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distribution and outcome counts for one operation.
+ * Latency is measured from the request's scheduled start, so queueing in the client counts.
+ */
+class OperationStats {
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    void recordResponse(int status, long micros) {
+        latencyMicros.recordValue(Math.max(1, micros));
+        if (status < 400) {
+            ok.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    /**
+     * Timeouts, connection errors and requests dropped because too many were in flight.
+     */
+    void recordFailure(long micros) {
+        latencyMicros.recordValue(Math.max(1, micros));
+        failures.increment();
+    }
+
+    Histogram histogram() {
+        return latencyMicros;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+}
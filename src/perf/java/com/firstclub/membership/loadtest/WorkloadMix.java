@@ -0,0 +1,70 @@
+package com.firstclub.membership.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Weighted choice of operations, parsed from "create-order:50,benefit-check:30,subscribe:5,...".
+ */
+public class WorkloadMix {
+
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<LoadOperation, Integer> weights;
+
+    private WorkloadMix(Map<LoadOperation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new LoadOperation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Workload mix entries must look like operation:weight, got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Workload mix weights must not be negative");
+            }
+            if (weight > 0) {
+                weights.merge(LoadOperation.fromKey(parts[0].trim()), weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix must contain at least one operation");
+        }
+        return new WorkloadMix(weights);
+    }
+
+    /**
+     * Pick an operation for a draw in [0, totalWeight()).
+     */
+    public LoadOperation pick(int draw) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public int totalWeight() {
+        return cumulativeWeights[cumulativeWeights.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        weights.forEach((operation, weight) ->
+                sb.append(sb.length() > 0 ? "," : "").append(operation.getKey()).append(':').append(weight));
+        return sb.toString();
+    }
+}
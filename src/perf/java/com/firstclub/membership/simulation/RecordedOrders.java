@@ -0,0 +1,122 @@
+package com.firstclub.membership.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An order stream held in primitive arrays and sorted by order date for replay.
+ * Reads either an NDJSON export (GET /api/export/orders) or the current orders table.
+ */
+class RecordedOrders {
+
+    private long[] userIds = new long[1024];
+    private long[] epochSeconds = new long[1024];
+    private long[] valueCents = new long[1024];
+    private String[] categories = new String[1024];
+    private final Map<String, String> categoryPool = new HashMap<>();
+    private int size;
+
+    static RecordedOrders fromExport(Path file, ObjectMapper objectMapper, int limit) throws IOException {
+        RecordedOrders orders = new RecordedOrders();
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(file.toFile())) {
+            while (rows.hasNext() && (limit <= 0 || orders.size < limit)) {
+                JsonNode row = rows.next();
+                orders.add(row.get("userId").asLong(),
+                        LocalDateTime.parse(row.get("orderDate").asText()),
+                        row.get("orderValue").decimalValue(),
+                        row.hasNonNull("category") ? row.get("category").asText() : null);
+            }
+        }
+        orders.sortByTime();
+        return orders;
+    }
+
+    static RecordedOrders fromOrdersTable(JdbcTemplate jdbcTemplate, int limit) {
+        RecordedOrders orders = new RecordedOrders();
+        jdbcTemplate.query("SELECT user_id, order_date, order_value, category FROM orders ORDER BY order_date, id"
+                + (limit > 0 ? " LIMIT " + limit : ""), rs -> {
+            orders.add(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getBigDecimal(3), rs.getString(4));
+        });
+        orders.sortByTime();
+        return orders;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long userId(int i) {
+        return userIds[i];
+    }
+
+    LocalDateTime orderDate(int i) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[i], 0, ZoneOffset.UTC);
+    }
+
+    BigDecimal orderValue(int i) {
+        return BigDecimal.valueOf(valueCents[i], 2);
+    }
+
+    String category(int i) {
+        return categories[i];
+    }
+
+    private void add(long userId, LocalDateTime orderDate, BigDecimal orderValue, String category) {
+        if (size == userIds.length) {
+            int capacity = size * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+            valueCents = Arrays.copyOf(valueCents, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+        }
+        userIds[size] = userId;
+        epochSeconds[size] = orderDate.toEpochSecond(ZoneOffset.UTC);
+        valueCents[size] = orderValue.movePointRight(2).longValue();
+        categories[size] = category == null ? null : categoryPool.computeIfAbsent(category, c -> c);
+        size++;
+    }
+
+    /**
+     * Stable sort by time: each key packs seconds since the first order above the original index.
+     */
+    private void sortByTime() {
+        if (size == 0) {
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, epochSeconds[i]);
+        }
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (epochSeconds[i] - min) << 31 | i;
+        }
+        Arrays.sort(keys);
+
+        long[] sortedUsers = new long[size];
+        long[] sortedSeconds = new long[size];
+        long[] sortedCents = new long[size];
+        String[] sortedCategories = new String[size];
+        for (int i = 0; i < size; i++) {
+            int from = (int) (keys[i] & Integer.MAX_VALUE);
+            sortedUsers[i] = userIds[from];
+            sortedSeconds[i] = epochSeconds[from];
+            sortedCents[i] = valueCents[from];
+            sortedCategories[i] = categories[from];
+        }
+        userIds = sortedUsers;
+        epochSeconds = sortedSeconds;
+        valueCents = sortedCents;
+        categories = sortedCategories;
+    }
+}
@@ -0,0 +1,201 @@
+package com.firstclub.membership.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.analytics.MembershipAnalytics;
+import com.firstclub.membership.cache.MembershipStateCache;
+import com.firstclub.membership.cohort.CohortIndex;
+import com.firstclub.membership.criteria.MonthlyActivityTracker;
+import com.firstclub.membership.dto.CreateOrderRequest;
+import com.firstclub.membership.enums.TierLevel;
+import com.firstclub.membership.event.MembershipChangedEvent;
+import com.firstclub.membership.service.OrderService;
+import com.firstclub.membership.service.TierEvaluationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replays a recorded order stream in virtual time through {@link OrderService} and
+ * {@link TierEvaluationService}, and reports tier transitions and evaluation cost per simulated month.
+ *
+ * <p>The stream comes from an NDJSON order export (membership.simulation.input) or, when no file is given,
+ * from the orders already in the database (for example loaded by the dataset profile). The orders table is
+ * cleared and memberships are reset to SILVER before the replay starts, so the run shows how the current
+ * criteria promote members from scratch:
+ *
+ * <pre>
+ * java -jar target/perf/membership-program-1.0.0-perf.jar --spring.profiles.active=dataset,simulation \
+ *   --membership.dataset.users=50000
+ * </pre>
+ */
+@Component
+@Profile("simulation")
+@RequiredArgsConstructor
+@Slf4j
+public class ReplaySimulator {
+
+    private final SimulationClock clock;
+    private final OrderService orderService;
+    private final TierEvaluationService tierEvaluationService;
+    private final MembershipAnalytics membershipAnalytics;
+    private final MonthlyActivityTracker activityTracker;
+    private final MembershipStateCache membershipStateCache;
+    private final CohortIndex cohortIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${membership.simulation.input:}")
+    private String input;
+
+    @Value("${membership.simulation.max-orders:0}")
+    private int maxOrders;
+
+    @Value("${membership.simulation.reset-tiers:true}")
+    private boolean resetTiers;
+
+    @Value("${membership.simulation.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    private volatile MonthReport currentMonth;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() throws Exception {
+        RecordedOrders orders = input.isBlank()
+                ? RecordedOrders.fromOrdersTable(jdbcTemplate, maxOrders)
+                : RecordedOrders.fromExport(Path.of(input), objectMapper, maxOrders);
+        log.info("Replaying {} orders from {}", orders.size(), input.isBlank() ? "the orders table" : input);
+        prepareDatabase();
+
+        BitSet users = ids("SELECT id FROM users");
+        BitSet members = ids("SELECT user_id FROM memberships");
+        List<MonthReport> months = new ArrayList<>();
+        long skipped = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < orders.size(); i++) {
+            LocalDateTime orderDate = orders.orderDate(i);
+            YearMonth month = YearMonth.from(orderDate);
+            if (currentMonth == null || !currentMonth.month.equals(month)) {
+                if (currentMonth != null) {
+                    currentMonth.finish();
+                }
+                currentMonth = new MonthReport(month);
+                months.add(currentMonth);
+            }
+            long userId = orders.userId(i);
+            if (userId > Integer.MAX_VALUE || !users.get((int) userId)) {
+                skipped++;
+                continue;
+            }
+
+            clock.set(orderDate);
+            orderService.createOrder(CreateOrderRequest.builder()
+                    .userId(userId)
+                    .orderValue(orders.orderValue(i))
+                    .category(orders.category(i))
+                    .build());
+            currentMonth.orders++;
+
+            if (members.get((int) userId)) {
+                long begin = System.nanoTime();
+                tierEvaluationService.evaluateAndUpgradeTier(userId);
+                currentMonth.evaluationMicros.recordValue(Math.max(1, (System.nanoTime() - begin) / 1000));
+            }
+        }
+        if (currentMonth != null) {
+            currentMonth.finish();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        log.info("{}", format(months));
+        if (orders.size() > 0) {
+            Duration simulated = Duration.between(orders.orderDate(0), orders.orderDate(orders.size() - 1));
+            log.info("Replayed {} days of orders ({} skipped for unknown users) in {} s, {}x real time",
+                    simulated.toDays(), skipped, elapsed / 1_000_000_000,
+                    Math.round(simulated.toNanos() / (double) Math.max(1, elapsed)));
+        }
+        if (exitWhenDone) {
+            context.close();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        MonthReport month = currentMonth;
+        if (month != null && event.getPreviousTier() != null && event.getPreviousTier() != event.getNewTier()) {
+            month.transitions.merge(event.getPreviousTier() + "->" + event.getNewTier(), 1L, Long::sum);
+        }
+    }
+
+    private void prepareDatabase() {
+        jdbcTemplate.execute("TRUNCATE TABLE orders");
+        if (resetTiers) {
+            jdbcTemplate.update("UPDATE memberships SET tier_id = (SELECT id FROM membership_tiers WHERE tier_level = ?)",
+                    TierLevel.SILVER.name());
+        }
+        membershipAnalytics.rebuild();
+        activityTracker.rebuild();
+        membershipStateCache.rebuild();
+        cohortIndex.rebuild();
+    }
+
+    private BitSet ids(String sql) {
+        BitSet ids = new BitSet();
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong(1);
+            if (id <= Integer.MAX_VALUE) {
+                ids.set((int) id);
+            }
+        });
+        return ids;
+    }
+
+    private static String format(List<MonthReport> months) {
+        StringBuilder sb = new StringBuilder(String.format("%n%-8s %9s %11s %12s %12s %12s %10s  %s%n",
+                "month", "orders", "evaluations", "eval p50 us", "eval p99 us", "eval total ms", "wall ms",
+                "tier transitions"));
+        for (MonthReport m : months) {
+            Histogram h = m.evaluationMicros;
+            sb.append(String.format("%-8s %9d %11d %12d %12d %12d %10d  %s%n", m.month, m.orders,
+                    h.getTotalCount(), h.getValueAtPercentile(50), h.getValueAtPercentile(99),
+                    Math.round(h.getMean() * h.getTotalCount() / 1000), m.wallMillis, m.transitions));
+        }
+        return sb.toString();
+    }
+
+    private static final class MonthReport {
+
+        private final YearMonth month;
+        private final long startNanos = System.nanoTime();
+        private final Histogram evaluationMicros = new Histogram(3);
+        private final Map<String, Long> transitions = new TreeMap<>();
+        private long orders;
+        private long wallMillis;
+
+        MonthReport(YearMonth month) {
+            this.month = month;
+        }
+
+        void finish() {
+            wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+}
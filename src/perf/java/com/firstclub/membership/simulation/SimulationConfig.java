@@ -0,0 +1,17 @@
+package com.firstclub.membership.simulation;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import java.time.Instant;
+import java.time.ZoneId;
+
+@Configuration
+@Profile("simulation")
+public class SimulationConfig {
+
+    @Bean
+    public SimulationClock clock() {
+        return new SimulationClock(Instant.now(), ZoneId.systemDefault());
+    }
+}